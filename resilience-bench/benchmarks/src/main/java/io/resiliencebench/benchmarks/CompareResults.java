@@ -0,0 +1,74 @@
+package io.resiliencebench.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compares two JMH results in JSON, a baseline and a current run, and fails when a benchmark got slower than
+ * the threshold allows. Benchmarks are matched by name and parameters; those only present in one of the
+ * results are reported and ignored.
+ * <p>
+ * Usage: {@code CompareResults <baseline.json> <current.json> [threshold percentage, default 10]}
+ */
+public final class CompareResults {
+
+  public CompareResults() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold percentage]");
+      System.exit(2);
+    }
+    var baseline = read(Path.of(args[0]));
+    var current = read(Path.of(args[1]));
+    var threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+    var regressions = 0;
+    for (var entry : current.entrySet()) {
+      var before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.printf("%-90s new%n", entry.getKey());
+        continue;
+      }
+      var change = (entry.getValue() - before) / before * 100;
+      var regressed = change > threshold;
+      if (regressed) {
+        regressions++;
+      }
+      System.out.printf("%-90s %+8.1f%%%s%n", entry.getKey(), change, regressed ? "  REGRESSION" : "");
+    }
+    baseline.keySet().stream()
+            .filter(key -> !current.containsKey(key))
+            .forEach(key -> System.out.printf("%-90s missing%n", key));
+
+    if (regressions > 0) {
+      System.out.printf("%d benchmark(s) slower than the baseline by more than %.1f%%%n", regressions, threshold);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * The score of each benchmark of the results, by its name and parameters. All modes used here report
+   * time per operation, so a higher score is a slower benchmark.
+   */
+  static Map<String, Double> read(Path path) throws IOException {
+    var scores = new LinkedHashMap<String, Double>();
+    var results = new JsonArray(Files.readString(path));
+    for (int i = 0; i < results.size(); i++) {
+      var result = results.getJsonObject(i);
+      var key = new StringBuilder(result.getString("benchmark"));
+      var params = result.getJsonObject("params", new JsonObject());
+      params.fieldNames().stream().sorted().forEach(name -> key.append(' ').append(name).append('=').append(params.getValue(name)));
+      scores.put(key.toString(), result.getJsonObject("primaryMetric").getDouble("score"));
+    }
+    return scores;
+  }
+}
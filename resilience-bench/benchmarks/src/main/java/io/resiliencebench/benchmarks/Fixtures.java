@@ -0,0 +1,132 @@
+package io.resiliencebench.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.resiliencebench.resources.NameValueProperties;
+import io.resiliencebench.resources.benchmark.Benchmark;
+import io.resiliencebench.resources.benchmark.BenchmarkFaultTemplate;
+import io.resiliencebench.resources.benchmark.BenchmarkSpec;
+import io.resiliencebench.resources.benchmark.ConnectorTemplate;
+import io.resiliencebench.resources.benchmark.IstioPatternTemplate;
+import io.resiliencebench.resources.benchmark.PatternTemplate;
+import io.resiliencebench.resources.benchmark.ScenarioTemplate;
+import io.resiliencebench.resources.benchmark.ServiceTemplate;
+import io.resiliencebench.resources.fault.DelayFault;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import io.resiliencebench.resources.workload.Workload;
+import io.resiliencebench.resources.workload.WorkloadSpec;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Benchmarks, workloads, queues and results shaped like the ones the operator handles, sized by the
+ * parameters of the benchmarks.
+ */
+public final class Fixtures {
+
+  private static final List<String> RETRY_ATTRIBUTES = List.of("attempts", "perTryTimeout", "retryOn", "baseInterval", "maxInterval");
+
+  public Fixtures() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Splits the number into factors of at most ten, one per retry attribute, so a template with one list of
+   * values per factor expands into that number of combinations.
+   */
+  static List<Integer> factors(int combinations) {
+    var factors = new ArrayList<Integer>();
+    var remaining = combinations;
+    while (remaining > 1) {
+      var factor = remaining % 10 == 0 ? 10 : remaining;
+      factors.add(factor);
+      remaining /= factor;
+    }
+    if (factors.size() > RETRY_ATTRIBUTES.size()) {
+      throw new IllegalArgumentException("Too many combinations: " + combinations);
+    }
+    return factors;
+  }
+
+  /**
+   * Retry attributes whose values expand into the given number of combinations.
+   */
+  public static NameValueProperties retry(int combinations) {
+    var retry = new NameValueProperties();
+    var factors = factors(combinations);
+    for (int i = 0; i < factors.size(); i++) {
+      var values = IntStream.rangeClosed(1, factors.get(i)).boxed().toList();
+      retry.add(new NameValueProperties.Attribute(RETRY_ATTRIBUTES.get(i), values));
+    }
+    return retry;
+  }
+
+  public static ConnectorTemplate connector(String name, int combinations) {
+    var pattern = new PatternTemplate(new IstioPatternTemplate(retry(combinations), null, null));
+    var fault = new BenchmarkFaultTemplate(List.of(25), new DelayFault(1000));
+    return new ConnectorTemplate(name, new ServiceTemplate("api-gateway"), new ServiceTemplate("storage"), fault, pattern);
+  }
+
+  /**
+   * A benchmark with one template expanding into the given number of scenarios for a workload of one
+   * user count.
+   */
+  public static Benchmark benchmark(int scenarios) {
+    var benchmark = new Benchmark();
+    benchmark.setMetadata(new ObjectMetaBuilder().withName("benchmark").withNamespace("default").build());
+    benchmark.setSpec(new BenchmarkSpec("workload", List.of(new ScenarioTemplate("template", List.of(connector("api-storage", scenarios))))));
+    return benchmark;
+  }
+
+  /**
+   * A benchmark with one template of the given number of connectors, each with two retry configurations.
+   */
+  public static Benchmark benchmarkWithConnectors(int connectors) {
+    var templates = IntStream.range(0, connectors).mapToObj(i -> connector("connector-" + i, 2)).toList();
+    var benchmark = new Benchmark();
+    benchmark.setMetadata(new ObjectMetaBuilder().withName("benchmark").withNamespace("default").build());
+    benchmark.setSpec(new BenchmarkSpec("workload", List.of(new ScenarioTemplate("template", templates))));
+    return benchmark;
+  }
+
+  public static Workload workload() {
+    var workload = new Workload();
+    workload.setMetadata(new ObjectMetaBuilder().withName("workload").withNamespace("default").build());
+    workload.setSpec(new WorkloadSpec(List.of(50), null));
+    return workload;
+  }
+
+  public static ExecutionQueue queue(int items) {
+    var queueItems = IntStream.range(0, items)
+            .mapToObj(i -> new ExecutionQueueItem(scenarioName(i), "/results/" + scenarioName(i) + ".json"))
+            .toList();
+    return new ExecutionQueue(new ExecutionQueueSpec("/results/results.json", queueItems, "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("default").build());
+  }
+
+  public static String scenarioName(int position) {
+    return "template-" + position;
+  }
+
+  /**
+   * A k6 summary with the given number of metrics, each with the statistics k6 reports for a trend.
+   */
+  public static JsonObject k6Result(int metrics) {
+    var result = new JsonObject();
+    for (int i = 0; i < metrics; i++) {
+      result.put("metric_" + i, new JsonObject()
+              .put("avg", 12.5 + i)
+              .put("min", 1.0)
+              .put("med", 10.0)
+              .put("max", 250.0 + i)
+              .put("p(90)", 40.0)
+              .put("p(95)", 80.0)
+              .put("count", 10_000 + i));
+    }
+    return result;
+  }
+}
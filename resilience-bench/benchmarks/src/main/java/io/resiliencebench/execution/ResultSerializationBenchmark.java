@@ -0,0 +1,65 @@
+package io.resiliencebench.execution;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.resiliencebench.benchmarks.Fixtures;
+import io.resiliencebench.resources.ScenarioSpace;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Serialisation of the result of a scenario: its connectors as JSON, and the merge of the metadata of the
+ * scenario into the k6 summary, as done for every published result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultSerializationBenchmark {
+
+  @Param({"1", "5", "20"})
+  private int connectors;
+
+  @Param({"10", "100"})
+  private int metrics;
+
+  private Scenario scenario;
+  private String k6Result;
+  private JsonObject metadata;
+
+  @Setup
+  public void setUp() {
+    scenario = new ScenarioSpace(Fixtures.benchmarkWithConnectors(connectors), Fixtures.workload()).get(0);
+    k6Result = Fixtures.k6Result(metrics).encode();
+    metadata = new JsonObject()
+            .put("scenario", scenario.getMetadata().getName())
+            .put("workload_name", "workload")
+            .put("workload_users", 50)
+            .put("connectors", scenario.getSpec().toConnectorsInJson());
+  }
+
+  @Benchmark
+  public JsonArray toConnectorsInJson() {
+    return scenario.getSpec().toConnectorsInJson();
+  }
+
+  @Benchmark
+  public String mergeResult() {
+    return new JsonObject(k6Result).mergeIn(metadata).encode();
+  }
+}
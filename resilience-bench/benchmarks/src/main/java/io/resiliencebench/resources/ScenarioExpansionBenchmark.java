@@ -0,0 +1,82 @@
+package io.resiliencebench.resources;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.resiliencebench.benchmarks.Fixtures;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.workload.Workload;
+
+/**
+ * Expansion of a benchmark into its scenarios, from the template of one connector to the whole space.
+ * Lives in the package of the expansion to reach its package-private parts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScenarioExpansionBenchmark {
+
+  @Param({"10", "100", "1000", "10000", "100000"})
+  private int scenarios;
+
+  private io.resiliencebench.resources.benchmark.Benchmark benchmark;
+  private Workload workload;
+  private NameValueProperties retry;
+  private ScenarioSpace space;
+
+  @Setup
+  public void setUp() {
+    benchmark = Fixtures.benchmark(scenarios);
+    workload = Fixtures.workload();
+    retry = Fixtures.retry(scenarios);
+    space = new ScenarioSpace(benchmark, workload);
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> expandConfigTemplate() {
+    return ListExpansion.expandConfigTemplate(retry);
+  }
+
+  @Benchmark
+  public ScenarioSpace createSpace() {
+    return new ScenarioSpace(benchmark, workload);
+  }
+
+  @Benchmark
+  public List<Scenario> createScenarios() {
+    return ScenarioFactory.create(benchmark, workload);
+  }
+
+  /**
+   * Builds one scenario from its position, as the scenario window does when it opens a slot.
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Scenario getScenario() {
+    return space.get(scenarios / 2);
+  }
+
+  @Benchmark
+  public void iterateSpace(Blackhole blackhole) {
+    for (var scenario : space) {
+      blackhole.consume(scenario);
+    }
+  }
+}
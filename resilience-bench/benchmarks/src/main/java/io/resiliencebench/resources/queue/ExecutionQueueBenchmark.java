@@ -0,0 +1,78 @@
+package io.resiliencebench.resources.queue;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.resiliencebench.benchmarks.Fixtures;
+import io.resiliencebench.resources.Phase;
+
+/**
+ * Lookups on a queue. The operator reads the queue again on every reconcile, so the cold variants measure a
+ * lookup on a queue just read, which builds its index first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionQueueBenchmark {
+
+  @Param({"100", "10000", "100000"})
+  private int items;
+
+  private ExecutionQueue queue;
+  private ExecutionQueueSpec spec;
+
+  @Setup
+  public void setUp() {
+    queue = Fixtures.queue(items);
+    spec = queue.getSpec();
+    for (int i = 0; i < items / 2; i++) {
+      spec.getItems().get(i).setStatus(Phase.COMPLETED);
+    }
+    queue.getItems();
+  }
+
+  private String randomScenario() {
+    return Fixtures.scenarioName(ThreadLocalRandom.current().nextInt(items));
+  }
+
+  @Benchmark
+  public int indexOf() {
+    return queue.indexOf(randomScenario());
+  }
+
+  @Benchmark
+  public ExecutionQueueItem getItem() {
+    return queue.getItem(randomScenario());
+  }
+
+  @Benchmark
+  public int countItems() {
+    return queue.countItems(Phase.PENDING);
+  }
+
+  @Benchmark
+  public Optional<ExecutionQueueItem> getNextPendingItem() {
+    return queue.getNextPendingItem();
+  }
+
+  @Benchmark
+  public int indexOfCold() {
+    return new ExecutionQueue(spec, queue.getMetadata()).indexOf(randomScenario());
+  }
+}
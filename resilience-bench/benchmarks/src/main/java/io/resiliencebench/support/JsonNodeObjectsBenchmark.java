@@ -0,0 +1,56 @@
+package io.resiliencebench.support;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.resiliencebench.benchmarks.Fixtures;
+
+/**
+ * Conversion of the JSON values of the custom resources into plain objects, done for every value of every
+ * template attribute while expanding a benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonNodeObjectsBenchmark {
+
+  @Param({"1", "10", "100"})
+  private int fields;
+
+  private JsonNode scalar;
+  private JsonNode object;
+
+  @Setup
+  public void setUp() {
+    var mapper = new ObjectMapper();
+    scalar = mapper.valueToTree(25);
+    object = mapper.valueToTree(Fixtures.k6Result(fields).getMap());
+  }
+
+  @Benchmark
+  public Object scalarToObject() {
+    return JsonNodeObjects.toObject(scalar);
+  }
+
+  @Benchmark
+  public Object objectToObject() {
+    return JsonNodeObjects.toObject(object);
+  }
+}
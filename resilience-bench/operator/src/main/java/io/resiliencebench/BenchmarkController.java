@@ -1,17 +1,22 @@
 package io.resiliencebench;
 
-import java.util.List;
-
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Tracer;
 import io.resiliencebench.execution.QueueExecutor;
+import io.resiliencebench.execution.ScenarioWindow;
+import io.resiliencebench.execution.shard.NamespaceShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
 import io.resiliencebench.resources.ExecutionQueueFactory;
-import io.resiliencebench.resources.ScenarioFactory;
+import io.resiliencebench.resources.ScenarioSpace;
 import io.resiliencebench.resources.benchmark.Benchmark;
 import io.resiliencebench.resources.benchmark.BenchmarkStatus;
 import io.resiliencebench.resources.queue.ExecutionQueue;
@@ -19,23 +24,42 @@ import io.resiliencebench.resources.scenario.Scenario;
 import io.resiliencebench.resources.workload.Workload;
 import io.resiliencebench.support.CustomResourceRepository;
 
+import static io.resiliencebench.support.CustomResourceRepository.EXECUTION_ID_LABEL;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 @ControllerConfiguration
-public class BenchmarkController implements Reconciler<Benchmark> {
+public class BenchmarkController implements Reconciler<Benchmark>, Cleaner<Benchmark> {
 
   private static final Logger logger = LoggerFactory.getLogger(BenchmarkController.class);
 
+  static final String RECONCILE_DURATION_METRIC = "resiliencebench.reconcile.duration";
+
+  /**
+   * How long to wait before checking again whether the shard namespaces being deleted are gone.
+   */
+  private static final long SHARD_DELETION_CHECK_SECONDS = 10;
+
   private final CustomResourceRepository<Scenario> scenarioRepository;
 
   private final CustomResourceRepository<Workload> workloadRepository;
   private final CustomResourceRepository<ExecutionQueue> queueRepository;
 
   private final QueueExecutor queueExecutor;
+  private final NamespaceShardManager shardManager;
+  private final ScenarioWindow scenarioWindow;
+  private final Tracer tracer;
 
   public BenchmarkController(QueueExecutor queueExecutor,
+                             NamespaceShardManager shardManager,
+                             ScenarioWindow scenarioWindow,
+                             Tracer tracer,
                              CustomResourceRepository<Scenario> scenarioRepository,
                              CustomResourceRepository<Workload> workloadRepository,
                              CustomResourceRepository<ExecutionQueue> queueRepository) {
     this.queueExecutor = queueExecutor;
+    this.shardManager = shardManager;
+    this.scenarioWindow = scenarioWindow;
+    this.tracer = tracer;
     this.scenarioRepository = scenarioRepository;
     this.workloadRepository = workloadRepository;
     this.queueRepository = queueRepository;
@@ -43,6 +67,33 @@ public class BenchmarkController implements Reconciler<Benchmark> {
 
   @Override
   public UpdateControl<Benchmark> reconcile(Benchmark benchmark, Context<Benchmark> context) {
+    var span = tracer.nextSpan().name("reconcile")
+            .tag("resiliencebench.benchmark", benchmark.getMetadata().getName())
+            .tag("k8s.namespace.name", benchmark.getMetadata().getNamespace())
+            .start();
+    var sample = Timer.start(Metrics.globalRegistry);
+    try (var ignored = tracer.withSpan(span)) {
+      return reconcileBenchmark(benchmark);
+    } finally {
+      sample.stop(Metrics.timer(RECONCILE_DURATION_METRIC));
+      span.end();
+    }
+  }
+
+  /**
+   * Deletes the shard namespaces of the benchmark, which being cluster scoped cannot be owned by it. The
+   * benchmark is kept and checked again until they are gone.
+   */
+  @Override
+  public DeleteControl cleanup(Benchmark benchmark, Context<Benchmark> context) {
+    if (!shardManager.teardown(benchmark)) {
+      logger.info("Waiting for the shards of benchmark {} to be deleted", benchmark.getMetadata().getName());
+      return DeleteControl.noFinalizerRemoval().rescheduleAfter(SHARD_DELETION_CHECK_SECONDS, SECONDS);
+    }
+    return DeleteControl.defaultDelete();
+  }
+
+  private UpdateControl<Benchmark> reconcileBenchmark(Benchmark benchmark) {
     var benchmarkName = benchmark.getMetadata().getName();
     var namespace = benchmark.getMetadata().getNamespace();
     
@@ -65,8 +116,8 @@ public class BenchmarkController implements Reconciler<Benchmark> {
 
       var currentQueue = queueRepository.find(benchmarkName, namespace);
       if (currentQueue.isPresent()) {
-        if (currentQueue.get().hasPendingItems() && !currentQueue.get().isRunning()) {
-          logger.info("Benchmark {} has an active execution queue with pending items and none running", benchmarkName);
+        if (currentQueue.get().hasPendingItems()) {
+          logger.info("Benchmark {} has an active execution queue with pending items", benchmarkName);
           queueExecutor.execute(currentQueue.get());
         }
 
@@ -79,18 +130,29 @@ public class BenchmarkController implements Reconciler<Benchmark> {
         return updateStatusWithError(benchmark, "Workload not found: " + benchmark.getSpec().getWorkload());
       }
 
-      var scenariosList = createScenarios(benchmark, workload.get());
-      if (scenariosList.isEmpty()) {
+      if (!shardManager.supports(benchmark)) {
+        logger.error("Benchmark {} has more than one shard but results are stored locally", benchmarkName);
+        return updateStatusWithError(benchmark, "More than one shard requires STORAGE_TYPE=CLOUD");
+      }
+
+      var scenarioSpace = new ScenarioSpace(benchmark, workload.get());
+      if (scenarioSpace.isEmpty()) {
         logger.error("No scenarios generated for benchmark {}", benchmarkName);
         return updateStatusWithError(benchmark, "No scenarios generated");
       }
 
-      var executionQueue = prepareToRunScenarios(benchmark, scenariosList);
+      if (benchmark.getSpec().isAutoCreateQueue() && !shardManager.teardown(benchmark)) {
+        logger.info("Waiting for the previous shards of benchmark {} to be deleted", benchmarkName);
+        return UpdateControl.<Benchmark>noUpdate().rescheduleAfter(SHARD_DELETION_CHECK_SECONDS, SECONDS);
+      }
+
+      var executionQueue = prepareToRunScenarios(benchmark, workload.get(), scenarioSpace);
 
-      var status = createOrUpdateStatus(benchmark, scenariosList.size());
+      var status = createOrUpdateStatus(benchmark, Math.toIntExact(scenarioSpace.size()));
+      status.setShards(executionQueue.getSpec().getNamespaces());
       benchmark.setStatus(status);
 
-      logger.info("Benchmark reconciled {}. {} scenarios created", benchmarkName, scenariosList.size());
+      logger.info("Benchmark reconciled {}. {} scenarios generated", benchmarkName, scenarioSpace.size());
       
       queueExecutor.execute(executionQueue);
       return UpdateControl.updateStatus(benchmark);
@@ -129,42 +191,37 @@ public class BenchmarkController implements Reconciler<Benchmark> {
     }
   }
 
-  private List<Scenario> createScenarios(Benchmark benchmark, Workload workload) {
-    var namespace = benchmark.getMetadata().getNamespace();
-    
-    scenarioRepository.deleteAll(namespace);
-
-    var scenariosList = ScenarioFactory.create(benchmark, workload);
-    scenariosList.forEach(scenarioRepository::create);
-    
-    logger.info("Created {} scenarios for benchmark: {}", scenariosList.size(), benchmark.getMetadata().getName());
-    return scenariosList;
-  }
-
-  private ExecutionQueue prepareToRunScenarios(Benchmark benchmark, List<Scenario> scenariosList) {
+  private ExecutionQueue prepareToRunScenarios(Benchmark benchmark, Workload workload, ScenarioSpace scenarioSpace) {
     var namespace = benchmark.getMetadata().getNamespace();
+    var benchmarkName = benchmark.getMetadata().getName();
+    scenarioRepository.listByOwner(namespace, benchmarkName).forEach(scenarioRepository::delete);
 
     if (benchmark.getSpec().isAutoCreateQueue()) {
-      scenarioRepository.deleteAll(namespace);
-      scenariosList.forEach(scenarioRepository::create);
-
-      queueRepository.deleteAll(namespace);
-      var queueCreated = ExecutionQueueFactory.create(benchmark, scenariosList);
+      queueRepository.listByOwner(namespace, benchmarkName).forEach(queueRepository::delete);
+      var shardNamespaces = shardManager.provision(benchmark, workload);
+      var queueCreated = ExecutionQueueFactory.create(benchmark, scenarioSpace, shardNamespaces);
 
       if (benchmark.getStatus() != null && benchmark.getStatus().getExecutionId() != null) {
         if (queueCreated.getMetadata().getLabels() == null) {
           queueCreated.getMetadata().setLabels(new java.util.HashMap<>());
         }
-        queueCreated.getMetadata().getLabels().put("execution-id", benchmark.getStatus().getExecutionId());
+        queueCreated.getMetadata().getLabels().put(EXECUTION_ID_LABEL, benchmark.getStatus().getExecutionId());
       }
 
-      return queueRepository.create(queueCreated);
+      var queue = queueRepository.create(queueCreated);
+      scenarioWindow.open(benchmark, scenarioSpace, queue);
+      return queue;
     } else {
       var existingQueue = queueRepository.find(namespace, benchmark.getSpec().getQueueName());
       if (existingQueue.isEmpty()) {
         throw new IllegalStateException("ExecutionQueue not found and autoCreateQueue is false");
       }
-      return existingQueue.get();
+      var queue = existingQueue.get();
+      if (ExecutionQueueFactory.locate(queue, scenarioSpace)) {
+        queue = queueRepository.update(queue);
+      }
+      scenarioWindow.open(benchmark, scenarioSpace, queue);
+      return queue;
     }
   }
 }
@@ -0,0 +1,107 @@
+package io.resiliencebench.config;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Appends the spans to a file as JSON lines, one span per line, for runs without a collector.
+ */
+class FileSpanExporter implements SpanExporter {
+
+  private final static Logger logger = LoggerFactory.getLogger(FileSpanExporter.class);
+
+  private final Path file;
+  private final BufferedWriter writer;
+
+  FileSpanExporter(Path file) throws IOException {
+    this.file = file;
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    this.writer = Files.newBufferedWriter(file, UTF_8, CREATE, APPEND);
+  }
+
+  @Override
+  public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+    try {
+      for (var span : spans) {
+        writer.write(toJson(span).encode());
+        writer.newLine();
+      }
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      logger.warn("Error writing {} span(s) to {}. {}", spans.size(), file, e.getMessage());
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  static JsonObject toJson(SpanData span) {
+    var events = new JsonArray();
+    span.getEvents().forEach(event -> events.add(new JsonObject()
+            .put("name", event.getName())
+            .put("time", timestamp(event.getEpochNanos()))
+            .put("attributes", toJson(event.getAttributes()))));
+    return new JsonObject()
+            .put("traceId", span.getTraceId())
+            .put("spanId", span.getSpanId())
+            .put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null)
+            .put("name", span.getName())
+            .put("kind", span.getKind().name())
+            .put("startTime", timestamp(span.getStartEpochNanos()))
+            .put("endTime", timestamp(span.getEndEpochNanos()))
+            .put("durationMs", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0)
+            .put("status", span.getStatus().getStatusCode().name())
+            .put("attributes", toJson(span.getAttributes()))
+            .put("events", events)
+            .put("resource", toJson(span.getResource().getAttributes()));
+  }
+
+  private static JsonObject toJson(Attributes attributes) {
+    var json = new JsonObject();
+    attributes.forEach((key, value) -> json.put(key.getKey(), value));
+    return json;
+  }
+
+  private static String timestamp(long epochNanos) {
+    return Instant.ofEpochSecond(0, epochNanos).toString();
+  }
+
+  @Override
+  public synchronized CompletableResultCode flush() {
+    try {
+      writer.flush();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  @Override
+  public synchronized CompletableResultCode shutdown() {
+    try {
+      writer.close();
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      return CompletableResultCode.ofFailure();
+    }
+  }
+}
@@ -1,16 +1,21 @@
 package io.resiliencebench.config;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import io.fabric8.istio.client.DefaultIstioClient;
 import io.fabric8.istio.client.IstioClient;
+import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientBuilder;
 import io.javaoperatorsdk.operator.Operator;
@@ -20,6 +25,7 @@ import io.resiliencebench.resources.queue.ExecutionQueue;
 import io.resiliencebench.resources.scenario.Scenario;
 import io.resiliencebench.resources.service.ResilientService;
 import io.resiliencebench.resources.workload.Workload;
+import io.resiliencebench.support.CachingCustomResourceRepository;
 import io.resiliencebench.support.CustomResourceRepository;
 import org.springframework.web.client.RestTemplate;
 
@@ -31,6 +37,9 @@ public class OperatorConfiguration {
   private KubernetesClient kubernetesClient;
   private IstioClient istioClient;
 
+  @Value("${REPOSITORY_CACHE_ENABLED:true}")
+  private boolean repositoryCacheEnabled;
+
   @Bean KubernetesClient kubernetesClient() {
     kubernetesClient = new KubernetesClientBuilder().build();
     return kubernetesClient;
@@ -66,23 +75,47 @@ public class OperatorConfiguration {
   }
 
   @Bean CustomResourceRepository<Scenario> scenarioRepository(KubernetesClient kubernetesClient) {
-    return new CustomResourceRepository<>(kubernetesClient, Scenario.class);
+    return repository(kubernetesClient, Scenario.class);
   }
 
   @Bean CustomResourceRepository<ExecutionQueue> executionRepository(KubernetesClient kubernetesClient) {
-    return new CustomResourceRepository<>(kubernetesClient, ExecutionQueue.class);
+    return repository(kubernetesClient, ExecutionQueue.class);
   }
 
   @Bean CustomResourceRepository<Workload> workloadRepository(KubernetesClient kubernetesClient) {
-    return new CustomResourceRepository<>(kubernetesClient, Workload.class);
+    return repository(kubernetesClient, Workload.class);
   }
 
   @Bean CustomResourceRepository<Benchmark> benchmarkRepository(KubernetesClient kubernetesClient) {
-    return new CustomResourceRepository<>(kubernetesClient, Benchmark.class);
+    return repository(kubernetesClient, Benchmark.class);
   }
 
   @Bean CustomResourceRepository<ResilientService> resilientServiceRepository(KubernetesClient kubernetesClient) {
-    return new CustomResourceRepository<>(kubernetesClient, ResilientService.class);
+    return repository(kubernetesClient, ResilientService.class);
+  }
+
+  /**
+   * Creates a repository serving reads from an informer cache, unless REPOSITORY_CACHE_ENABLED is false.
+   */
+  private <T extends CustomResource<?, ?>> CustomResourceRepository<T> repository(KubernetesClient kubernetesClient, Class<T> resourceClass) {
+    if (repositoryCacheEnabled) {
+      return new CachingCustomResourceRepository<>(kubernetesClient, resourceClass);
+    }
+    return new CustomResourceRepository<>(kubernetesClient, resourceClass);
+  }
+
+  /**
+   * Runs the scenario steps outside the reconciler threads. Steps waiting on the cluster do not hold
+   * a thread from this pool while they wait.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ExecutorService stepExecutor(@Value("${STEP_EXECUTOR_THREADS:8}") int threads) {
+    var count = new AtomicInteger();
+    return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+      var thread = new Thread(runnable, "scenario-step-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   @Bean RestTemplate restTemplate() {
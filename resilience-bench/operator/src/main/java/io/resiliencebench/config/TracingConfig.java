@@ -0,0 +1,38 @@
+package io.resiliencebench.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Exporters of the spans recorded by the operator. Spring Boot hands every exporter declared here to the
+ * OpenTelemetry SDK, so spans can be sent to an OTLP collector, written to a file, or both.
+ */
+@Configuration
+public class TracingConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(TracingConfig.class);
+
+  @Bean
+  @ConditionalOnProperty(name = "TRACING_OTLP_ENDPOINT")
+  SpanExporter otlpSpanExporter(@Value("${TRACING_OTLP_ENDPOINT}") String endpoint) {
+    log.info("Exporting spans to {}", endpoint);
+    return OtlpHttpSpanExporter.builder().setEndpoint(endpoint).build();
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "TRACING_FILE")
+  SpanExporter fileSpanExporter(@Value("${TRACING_FILE}") String file) throws IOException {
+    log.info("Writing spans to {}", file);
+    return new FileSpanExporter(Path.of(file));
+  }
+}
@@ -1,8 +1,8 @@
 package io.resiliencebench.execution;
 
+import io.resiliencebench.resources.Phase;
 import io.resiliencebench.resources.benchmark.Benchmark;
 import io.resiliencebench.resources.queue.ExecutionQueue;
-import io.resiliencebench.resources.queue.ExecutionQueueItem;
 import io.resiliencebench.support.CustomResourceRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,13 +88,11 @@ public class BenchmarkStatusUpdater {
     }
 
     /**
-     * Calculates the current progress from the execution queue
+     * Calculates the current progress from the execution queue. Failed items are over too, so they count
+     * as completed for the progress of the benchmark.
      */
     private ProgressInfo calculateProgress(ExecutionQueue queue) {
-        var items = queue.getSpec().getItems();
-        var running = (int) items.stream().filter(ExecutionQueueItem::isRunning).count();
-        var completed = (int) items.stream().filter(ExecutionQueueItem::isFinished).count();
-        return new ProgressInfo(running, completed);
+        return new ProgressInfo(queue.countItems(Phase.RUNNING), queue.countItems(Phase.COMPLETED) + queue.countItems(Phase.FAILED));
     }
 
     private record ProgressInfo(int running, int completed) {}
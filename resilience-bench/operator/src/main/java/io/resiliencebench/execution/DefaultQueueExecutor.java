@@ -3,11 +3,28 @@ package io.resiliencebench.execution;
 
 import static java.lang.String.format;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.tracing.Tracer;
+import io.resiliencebench.execution.io.ResultPublisher;
+import io.resiliencebench.execution.shard.NamespaceShardManager;
 import io.resiliencebench.resources.queue.ExecutionQueueItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import io.resiliencebench.resources.Phase;
 import io.resiliencebench.resources.queue.ExecutionQueue;
 import io.resiliencebench.resources.scenario.Scenario;
 import io.resiliencebench.support.CustomResourceRepository;
@@ -17,51 +34,227 @@ public class DefaultQueueExecutor implements QueueExecutor {
 
   private final static Logger logger = LoggerFactory.getLogger(DefaultQueueExecutor.class);
 
+  static final String QUEUE_ITEMS_METRIC = "resiliencebench.queue.items";
+  private static final List<String> PHASES = List.of(Phase.PENDING, Phase.RUNNING, Phase.COMPLETED, Phase.FAILED);
+
   private final CustomResourceRepository<Scenario> scenarioRepository;
   private final CustomResourceRepository<ExecutionQueue> executionRepository;
 
   private final ScenarioExecutor scenarioExecutor;
+  private final NamespaceShardManager shardManager;
+  private final ScenarioWindow scenarioWindow;
+  private final ResultPublisher resultPublisher;
+  private final Tracer tracer;
+
+  /**
+   * Operator-wide pool of execution slots, shared by all queues. A slot is taken when a scenario
+   * starts and given back when its job completes.
+   */
+  private final Semaphore slots;
+
+  /**
+   * Items started and not finished yet, by queue and scenario. An item stays in flight until its
+   * post-execution steps are over, whatever the phase recorded in the queue meanwhile, so its services
+   * are not used by another scenario while they are being restored.
+   */
+  private final Map<String, InFlightItem> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Queues that had items ready to start when no execution slot was left, by queue, in the order they
+   * were left waiting. They are dispatched again whenever a slot is released.
+   */
+  private final Map<String, ExecutionQueue> waitingForSlot = new LinkedHashMap<>();
+
+  /**
+   * Values of the queue depth gauges, by queue and phase.
+   */
+  private final Map<String, AtomicLong> queueItems = new ConcurrentHashMap<>();
 
   public DefaultQueueExecutor(
           CustomResourceRepository<Scenario> scenarioRepository,
           CustomResourceRepository<ExecutionQueue> executionRepository,
-          ScenarioExecutor scenarioExecutor) {
+          ScenarioExecutor scenarioExecutor,
+          NamespaceShardManager shardManager,
+          ScenarioWindow scenarioWindow,
+          ResultPublisher resultPublisher,
+          Tracer tracer,
+          @Value("${MAX_PARALLEL_SCENARIOS:4}") int maxParallelScenarios) {
     this.scenarioRepository = scenarioRepository;
     this.executionRepository = executionRepository;
     this.scenarioExecutor = scenarioExecutor;
+    this.shardManager = shardManager;
+    this.scenarioWindow = scenarioWindow;
+    this.resultPublisher = resultPublisher;
+    this.tracer = tracer;
+    this.slots = new Semaphore(Math.max(1, maxParallelScenarios));
   }
 
   @Override
-  public void execute(ExecutionQueue queue) {
+  public synchronized void execute(ExecutionQueue queue) {
+    var span = tracer.nextSpan().name("queue.execute")
+            .tag(ScenarioTracer.QUEUE_TAG, queue.getMetadata().getName())
+            .start();
+    try (var ignored = tracer.withSpan(span)) {
+      dispatch(queue);
+    } catch (RuntimeException e) {
+      span.error(e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+
+  private void dispatch(ExecutionQueue queue) {
     var queueToExecute = executionRepository.find(queue.getMetadata())
             .orElseThrow(() -> new RuntimeException("Queue not found " + queue.getMetadata().getName()));
+    scenarioWindow.advance(queueToExecute);
+    recordQueueItems(queueToExecute);
 
-    if (queueToExecute.isRunning()) {
-      logger.info("Queue has item running: {}", queueToExecute.getMetadata().getName());
-      return;
+    var busyServices = new HashSet<String>();
+    var inFlightItems = inFlightItems(queueToExecute);
+    inFlightItems.forEach(item -> item.services().forEach(service -> busyServices.add(serviceKey(item.namespace(), service))));
+    // items running since before the operator started
+    var runningItems = queueToExecute.getRunningItems().stream()
+            .filter(item -> !inFlight.containsKey(itemKey(queueToExecute, item)))
+            .toList();
+    for (var item : runningItems) {
+      var namespace = item.getNamespace() != null ? item.getNamespace() : queueToExecute.getMetadata().getNamespace();
+      getScenario(item, queueToExecute).getSpec().getResilientServices()
+              .forEach(service -> busyServices.add(serviceKey(namespace, service)));
     }
 
-    var nextItem = queueToExecute.getNextPendingItem();
+    var startedItems = inFlightItems.size() + runningItems.size();
+    var freeSlots = queueToExecute.getParallelism() - startedItems;
+    if (freeSlots <= 0) {
+      logger.info("Queue has {} item(s) running: {}", startedItems, queueToExecute.getMetadata().getName());
+      return;
+    }
 
-    if (nextItem.isPresent() && nextItem.get().isPending()) {
-      executeScenario(nextItem.get(), queueToExecute);
-    } else {
+    var pendingItems = queueToExecute.getPendingItems().stream()
+            .filter(item -> !inFlight.containsKey(itemKey(queueToExecute, item)))
+            .toList();
+    if (pendingItems.isEmpty()) {
       logger.info("No item available for queue: {}", queueToExecute.getMetadata().getName());
-      if (queueToExecute.isDone()) {
+      if (queueToExecute.isDone() && inFlightItems.isEmpty()) {
         logger.info("All items finished for: {}", queueToExecute.getMetadata().getName());
+        resultPublisher.compact(queueToExecute);
+        shardManager.teardown(queueToExecute);
+      }
+      return;
+    }
+
+    for (var item : pendingItems) {
+      if (freeSlots == 0) {
+        break;
+      }
+      var scenario = getScenario(item, queueToExecute);
+      var services = scenario.getSpec().getResilientServices();
+      var namespace = findAvailableNamespace(queueToExecute, busyServices, services);
+      if (namespace.isEmpty()) {
+        logger.debug("Scenario {} shares services with a running scenario. Skipping", item.getScenario());
+        continue;
+      }
+      if (!slots.tryAcquire()) {
+        logger.info("No execution slot available for queue: {}", queueToExecute.getMetadata().getName());
+        waitingForSlot.put(queueKey(queueToExecute), queueToExecute);
+        break;
+      }
+      scenario.getMetadata().setNamespace(namespace.get());
+      executeScenario(scenario, services, item, queueToExecute);
+      services.forEach(service -> busyServices.add(serviceKey(namespace.get(), service)));
+      freeSlots--;
+    }
+  }
+
+  private void recordQueueItems(ExecutionQueue queue) {
+    var namespace = queue.getMetadata().getNamespace();
+    var name = queue.getMetadata().getName();
+    for (var phase : PHASES) {
+      queueItems.computeIfAbsent(namespace + "/" + name + "/" + phase, key -> Metrics.gauge(QUEUE_ITEMS_METRIC,
+                      Tags.of("namespace", namespace, "queue", name, "phase", phase), new AtomicLong()))
+              .set(queue.countItems(phase));
+    }
+  }
+
+  private void executeScenario(Scenario scenario, Set<String> services, ExecutionQueueItem item, ExecutionQueue executionQueue) {
+    logger.info("Running scenario: {}", scenario.getMetadata().getName());
+    var key = itemKey(executionQueue, item);
+    inFlight.put(key, new InFlightItem(scenario.getMetadata().getNamespace(), Set.copyOf(services)));
+    try {
+      scenarioExecutor.execute(scenario, executionQueue, () -> {
+        inFlight.remove(key);
+        slots.release();
+        dispatchAfterRelease(executionQueue);
+      });
+    } catch (RuntimeException e) {
+      inFlight.remove(key);
+      slots.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Dispatches the queue whose item released a slot, then the queues left waiting for a slot, until no
+   * slot is left. Queues still finding no slot are left waiting again.
+   */
+  private synchronized void dispatchAfterRelease(ExecutionQueue executionQueue) {
+    var queues = new LinkedHashMap<String, ExecutionQueue>();
+    queues.put(queueKey(executionQueue), executionQueue);
+    waitingForSlot.forEach(queues::putIfAbsent);
+    waitingForSlot.clear();
+    for (var entry : queues.entrySet()) {
+      if (slots.availablePermits() == 0) {
+        waitingForSlot.putIfAbsent(entry.getKey(), entry.getValue());
+        continue;
+      }
+      try {
+        execute(entry.getValue());
+      } catch (RuntimeException e) {
+        logger.error("Error executing queue {}", entry.getValue().getMetadata().getName(), e);
       }
     }
   }
 
-  private void executeScenario(ExecutionQueueItem item, ExecutionQueue executionQueue) {
+  private List<InFlightItem> inFlightItems(ExecutionQueue executionQueue) {
+    var prefix = queueKey(executionQueue) + "/";
+    return inFlight.entrySet().stream()
+            .filter(entry -> entry.getKey().startsWith(prefix))
+            .map(Map.Entry::getValue)
+            .toList();
+  }
+
+  private static String itemKey(ExecutionQueue executionQueue, ExecutionQueueItem item) {
+    return queueKey(executionQueue) + "/" + item.getScenario();
+  }
+
+  private static String queueKey(ExecutionQueue executionQueue) {
+    return executionQueue.getMetadata().getNamespace() + "/" + executionQueue.getMetadata().getName();
+  }
+
+  private Scenario getScenario(ExecutionQueueItem item, ExecutionQueue executionQueue) {
     var scenarioName = item.getScenario();
     var namespace = executionQueue.getMetadata().getNamespace();
-    var scenario = scenarioRepository.find(namespace, scenarioName);
-    if (scenario.isPresent()) {
-      logger.info("Running scenario: {}", scenarioName);
-      scenarioExecutor.execute(scenario.get(), executionQueue, () -> execute(executionQueue));
-    } else {
-      throw new RuntimeException(format("Scenario not found: %s.%s", namespace, scenarioName));
-    }
+    return scenarioRepository.find(namespace, scenarioName)
+            .or(() -> scenarioWindow.create(executionQueue, item))
+            .orElseThrow(() -> new RuntimeException(format("Scenario not found: %s.%s", namespace, scenarioName)));
+  }
+
+  /**
+   * Finds the first namespace of the queue where none of the given services is used by a running scenario.
+   */
+  private static Optional<String> findAvailableNamespace(ExecutionQueue queue, Set<String> busyServices, Set<String> services) {
+    return queue.getExecutionNamespaces().stream()
+            .filter(namespace -> services.stream().noneMatch(service -> busyServices.contains(serviceKey(namespace, service))))
+            .findFirst();
+  }
+
+  private static String serviceKey(String namespace, String service) {
+    return namespace + "/" + service;
+  }
+
+  /**
+   * The namespace an item was started in and the resilient services of its scenario.
+   */
+  private record InFlightItem(String namespace, Set<String> services) {
   }
 }
@@ -1,12 +1,14 @@
 package io.resiliencebench.execution;
 
+import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.batch.v1.Job;
 import io.fabric8.kubernetes.api.model.batch.v1.JobList;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.Watcher;
-import io.fabric8.kubernetes.client.WatcherException;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.ScalableResource;
+import io.resiliencebench.execution.steps.ExecutorStep;
+import io.resiliencebench.execution.steps.StepListener;
 import io.resiliencebench.execution.steps.StepRegistry;
 import io.resiliencebench.execution.steps.k6.K6JobFactory;
 import io.resiliencebench.resources.queue.ExecutionQueue;
@@ -15,11 +17,21 @@ import io.resiliencebench.resources.workload.Workload;
 import io.resiliencebench.support.CustomResourceRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
+import static io.resiliencebench.execution.ExecutionTimeline.*;
 import static io.resiliencebench.support.Annotations.*;
+import static io.resiliencebench.support.CustomResourceRepository.EXECUTION_ID_LABEL;
 import static java.util.Objects.nonNull;
 
 @Service
@@ -29,25 +41,40 @@ public class DefaultScenarioExecutor implements ScenarioExecutor {
   private final KubernetesClient kubernetesClient;
   private final StepRegistry stepRegistry;
   private final K6JobFactory k6JobFactory;
+  private final JobCompletionNotifier jobCompletionNotifier;
+  private final Executor stepExecutor;
+  private final ExecutionTimeline timeline;
+  private final ScenarioTracer scenarioTracer;
 
-  private final CustomResourceRepository<Scenario> scenarioRepository;
   private final CustomResourceRepository<ExecutionQueue> executionRepository;
   private final CustomResourceRepository<Workload> workloadRepository;
 
   public DefaultScenarioExecutor(KubernetesClient kubernetesClient,
                                  StepRegistry stepRegistry,
                                  K6JobFactory k6JobFactory,
-                                 CustomResourceRepository<Scenario> scenarioRepository,
+                                 JobCompletionNotifier jobCompletionNotifier,
+                                 @Qualifier("stepExecutor") Executor stepExecutor,
+                                 ExecutionTimeline timeline,
+                                 ScenarioTracer scenarioTracer,
                                  CustomResourceRepository<ExecutionQueue> executionRepository,
                                  CustomResourceRepository<Workload> workloadRepository) {
     this.kubernetesClient = kubernetesClient;
     this.stepRegistry = stepRegistry;
     this.k6JobFactory = k6JobFactory;
-    this.scenarioRepository = scenarioRepository;
+    this.jobCompletionNotifier = jobCompletionNotifier;
+    this.stepExecutor = stepExecutor;
+    this.timeline = timeline;
+    this.scenarioTracer = scenarioTracer;
     this.executionRepository = executionRepository;
     this.workloadRepository = workloadRepository;
   }
 
+  /**
+   * Starts the scenario and returns without waiting for it. The preparation steps, the k6 job and the
+   * post-execution steps run on the step executor, and onCompletion runs once the scenario is over,
+   * even if one of them fails. Every stage of the run is recorded in the timeline of the scenario and
+   * traced as a span of its trace.
+   */
   @Override
   public void execute(Scenario scenario, ExecutionQueue executionQueue, Runnable onCompletion) {
     var ns = scenario.getMetadata().getNamespace();
@@ -55,57 +82,161 @@ public class DefaultScenarioExecutor implements ScenarioExecutor {
     var workload = workloadRepository.find(ns, workloadName)
             .orElseThrow(() -> new IllegalArgumentException("Workload does not exists: %s".formatted(workloadName)));
 
-    executePreparationSteps(scenario, executionQueue);
+    var scenarioName = scenario.getMetadata().getName();
+    timeline.start(executionQueue, scenarioName);
+    scenarioTracer.start(executionQueue, scenarioName);
+    stepRegistry.runPreparationSteps(scenario, executionQueue, stepListener(executionQueue, scenarioName))
+            .thenCompose(ignored -> runJob(scenario, workload, executionQueue, onCompletion))
+            .whenComplete((ignored, error) -> {
+              if (error != null) {
+                logger.error("Error running scenario {}", scenarioName, error);
+                finish(scenario, executionQueue, true, onCompletion);
+              }
+            });
+  }
+
+  /**
+   * Creates the k6 job of the scenario and finishes the scenario once the job is over. The span of the job
+   * covers it from its creation to its completion.
+   */
+  private CompletionStage<Void> runJob(Scenario scenario, Workload workload, ExecutionQueue executionQueue, Runnable onCompletion) {
+    var scenarioName = scenario.getMetadata().getName();
+    var jobSpan = scenarioTracer.startSpan(executionQueue, scenarioName, "job");
+    return createJob(scenario, workload, executionQueue)
+            .whenComplete((createdJob, error) -> {
+              if (error != null) {
+                ScenarioTracer.end(jobSpan, error);
+              }
+            })
+            .thenAccept(createdJob -> {
+              logger.info("Job created: {}", createdJob.getMetadata().getName());
+              timeline.record(executionQueue, scenarioName, JOB_CREATED, timestamp(createdJob.getMetadata().getCreationTimestamp()));
+              timeline.flush(executionQueue, scenarioName);
+              jobSpan.tag("k8s.job.name", createdJob.getMetadata().getName());
+              jobCompletionNotifier.onCompletion(createdJob, finishedJob -> {
+                var callbackSpan = scenarioTracer.startSpan(executionQueue, scenarioName, "job.completion");
+                recordJob(executionQueue, scenarioName, finishedJob);
+                callbackSpan.end();
+                var succeeded = finishedJob.getStatus() != null && nonNull(finishedJob.getStatus().getCompletionTime());
+                jobSpan.tag("outcome", succeeded ? "succeeded" : "failed").end();
+                finish(scenario, executionQueue, !succeeded, onCompletion);
+              });
+            });
+  }
+
+  private CompletionStage<Job> createJob(Scenario scenario, Workload workload, ExecutionQueue executionQueue) {
     var executionQueueItem = executionQueue.getItem(scenario.getMetadata().getName());
     var job = k6JobFactory.create(scenario, workload, executionQueueItem);
 
     // Add execution ID label for tracking
-    if (executionQueue.getMetadata().getLabels().containsKey("execution-id")) {
-      job.getMetadata().getLabels().put(EXECUTION_ID, executionQueue.getMetadata().getLabels().get("execution-id"));
+    if (executionQueue.getMetadata().getLabels().containsKey(EXECUTION_ID_LABEL)) {
+      job.getMetadata().getLabels().put(EXECUTION_ID, executionQueue.getMetadata().getLabels().get(EXECUTION_ID_LABEL));
     }
-    
+
     var jobsClient = kubernetesClient.batch().v1().jobs();
-    deleteJob(jobsClient, job.getMetadata().getName(), ns);
-    jobsClient.resource(job).create();
+    return deleteJob(jobsClient, job.getMetadata().getName(), job.getMetadata().getNamespace())
+            .thenApplyAsync(ignored -> jobsClient.resource(job).create(), stepExecutor);
+  }
+
+  /**
+   * Runs the post-execution steps of the scenario, which record its item as failed when the scenario
+   * failed, whether in its preparation, its job creation or its job.
+   */
+  private void finish(Scenario scenario, ExecutionQueue executionQueue, boolean failed, Runnable onCompletion) {
+    var scenarioName = scenario.getMetadata().getName();
+    timeline.finishing(executionQueue, scenarioName);
+    // the job may run in a shard namespace, so the queue is looked up where it was created
+    CompletableFuture.supplyAsync(() -> executionRepository.get(
+                    executionQueue.getMetadata().getNamespace(),
+                    executionQueue.getMetadata().getName()), stepExecutor)
+            .thenCompose(currentQueue -> stepRegistry.runPostExecutionSteps(scenario, currentQueue, failed, stepListener(executionQueue, scenarioName)))
+            .whenComplete((ignored, error) -> {
+              if (error != null) {
+                logger.error("Error running post-execution steps of scenario {}", scenarioName, error);
+              }
+              timeline.postStepsCompleted(executionQueue, scenarioName);
+              scenarioTracer.end(executionQueue, scenarioName, error);
+              onCompletion.run();
+            });
+  }
 
-    logger.info("Job created: {}", job.getMetadata().getName());
-    jobsClient.resource(job).watch(new Watcher<>() {
+  /**
+   * Records how long each step took in the timeline of the scenario and traces it as a span.
+   */
+  private StepListener stepListener(ExecutionQueue executionQueue, String scenarioName) {
+    var tracing = scenarioTracer.stepListener(executionQueue, scenarioName);
+    return new StepListener() {
       @Override
-      public void eventReceived(Action action, Job resource) {
-        if (action.equals(Action.MODIFIED) && nonNull(resource.getStatus().getCompletionTime())) {
-          logger.info("Finished job: {}", resource.getMetadata().getName());
-          var namespace = resource.getMetadata().getNamespace();
-          var scenarioName = resource.getMetadata().getAnnotations().get(SCENARIO);
-          var scenario = scenarioRepository.get(namespace, scenarioName);
-          var executionQueue = executionRepository.get(
-                  namespace,
-                  scenario.getMetadata().getAnnotations().get(OWNED_BY)
-          );
-          executePostExecutionSteps(scenario, executionQueue);
-          onCompletion.run();
-        }
+      public void onStart(ExecutorStep step) {
+        tracing.onStart(step);
       }
+
       @Override
-      public void onClose(WatcherException cause) {
-        logger.info("Job watcher closed", cause); // TODO pesquisar sobre o evento de close
+      public void onComplete(ExecutorStep step, Duration duration, Throwable error) {
+        timeline.recordStep(executionQueue, scenarioName, step.getClass().getSimpleName(), duration);
+        tracing.onComplete(step, duration, error);
       }
-    });
+    };
   }
 
-  private static void deleteJob(MixedOperation<Job, JobList, ScalableResource<Job>> jobsClient, String jobName, String namespace) {
-    jobsClient.inNamespace(namespace).withName(jobName).delete();
-    jobsClient.inNamespace(namespace).withName(jobName).waitUntilCondition(
-            j -> j == null || nonNull(j.getStatus().getCompletionTime()),
-            2, TimeUnit.MINUTES
-    );
-    logger.info("Job deleted: {}", jobName);
+  /**
+   * Records when the finished job completed, and when its first pod was scheduled and its k6 container
+   * started, as reported by the pod. Jobs that failed have no completion time and are recorded as completed now.
+   */
+  private void recordJob(ExecutionQueue executionQueue, String scenarioName, Job job) {
+    var completionTime = job.getStatus() == null ? null : job.getStatus().getCompletionTime();
+    timeline.record(executionQueue, scenarioName, JOB_COMPLETED, timestamp(completionTime));
+    try {
+      kubernetesClient.pods()
+              .inNamespace(job.getMetadata().getNamespace())
+              .withLabel("job-name", job.getMetadata().getName())
+              .list().getItems().stream()
+              .filter(pod -> pod.getStatus() != null)
+              .min(Comparator.comparing((Pod pod) -> pod.getMetadata().getCreationTimestamp(), Comparator.nullsLast(Comparator.naturalOrder())))
+              .ifPresent(pod -> recordPod(executionQueue, scenarioName, pod));
+    } catch (RuntimeException e) {
+      logger.warn("Error reading the pods of job {}. {}", job.getMetadata().getName(), e.getMessage());
+    }
+  }
+
+  private void recordPod(ExecutionQueue executionQueue, String scenarioName, Pod pod) {
+    var status = pod.getStatus();
+    if (status.getConditions() != null) {
+      status.getConditions().stream()
+              .filter(c -> "PodScheduled".equals(c.getType()) && "True".equals(c.getStatus()) && c.getLastTransitionTime() != null)
+              .findFirst()
+              .ifPresent(c -> timeline.record(executionQueue, scenarioName, POD_SCHEDULED, Instant.parse(c.getLastTransitionTime())));
+    }
+    if (status.getContainerStatuses() != null) {
+      status.getContainerStatuses().stream()
+              .filter(c -> K6JobFactory.CONTAINER_NAME.equals(c.getName()))
+              .map(DefaultScenarioExecutor::startedAt)
+              .filter(Objects::nonNull)
+              .findFirst()
+              .ifPresent(startedAt -> timeline.record(executionQueue, scenarioName, K6_STARTED, Instant.parse(startedAt)));
+    }
   }
 
-  private void executePreparationSteps(Scenario scenario, ExecutionQueue queue) {
-    stepRegistry.getPreparationSteps().forEach(step -> step.execute(scenario, queue));
+  private static String startedAt(ContainerStatus containerStatus) {
+    var state = containerStatus.getState();
+    if (state == null) {
+      return null;
+    }
+    if (state.getTerminated() != null) {
+      return state.getTerminated().getStartedAt();
+    }
+    return state.getRunning() != null ? state.getRunning().getStartedAt() : null;
   }
 
-  private void executePostExecutionSteps(Scenario scenario, ExecutionQueue queue) {
-    stepRegistry.getPostExecutionSteps().forEach(step -> step.execute(scenario, queue));
+  private static Instant timestamp(String timestamp) {
+    return timestamp != null ? Instant.parse(timestamp) : Instant.now();
+  }
+
+  private static CompletableFuture<Void> deleteJob(MixedOperation<Job, JobList, ScalableResource<Job>> jobsClient, String jobName, String namespace) {
+    jobsClient.inNamespace(namespace).withName(jobName).delete();
+    return jobsClient.inNamespace(namespace).withName(jobName)
+            .informOnCondition(jobs -> jobs.stream().allMatch(j -> j.getStatus() != null && nonNull(j.getStatus().getCompletionTime())))
+            .orTimeout(2, TimeUnit.MINUTES)
+            .thenAccept(jobs -> logger.info("Job deleted: {}", jobName));
   }
 }
@@ -0,0 +1,246 @@
+package io.resiliencebench.execution;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.support.CustomResourceRepository;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Records when each event of a scenario run happened and how long each of its steps took. The timeline is
+ * embedded in the result of the scenario, and written into the status of its queue item from the creation
+ * of its job until the post-execution steps start. The timeline of a scenario ends once its post-execution
+ * steps ran and its result was published, whether they succeeded or not. The final timeline, with both
+ * events, is then written into the status of its finished item and handed over to be published again with
+ * the result.
+ */
+@Component
+public class ExecutionTimeline {
+
+  private final static Logger logger = LoggerFactory.getLogger(ExecutionTimeline.class);
+
+  public static final String PREPARATION_STARTED = "preparationStarted";
+  public static final String JOB_CREATED = "jobCreated";
+  public static final String POD_SCHEDULED = "podScheduled";
+  public static final String K6_STARTED = "k6Started";
+  public static final String JOB_COMPLETED = "jobCompleted";
+  public static final String POST_STEPS_COMPLETED = "postStepsCompleted";
+  public static final String RESULTS_PUBLISHED = "resultsPublished";
+
+  private final CustomResourceRepository<ExecutionQueue> executionRepository;
+
+  /**
+   * Timelines of the scenarios running, running their post-execution steps or publishing their result,
+   * by queue and scenario.
+   */
+  private final Map<String, Timeline> timelines = new ConcurrentHashMap<>();
+
+  public ExecutionTimeline(CustomResourceRepository<ExecutionQueue> executionRepository) {
+    this.executionRepository = executionRepository;
+  }
+
+  /**
+   * Starts a new timeline for the scenario, replacing the one of a previous run.
+   */
+  public void start(ExecutionQueue queue, String scenario) {
+    var timeline = new Timeline(queue, scenario);
+    timelines.put(timeline.key, timeline);
+    record(queue, scenario, PREPARATION_STARTED);
+  }
+
+  public void record(ExecutionQueue queue, String scenario, String event) {
+    record(queue, scenario, event, Instant.now());
+  }
+
+  public void record(ExecutionQueue queue, String scenario, String event, Instant time) {
+    var timeline = timelines.get(key(queue, scenario));
+    if (timeline == null) {
+      logger.debug("No timeline for scenario {}, ignoring event {}", scenario, event);
+      return;
+    }
+    record(timeline, event, time);
+  }
+
+  private void record(Timeline timeline, String event, Instant time) {
+    boolean flushed;
+    synchronized (timeline) {
+      timeline.events.put(event, time.toString());
+      flushed = timeline.flushed;
+    }
+    if (flushed) {
+      flush(timeline);
+    }
+  }
+
+  public void recordStep(ExecutionQueue queue, String scenario, String step, Duration duration) {
+    var timeline = timelines.get(key(queue, scenario));
+    if (timeline == null) {
+      return;
+    }
+    synchronized (timeline) {
+      timeline.stepDurations.put(step, duration.toMillis());
+    }
+  }
+
+  /**
+   * The timeline of the scenario recorded so far, as embedded in its result.
+   */
+  public JsonObject toJson(ExecutionQueue queue, String scenario) {
+    var timeline = timelines.get(key(queue, scenario));
+    if (timeline == null) {
+      return new JsonObject().put("events", new JsonObject()).put("step_durations_ms", new JsonObject());
+    }
+    return toJson(timeline);
+  }
+
+  private static JsonObject toJson(Timeline timeline) {
+    synchronized (timeline) {
+      return new JsonObject()
+              .put("events", new JsonObject(new LinkedHashMap<>(timeline.events)))
+              .put("step_durations_ms", new JsonObject(new LinkedHashMap<>(timeline.stepDurations)));
+    }
+  }
+
+  /**
+   * Writes the timeline of the scenario into the status of its queue item. From then on, every event
+   * recorded is written as well, until the item finishes.
+   */
+  public void flush(ExecutionQueue queue, String scenario) {
+    var timeline = timelines.get(key(queue, scenario));
+    if (timeline == null) {
+      return;
+    }
+    synchronized (timeline) {
+      timeline.flushed = true;
+    }
+    flush(timeline);
+  }
+
+  /**
+   * Stops writing the timeline of the scenario into the status of its queue item while the item is
+   * finished, as the status of a finished item is written as a whole. Events are still recorded, and the
+   * final timeline is written once it ends.
+   */
+  public void finishing(ExecutionQueue queue, String scenario) {
+    var timeline = timelines.get(key(queue, scenario));
+    if (timeline == null) {
+      return;
+    }
+    synchronized (timeline) {
+      timeline.flushed = false;
+    }
+  }
+
+  /**
+   * Keeps the timeline of the scenario until its result is published, recording when it is. Once the
+   * timeline ends, onEnd is given the final timeline, so the result can be published again with it.
+   */
+  public void publishing(ExecutionQueue queue, String scenario, CompletionStage<Void> publication, Consumer<JsonObject> onEnd) {
+    var timeline = timelines.get(key(queue, scenario));
+    if (timeline == null) {
+      return;
+    }
+    synchronized (timeline) {
+      timeline.publishing = true;
+      timeline.onEnd = onEnd;
+    }
+    publication.whenComplete((ignored, error) -> {
+      if (error == null) {
+        record(timeline, RESULTS_PUBLISHED, Instant.now());
+      } else {
+        logger.warn("Result of scenario {} not published, ending its timeline without it", scenario);
+      }
+      synchronized (timeline) {
+        timeline.publishing = false;
+      }
+      endIfDone(timeline);
+    });
+  }
+
+  /**
+   * Records that the post-execution steps of the scenario ran, ending its timeline unless its result is
+   * still being published. Events recorded once it ended are ignored.
+   */
+  public void postStepsCompleted(ExecutionQueue queue, String scenario) {
+    var timeline = timelines.get(key(queue, scenario));
+    if (timeline == null) {
+      return;
+    }
+    record(timeline, POST_STEPS_COMPLETED, Instant.now());
+    synchronized (timeline) {
+      timeline.postStepsCompleted = true;
+    }
+    endIfDone(timeline);
+  }
+
+  private void endIfDone(Timeline timeline) {
+    Consumer<JsonObject> onEnd;
+    synchronized (timeline) {
+      if (!timeline.postStepsCompleted || timeline.publishing) {
+        return;
+      }
+      onEnd = timeline.onEnd;
+    }
+    // ends once, and not at all when a new run of the scenario replaced it
+    if (!timelines.remove(timeline.key, timeline)) {
+      return;
+    }
+    flush(timeline);
+    if (onEnd != null) {
+      onEnd.accept(toJson(timeline));
+    }
+  }
+
+  private void flush(Timeline timeline) {
+    var position = timeline.queue.indexOf(timeline.scenario);
+    if (position < 0) {
+      logger.warn("Scenario {} not found in queue {}", timeline.scenario, timeline.queue.getMetadata().getName());
+      return;
+    }
+    var path = "/status/items/" + position;
+    var patch = new JsonArray();
+    synchronized (timeline) {
+      patch.add(new JsonObject().put("op", "add").put("path", path + "/timeline").put("value", new JsonObject(new LinkedHashMap<>(timeline.events))));
+      patch.add(new JsonObject().put("op", "add").put("path", path + "/stepDurations").put("value", new JsonObject(new LinkedHashMap<>(timeline.stepDurations))));
+    }
+    try {
+      executionRepository.patchStatus(timeline.queue, PatchType.JSON, patch.encode());
+    } catch (RuntimeException e) {
+      logger.warn("Error writing the timeline of scenario {}. {}", timeline.scenario, e.getMessage());
+    }
+  }
+
+  private static String key(ExecutionQueue queue, String scenario) {
+    return queue.getMetadata().getNamespace() + "/" + queue.getMetadata().getName() + "/" + scenario;
+  }
+
+  private static class Timeline {
+    private final ExecutionQueue queue;
+    private final String scenario;
+    private final Map<String, String> events = new LinkedHashMap<>();
+    private final Map<String, Long> stepDurations = new LinkedHashMap<>();
+    private final String key;
+    private boolean flushed;
+    private boolean publishing;
+    private boolean postStepsCompleted;
+    private Consumer<JsonObject> onEnd;
+
+    Timeline(ExecutionQueue queue, String scenario) {
+      this.queue = queue;
+      this.scenario = scenario;
+      this.key = key(queue, scenario);
+    }
+  }
+}
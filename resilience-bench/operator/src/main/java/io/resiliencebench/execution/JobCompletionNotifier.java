@@ -0,0 +1,176 @@
+package io.resiliencebench.execution;
+
+import static io.resiliencebench.support.Annotations.CREATED_BY;
+import static java.util.Objects.nonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.micrometer.core.instrument.Metrics;
+import io.resiliencebench.execution.steps.k6.K6JobFactory;
+
+/**
+ * Watches every job created by the operator through a single informer and notifies the scenario waiting
+ * for it once it finishes. The periodic resync re-delivers finished jobs, so a completion is not lost
+ * when the watch is restarted or when a callback is registered after the job has already finished.
+ */
+@Service
+public class JobCompletionNotifier {
+
+  private final static Logger logger = LoggerFactory.getLogger(JobCompletionNotifier.class);
+
+  static final String JOB_DURATION_METRIC = "resiliencebench.job.duration";
+
+  private final SharedIndexInformer<Job> informer;
+  private final ExecutorService callbackExecutor;
+
+  /**
+   * Callbacks of the jobs not finished yet, by job uid.
+   */
+  private final Map<String, Consumer<Job>> callbacks = new ConcurrentHashMap<>();
+
+  public JobCompletionNotifier(KubernetesClient kubernetesClient,
+                               @Value("${JOB_RESYNC_PERIOD_SECONDS:30}") long resyncPeriodSeconds) {
+    this(kubernetesClient.batch().v1().jobs()
+                    .inAnyNamespace()
+                    .withLabel(K6JobFactory.APP_LABEL, K6JobFactory.APP_NAME)
+                    .runnableInformer(TimeUnit.SECONDS.toMillis(resyncPeriodSeconds)),
+            Executors.newCachedThreadPool(namedThreads()));
+    informer.start();
+  }
+
+  JobCompletionNotifier(SharedIndexInformer<Job> informer, ExecutorService callbackExecutor) {
+    this.informer = informer;
+    this.callbackExecutor = callbackExecutor;
+    this.informer.addEventHandler(new ResourceEventHandler<>() {
+      @Override
+      public void onAdd(Job job) {
+        notifyIfFinished(job);
+      }
+
+      @Override
+      public void onUpdate(Job oldJob, Job newJob) {
+        notifyIfFinished(newJob);
+      }
+
+      @Override
+      public void onDelete(Job job, boolean deletedFinalStateUnknown) {
+        notifyDeleted(job);
+      }
+    });
+  }
+
+  private static ThreadFactory namedThreads() {
+    var count = new AtomicInteger();
+    return runnable -> {
+      var thread = new Thread(runnable, "job-completion-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Registers the callback to run once the given job succeeds or fails. The callback runs at most once
+   * and never on the informer thread.
+   */
+  public void onCompletion(Job job, Consumer<Job> callback) {
+    callbacks.put(job.getMetadata().getUid(), callback);
+    var current = informer.getStore().getByKey(Cache.metaNamespaceKeyFunc(job));
+    if (current != null) {
+      notifyIfFinished(current);
+    }
+  }
+
+  private void notifyIfFinished(Job job) {
+    if (!isFinished(job)) {
+      return;
+    }
+    var callback = callbacks.remove(job.getMetadata().getUid());
+    if (callback == null) {
+      return;
+    }
+    logger.info("Finished job: {}", job.getMetadata().getName());
+    recordDuration(job);
+    runCallback(job, callback);
+  }
+
+  /**
+   * Notifies the scenario waiting for a job deleted before it finished, by a user, its time to live or a
+   * new run of its scenario, so the scenario is not left waiting. The job has no completion time, so the
+   * scenario sees it as failed.
+   */
+  private void notifyDeleted(Job job) {
+    var callback = callbacks.remove(job.getMetadata().getUid());
+    if (callback == null) {
+      return;
+    }
+    logger.warn("Job {} deleted before finishing", job.getMetadata().getName());
+    runCallback(job, callback);
+  }
+
+  private void runCallback(Job job, Consumer<Job> callback) {
+    callbackExecutor.execute(() -> {
+      try {
+        callback.accept(job);
+      } catch (RuntimeException e) {
+        logger.error("Error handling completion of job {}", job.getMetadata().getName(), e);
+      }
+    });
+  }
+
+  /**
+   * Records the time from the creation of the job to its completion, which is mostly the time k6 ran.
+   * Failed jobs have no completion time and are measured until now.
+   */
+  private static void recordDuration(Job job) {
+    var creationTimestamp = job.getMetadata().getCreationTimestamp();
+    if (creationTimestamp == null) {
+      return;
+    }
+    var completionTime = job.getStatus().getCompletionTime();
+    var end = completionTime != null ? Instant.parse(completionTime) : Instant.now();
+    Metrics.timer(JOB_DURATION_METRIC, "outcome", completionTime != null ? "succeeded" : "failed")
+            .record(Duration.between(Instant.parse(creationTimestamp), end));
+  }
+
+  static boolean isFinished(Job job) {
+    var annotations = job.getMetadata().getAnnotations();
+    if (annotations == null || !K6JobFactory.CREATOR.equals(annotations.get(CREATED_BY))) {
+      return false;
+    }
+    var status = job.getStatus();
+    if (status == null) {
+      return false;
+    }
+    if (nonNull(status.getCompletionTime())) {
+      return true;
+    }
+    return status.getConditions() != null && status.getConditions().stream()
+            .anyMatch(c -> "Failed".equals(c.getType()) && "True".equals(c.getStatus()));
+  }
+
+  @PreDestroy
+  public void close() {
+    informer.close();
+    callbackExecutor.shutdown();
+  }
+}
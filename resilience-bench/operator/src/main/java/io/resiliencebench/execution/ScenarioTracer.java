@@ -0,0 +1,133 @@
+package io.resiliencebench.execution;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.resiliencebench.execution.steps.ExecutorStep;
+import io.resiliencebench.execution.steps.StepListener;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+
+import static io.resiliencebench.support.CustomResourceRepository.EXECUTION_ID_LABEL;
+
+/**
+ * Traces each scenario run as a trace of its own. The root span covers the run from the preparation steps
+ * to the end of the post-execution steps; the steps, the k6 job and the publication of the result are its
+ * children. Every span is tagged with the execution id, the queue and the scenario, so the traces of an
+ * execution can be found together.
+ */
+@Component
+public class ScenarioTracer {
+
+  public static final String EXECUTION_ID_TAG = "resiliencebench.execution.id";
+  public static final String QUEUE_TAG = "resiliencebench.queue";
+  public static final String SCENARIO_TAG = "resiliencebench.scenario";
+
+  private final Tracer tracer;
+
+  /**
+   * Root spans of the scenarios running, by queue and scenario.
+   */
+  private final Map<String, Span> scenarios = new ConcurrentHashMap<>();
+
+  public ScenarioTracer(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  public Tracer tracer() {
+    return tracer;
+  }
+
+  /**
+   * Starts the trace of the scenario, ending the one of a previous run left open.
+   */
+  public Span start(ExecutionQueue queue, String scenario) {
+    var span = tag(tracer.spanBuilder().setNoParent().name("scenario"), queue, scenario).start();
+    var previous = scenarios.put(key(queue, scenario), span);
+    if (previous != null) {
+      previous.end();
+    }
+    return span;
+  }
+
+  /**
+   * Starts a span in the trace of the scenario. Without a trace, as when the operator restarted meanwhile,
+   * the span starts a trace of its own.
+   */
+  public Span startSpan(ExecutionQueue queue, String scenario, String name) {
+    var builder = tracer.spanBuilder().name(name);
+    var parent = scenarios.get(key(queue, scenario));
+    if (parent != null) {
+      builder.setParent(parent.context());
+    } else {
+      builder.setNoParent();
+    }
+    return tag(builder, queue, scenario).start();
+  }
+
+  /**
+   * Makes the root span of the scenario the current span of the calling thread until the scope is closed,
+   * so the spans started meanwhile join the trace of the scenario.
+   */
+  public Tracer.SpanInScope inScenario(ExecutionQueue queue, String scenario) {
+    return tracer.withSpan(scenarios.get(key(queue, scenario)));
+  }
+
+  /**
+   * Ends the trace of the scenario.
+   */
+  public void end(ExecutionQueue queue, String scenario, Throwable error) {
+    var span = scenarios.remove(key(queue, scenario));
+    if (span != null) {
+      end(span, error);
+    }
+  }
+
+  /**
+   * Traces every step as a span of the scenario.
+   */
+  public StepListener stepListener(ExecutionQueue queue, String scenario) {
+    var steps = new ConcurrentHashMap<ExecutorStep, Span>();
+    return new StepListener() {
+      @Override
+      public void onStart(ExecutorStep step) {
+        var span = startSpan(queue, scenario, "step " + step.getClass().getSimpleName());
+        steps.put(step, span.tag("resiliencebench.step", step.getClass().getSimpleName()));
+      }
+
+      @Override
+      public void onComplete(ExecutorStep step, Duration duration, Throwable error) {
+        var span = steps.remove(step);
+        if (span != null) {
+          end(span, error);
+        }
+      }
+    };
+  }
+
+  public static void end(Span span, Throwable error) {
+    if (error != null) {
+      span.error(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+    }
+    span.end();
+  }
+
+  private static Span.Builder tag(Span.Builder builder, ExecutionQueue queue, String scenario) {
+    var labels = queue.getMetadata().getLabels();
+    if (labels != null && labels.containsKey(EXECUTION_ID_LABEL)) {
+      builder.tag(EXECUTION_ID_TAG, labels.get(EXECUTION_ID_LABEL));
+    }
+    return builder
+            .tag(QUEUE_TAG, queue.getMetadata().getName())
+            .tag(SCENARIO_TAG, scenario);
+  }
+
+  private static String key(ExecutionQueue queue, String scenario) {
+    return queue.getMetadata().getNamespace() + "/" + queue.getMetadata().getName() + "/" + scenario;
+  }
+}
@@ -0,0 +1,149 @@
+package io.resiliencebench.execution;
+
+import static java.lang.String.format;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import io.resiliencebench.resources.ScenarioSpace;
+import io.resiliencebench.resources.benchmark.Benchmark;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.workload.Workload;
+import io.resiliencebench.support.CustomResourceRepository;
+
+/**
+ * Creates the Scenario resources of a queue as it advances. Only a window of unfinished items have their
+ * scenario created at a time and the scenarios of finished items are deleted, so the number of Scenario
+ * resources does not grow with the size of the benchmark. Scenarios are generated again from the position
+ * kept in their queue item. Benchmarks setting a window of 0 opt out and get all their scenarios up front.
+ */
+@Service
+public class ScenarioWindow {
+
+  private final static Logger logger = LoggerFactory.getLogger(ScenarioWindow.class);
+
+  /**
+   * The smallest window of benchmarks not setting one.
+   */
+  static final int MIN_WINDOW = 16;
+
+  private final CustomResourceRepository<Scenario> scenarioRepository;
+  private final CustomResourceRepository<Benchmark> benchmarkRepository;
+  private final CustomResourceRepository<Workload> workloadRepository;
+
+  public ScenarioWindow(CustomResourceRepository<Scenario> scenarioRepository,
+                        CustomResourceRepository<Benchmark> benchmarkRepository,
+                        CustomResourceRepository<Workload> workloadRepository) {
+    this.scenarioRepository = scenarioRepository;
+    this.benchmarkRepository = benchmarkRepository;
+    this.workloadRepository = workloadRepository;
+  }
+
+  /**
+   * The number of unfinished items having their scenario at a time: the window set by the benchmark, twice
+   * the parallelism of the queue and at least {@link #MIN_WINDOW} when not set, or all of them when set to 0.
+   */
+  static int size(Benchmark benchmark, ExecutionQueue queue) {
+    var window = benchmark.getSpec().getScenarioWindow();
+    if (window == null) {
+      return Math.max(2 * queue.getParallelism(), MIN_WINDOW);
+    }
+    return window > 0 ? window : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Creates the scenarios of the first unfinished items of a new queue. Items without the position of their
+   * scenario are left to be created when they run.
+   */
+  public void open(Benchmark benchmark, ScenarioSpace space, ExecutionQueue queue) {
+    var window = size(benchmark, queue);
+    var count = 0;
+    for (var item : queue.getItems()) {
+      if (count == window) {
+        break;
+      }
+      if (item.getIndex() != null && !item.isFinished()) {
+        scenarioRepository.create(scenario(space, item));
+        count++;
+      }
+    }
+    logger.info("Created {} of {} scenarios for benchmark {}", count, queue.getItems().size(), benchmark.getMetadata().getName());
+  }
+
+  /**
+   * Deletes the scenarios of the finished items and creates the scenarios of the next unfinished ones.
+   * Queues of benchmarks opting out of the window are left untouched.
+   */
+  public void advance(ExecutionQueue queue) {
+    var namespace = queue.getMetadata().getNamespace();
+    var benchmark = benchmark(queue);
+    if (benchmark.isEmpty()) {
+      return;
+    }
+    var window = size(benchmark.get(), queue);
+    if (window == Integer.MAX_VALUE) {
+      return;
+    }
+    ScenarioSpace space = null;
+    var open = 0;
+    for (var item : queue.getItems()) {
+      if (item.getIndex() == null) {
+        continue;
+      }
+      if (item.isFinished()) {
+        scenarioRepository.find(namespace, item.getScenario()).ifPresent(scenarioRepository::delete);
+      } else if (open < window) {
+        open++;
+        if (scenarioRepository.find(namespace, item.getScenario()).isEmpty()) {
+          if (space == null) {
+            space = space(benchmark.get());
+          }
+          scenarioRepository.create(scenario(space, item));
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the scenario of an item outside the window, if the queue keeps the position of its scenarios.
+   */
+  public Optional<Scenario> create(ExecutionQueue queue, ExecutionQueueItem item) {
+    if (item.getIndex() == null) {
+      return Optional.empty();
+    }
+    return benchmark(queue).map(benchmark -> scenarioRepository.create(scenario(space(benchmark), item)));
+  }
+
+  /**
+   * The benchmark of the queue, named by the queue or, for queues created by the operator, by its name.
+   */
+  private Optional<Benchmark> benchmark(ExecutionQueue queue) {
+    var name = Objects.requireNonNullElse(queue.getSpec().getBenchmark(), queue.getMetadata().getName());
+    return benchmarkRepository.find(queue.getMetadata().getNamespace(), name);
+  }
+
+  private ScenarioSpace space(Benchmark benchmark) {
+    var namespace = benchmark.getMetadata().getNamespace();
+    var workload = workloadRepository.find(namespace, benchmark.getSpec().getWorkload())
+            .orElseThrow(() -> new IllegalStateException(format("Workload not found: %s.%s", namespace, benchmark.getSpec().getWorkload())));
+    return new ScenarioSpace(benchmark, workload);
+  }
+
+  private static Scenario scenario(ScenarioSpace space, ExecutionQueueItem item) {
+    if (item.getIndex() >= space.size()) {
+      throw new IllegalStateException(format("Scenario %s no longer exists in its benchmark", item.getScenario()));
+    }
+    var scenario = space.get(item.getIndex());
+    if (!scenario.getMetadata().getName().equals(item.getScenario())) {
+      // the benchmark or its workload changed after the queue was created
+      throw new IllegalStateException(format("Scenario %s no longer matches its benchmark", item.getScenario()));
+    }
+    return scenario;
+  }
+}
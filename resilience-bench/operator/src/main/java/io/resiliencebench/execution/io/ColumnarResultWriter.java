@@ -0,0 +1,248 @@
+package io.resiliencebench.execution.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import static io.resiliencebench.support.CustomResourceRepository.EXECUTION_ID_LABEL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes the results of a queue as an Arrow IPC file, with one row per scenario and one typed column per
+ * metric and configuration value, next to the results file of the queue and named after its execution id.
+ * Nested objects are flattened into columns joined by underscores, and arrays of named objects, such as
+ * the connectors, into one group of columns per name. Other arrays are kept as JSON text.
+ */
+@Component
+public class ColumnarResultWriter {
+
+  private final static Logger logger = LoggerFactory.getLogger(ColumnarResultWriter.class);
+
+  static final String EXTENSION = ".arrow";
+  static final String CONTENT_TYPE = "application/vnd.apache.arrow.file";
+  private static final int BATCH_SIZE = 1024;
+
+  enum ColumnType {
+    BIGINT, DOUBLE, BOOLEAN, STRING;
+
+    static ColumnType of(Object value) {
+      if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof BigInteger) {
+        return BIGINT;
+      }
+      if (value instanceof Number) {
+        return DOUBLE;
+      }
+      if (value instanceof Boolean) {
+        return BOOLEAN;
+      }
+      return STRING;
+    }
+
+    /**
+     * The narrowest type holding the values of both types.
+     */
+    ColumnType widen(ColumnType other) {
+      if (this == other) {
+        return this;
+      }
+      if (this != BOOLEAN && this != STRING && other != BOOLEAN && other != STRING) {
+        return DOUBLE;
+      }
+      return STRING;
+    }
+
+    ArrowType toArrowType() {
+      return switch (this) {
+        case BIGINT -> new ArrowType.Int(64, true);
+        case DOUBLE -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+        case BOOLEAN -> ArrowType.Bool.INSTANCE;
+        case STRING -> ArrowType.Utf8.INSTANCE;
+      };
+    }
+  }
+
+  private final FileProvider fileProvider;
+  private final ResultSink resultSink;
+  private final boolean enabled;
+
+  public ColumnarResultWriter(FileProviderFactory fileProviderFactory,
+                              ResultSink resultSink,
+                              @Value("${RESULT_COLUMNAR_EXPORT_ENABLED:true}") boolean enabled) {
+    this.fileProvider = fileProviderFactory.create();
+    this.resultSink = resultSink;
+    this.enabled = enabled;
+  }
+
+  public void write(ExecutionQueue queue) {
+    if (!enabled) {
+      return;
+    }
+    var target = targetFile(queue);
+    try {
+      var columns = new LinkedHashMap<String, ColumnType>();
+      resultSink.forEachResult(queue, result -> addColumns(columns, flatten(result)));
+      var file = Files.createTempFile("results", EXTENSION);
+      try {
+        var rows = write(file, columns, queue);
+        fileProvider.copyFrom(file, target, CONTENT_TYPE);
+        logger.info("Wrote {} results with {} columns into {}", rows, columns.size(), target);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Error writing columnar results into {}. {}", target, e.getMessage());
+    }
+  }
+
+  static String targetFile(ExecutionQueue queue) {
+    var labels = queue.getMetadata().getLabels();
+    var name = labels != null && labels.containsKey(EXECUTION_ID_LABEL)
+            ? labels.get(EXECUTION_ID_LABEL)
+            : queue.getMetadata().getName();
+    var parent = Path.of(queue.getSpec().getResultFile()).getParent();
+    return parent == null ? name + EXTENSION : parent.resolve(name + EXTENSION).toString();
+  }
+
+  static Map<String, Object> flatten(JsonObject result) {
+    var row = new LinkedHashMap<String, Object>();
+    flatten(null, result, row);
+    return row;
+  }
+
+  private static void flatten(String prefix, Object value, Map<String, Object> row) {
+    if (value == null) {
+      return;
+    }
+    if (value instanceof JsonObject object) {
+      object.forEach(entry -> flatten(join(prefix, entry.getKey()), entry.getValue(), row));
+    } else if (value instanceof JsonArray array) {
+      if (!array.isEmpty() && array.stream().allMatch(ColumnarResultWriter::isNamed)) {
+        for (var element : array) {
+          var object = ((JsonObject) element).copy();
+          var name = (String) object.remove("name");
+          flatten(join(prefix, name), object, row);
+        }
+      } else {
+        row.put(prefix, array.encode());
+      }
+    } else {
+      row.put(prefix, value);
+    }
+  }
+
+  private static boolean isNamed(Object element) {
+    return element instanceof JsonObject object && object.getValue("name") instanceof String;
+  }
+
+  private static String join(String prefix, String name) {
+    return prefix == null ? name : prefix + "_" + name;
+  }
+
+  /**
+   * Adds the columns of the row, widening the type of the columns already found.
+   */
+  static void addColumns(Map<String, ColumnType> columns, Map<String, Object> row) {
+    row.forEach((name, value) -> columns.merge(name, ColumnType.of(value), ColumnType::widen));
+  }
+
+  /**
+   * Reads the results of the queue again and writes them in batches of {@link #BATCH_SIZE} rows, so only
+   * one batch is held in memory.
+   *
+   * @return the number of rows written
+   */
+  private int write(Path file, Map<String, ColumnType> columns, ExecutionQueue queue) throws IOException {
+    var fields = columns.entrySet().stream()
+            .map(column -> new Field(column.getKey(), FieldType.nullable(column.getValue().toArrowType()), null))
+            .toList();
+    try (var allocator = new RootAllocator();
+         var root = VectorSchemaRoot.create(new Schema(fields), allocator);
+         var channel = FileChannel.open(file, WRITE);
+         var writer = new ArrowFileWriter(root, null, channel)) {
+      writer.start();
+      var batch = new ArrayList<Map<String, Object>>(BATCH_SIZE);
+      var rows = new int[1];
+      try {
+        resultSink.forEachResult(queue, result -> {
+          batch.add(flatten(result));
+          if (batch.size() == BATCH_SIZE) {
+            writeBatch(root, writer, batch);
+          }
+          rows[0]++;
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      if (!batch.isEmpty()) {
+        writeBatch(root, writer, batch);
+      }
+      writer.end();
+      return rows[0];
+    }
+  }
+
+  private static void writeBatch(VectorSchemaRoot root, ArrowFileWriter writer, List<Map<String, Object>> batch) {
+    root.allocateNew();
+    for (var vector : root.getFieldVectors()) {
+      for (int i = 0; i < batch.size(); i++) {
+        set(vector, i, batch.get(i).get(vector.getName()));
+      }
+      vector.setValueCount(batch.size());
+    }
+    root.setRowCount(batch.size());
+    try {
+      writer.writeBatch();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    batch.clear();
+  }
+
+  /**
+   * Sets the value at the index. Missing values are left unset, which Arrow reads as null.
+   */
+  private static void set(FieldVector vector, int index, Object value) {
+    if (value == null) {
+      return;
+    }
+    if (vector instanceof BigIntVector bigInt) {
+      bigInt.setSafe(index, ((Number) value).longValue());
+    } else if (vector instanceof Float8Vector float8) {
+      float8.setSafe(index, ((Number) value).doubleValue());
+    } else if (vector instanceof BitVector bit) {
+      bit.setSafe(index, (Boolean) value ? 1 : 0);
+    } else {
+      ((VarCharVector) vector).setSafe(index, String.valueOf(value).getBytes(UTF_8));
+    }
+  }
+}
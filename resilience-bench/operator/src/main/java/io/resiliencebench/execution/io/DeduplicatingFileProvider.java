@@ -0,0 +1,184 @@
+package io.resiliencebench.execution.io;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Stores files gzip-compressed and addressed by the SHA-256 of their content, so identical content is
+ * uploaded once. A file is written as a blob under the blob directory plus a small manifest next to it,
+ * named after the file with the {@value #MANIFEST_EXTENSION} extension, pointing to the blob. Writing content
+ * whose blob is already stored only writes the manifest. Reads follow the manifest and decompress the blob,
+ * and fall back to the file itself when it has no manifest, as the results written by the k6 jobs.
+ */
+public class DeduplicatingFileProvider implements FileProvider {
+
+  private final static Logger logger = LoggerFactory.getLogger(DeduplicatingFileProvider.class);
+
+  static final String MANIFEST_EXTENSION = ".manifest.json";
+  static final String ENCODING = "gzip";
+
+  private final FileProvider delegate;
+  private final String blobDirectory;
+
+  public DeduplicatingFileProvider(FileProvider delegate, String blobDirectory) {
+    this.delegate = delegate;
+    this.blobDirectory = blobDirectory;
+  }
+
+  @Override
+  public void writeToFile(String resultFile, String content) {
+    writeToFile(resultFile, content, "application/octet-stream");
+  }
+
+  @Override
+  public void writeToFile(String resultFile, String content, String contentType) {
+    try (var outputStream = openOutputStream(resultFile, contentType)) {
+      outputStream.write(content.getBytes(UTF_8));
+    } catch (IOException e) {
+      logger.warn("Error writing file {}. {}", resultFile, e.getMessage());
+    }
+  }
+
+  @Override
+  public Optional<String> getFileAsString(String resultFile) {
+    return openInputStream(resultFile).flatMap(inputStream -> {
+      try (inputStream) {
+        return Optional.of(new String(inputStream.readAllBytes(), UTF_8));
+      } catch (IOException e) {
+        logger.warn("Error reading file {}. {}", resultFile, e.getMessage());
+        return Optional.empty();
+      }
+    });
+  }
+
+  @Override
+  public boolean exists(String file) {
+    return delegate.exists(manifestFile(file)) || delegate.exists(file);
+  }
+
+  @Override
+  public Optional<InputStream> openInputStream(String file) {
+    var manifest = readManifest(file);
+    if (manifest.isEmpty()) {
+      return delegate.openInputStream(file);
+    }
+    var blob = manifest.get().getString("blob");
+    return delegate.openInputStream(blob).flatMap(inputStream -> {
+      try {
+        return Optional.of(new GZIPInputStream(inputStream));
+      } catch (IOException e) {
+        logger.warn("Error reading blob {} of file {}. {}", blob, file, e.getMessage());
+        return Optional.empty();
+      }
+    });
+  }
+
+  /**
+   * Compresses what is written into a local temporary file while hashing it, and stores the blob, unless
+   * already stored, and the manifest when the stream is closed.
+   */
+  @Override
+  public OutputStream openOutputStream(String file, String contentType) throws IOException {
+    var digest = sha256();
+    var buffer = Files.createTempFile("blob", ".gz");
+    var compressed = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(buffer)));
+    return new FilterOutputStream(new DigestOutputStream(compressed, digest)) {
+      private long size;
+      private boolean closed;
+
+      @Override
+      public void write(int b) throws IOException {
+        out.write(b);
+        size++;
+      }
+
+      @Override
+      public void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+        size += length;
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        try {
+          super.close();
+          store(file, contentType, HexFormat.of().formatHex(digest.digest()), size, buffer);
+        } finally {
+          Files.deleteIfExists(buffer);
+        }
+      }
+    };
+  }
+
+  @Override
+  public void copyFrom(Path source, String file, String contentType) throws IOException {
+    try (var outputStream = openOutputStream(file, contentType)) {
+      Files.copy(source, outputStream);
+    }
+  }
+
+  private void store(String file, String contentType, String hash, long size, Path compressed) throws IOException {
+    var blob = blobFile(hash);
+    if (delegate.exists(blob)) {
+      logger.debug("Blob {} of file {} already stored", blob, file);
+    } else {
+      delegate.copyFrom(compressed, blob, "application/gzip");
+    }
+    var manifest = new JsonObject()
+            .put("blob", blob)
+            .put("sha256", hash)
+            .put("size", size)
+            .put("encoding", ENCODING)
+            .put("contentType", contentType);
+    try (var outputStream = delegate.openOutputStream(manifestFile(file), "application/json")) {
+      outputStream.write(manifest.encode().getBytes(UTF_8));
+    }
+  }
+
+  private Optional<JsonObject> readManifest(String file) {
+    var manifestFile = manifestFile(file);
+    if (!delegate.exists(manifestFile)) {
+      return Optional.empty();
+    }
+    return delegate.getFileAsString(manifestFile).map(JsonObject::new);
+  }
+
+  String blobFile(String hash) {
+    return Path.of(blobDirectory, hash.substring(0, 2), hash + ".gz").toString();
+  }
+
+  static String manifestFile(String file) {
+    return file + MANIFEST_EXTENSION;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -25,11 +25,25 @@ public class DefaultFileProviderFactory implements FileProviderFactory {
     this.env = env;
   }
 
+  /**
+   * Creates the provider of the configured storage, storing files deduplicated and compressed when
+   * STORAGE_DEDUP_ENABLED is set.
+   */
   @Override
   public FileProvider create() {
+    var fileProvider = storageProvider();
+    if (Boolean.TRUE.equals(env.getProperty("STORAGE_DEDUP_ENABLED", Boolean.class))) {
+      var blobDirectory = env.getProperty("STORAGE_DEDUP_BLOB_DIR", "/results/.blobs");
+      logger.info("Storing files deduplicated under {}", blobDirectory);
+      return new DeduplicatingFileProvider(fileProvider, blobDirectory);
+    }
+    return fileProvider;
+  }
+
+  private FileProvider storageProvider() {
     var storageType = ofNullable(env.getProperty("STORAGE_TYPE"));
     if (storageType.isPresent()) {
-      if ("CLOUD".equalsIgnoreCase(storageType.get())) {
+      if (isCloudStorage(env)) {
         logger.info("Using S3 storage");
         return s3FileProvider;
       } else {
@@ -41,4 +55,11 @@ public class DefaultFileProviderFactory implements FileProviderFactory {
       return localFileProvider;
     }
   }
+
+  /**
+   * Whether results are written to S3 rather than to the volume mounted by the operator.
+   */
+  public static boolean isCloudStorage(Environment env) {
+    return "CLOUD".equalsIgnoreCase(env.getProperty("STORAGE_TYPE"));
+  }
 }
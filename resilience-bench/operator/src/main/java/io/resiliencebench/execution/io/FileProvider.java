@@ -1,5 +1,10 @@
 package io.resiliencebench.execution.io;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 
 public interface FileProvider {
@@ -8,4 +13,30 @@ public interface FileProvider {
   void writeToFile(String resultFile, String content, String contentType);
 
   Optional<String> getFileAsString(String resultFile);
+
+  /**
+   * Tells whether the file exists, without reading it when the provider can avoid it.
+   */
+  default boolean exists(String file) {
+    return getFileAsString(file).isPresent();
+  }
+
+  /**
+   * Opens the file for reading, or returns empty when it cannot be read. The caller closes the stream.
+   */
+  Optional<InputStream> openInputStream(String file);
+
+  /**
+   * Opens the file for writing, replacing its content. The file is complete once the stream is closed.
+   */
+  OutputStream openOutputStream(String file, String contentType) throws IOException;
+
+  /**
+   * Copies a local file into the given file of this provider.
+   */
+  default void copyFrom(Path source, String file, String contentType) throws IOException {
+    try (var inputStream = Files.newInputStream(source); var outputStream = openOutputStream(file, contentType)) {
+      inputStream.transferTo(outputStream);
+    }
+  }
 }
@@ -4,15 +4,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
 import java.util.Optional;
 
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
@@ -23,8 +28,8 @@ public class LocalFileProvider implements FileProvider {
 
   @Override
   public void writeToFile(String resultFile, String content) {
-    try (var outputStream = new FileOutputStream(resultFile)) {
-      outputStream.write(content.getBytes());
+    try (var outputStream = newOutputStream(Path.of(resultFile))) {
+      outputStream.write(content.getBytes(StandardCharsets.UTF_8));
     } catch (IOException e) {
       logger.warn("Error writing file {}. {}", resultFile, e.getMessage());
     }
@@ -33,25 +38,82 @@ public class LocalFileProvider implements FileProvider {
   @Override
   public void writeToFile(String resultFile, String content, String contentType) {
     this.writeToFile(resultFile, content);
+    setContentType(Path.of(resultFile), contentType);
+  }
+
+  @Override
+  public Optional<String> getFileAsString(String resultFile) {
     try {
-      var view = Files.getFileAttributeView(Path.of(resultFile),
-              UserDefinedFileAttributeView.class);
+      return of(Files.readString(Path.of(resultFile), StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      logger.warn("Error reading file {}. {}", resultFile, e.getMessage());
+      return empty();
+    }
+  }
 
-      view.write("Content-Type",
-              StandardCharsets.UTF_8.encode(contentType));
+  @Override
+  public boolean exists(String file) {
+    return Files.isRegularFile(Path.of(file));
+  }
 
+  @Override
+  public Optional<InputStream> openInputStream(String file) {
+    try {
+      return of(Files.newInputStream(Path.of(file)));
     } catch (IOException e) {
-      logger.warn("Error adding content-type to file {}. {}", resultFile, e.getMessage());
+      logger.warn("Error reading file {}. {}", file, e.getMessage());
+      return empty();
     }
   }
 
   @Override
-  public Optional<String> getFileAsString(String resultFile) {
-    try (var inputStream = new FileInputStream(resultFile)) {
-      return of(new String(inputStream.readAllBytes()));
+  public OutputStream openOutputStream(String file, String contentType) throws IOException {
+    var path = Path.of(file);
+    var outputStream = newOutputStream(path);
+    setContentType(path, contentType);
+    return outputStream;
+  }
+
+  /**
+   * Copies the file with {@link FileChannel#transferTo}, letting the kernel move the bytes without
+   * copying them through the heap.
+   */
+  @Override
+  public void copyFrom(Path source, String file, String contentType) throws IOException {
+    var target = Path.of(file);
+    createParentDirectories(target);
+    try (var sourceChannel = FileChannel.open(source, READ);
+         var targetChannel = FileChannel.open(target, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      var size = sourceChannel.size();
+      var position = 0L;
+      while (position < size) {
+        position += sourceChannel.transferTo(position, size - position, targetChannel);
+      }
+    }
+    setContentType(target, contentType);
+  }
+
+  private static OutputStream newOutputStream(Path path) throws IOException {
+    createParentDirectories(path);
+    return Files.newOutputStream(path);
+  }
+
+  private static void createParentDirectories(Path path) throws IOException {
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+  }
+
+  private static void setContentType(Path path, String contentType) {
+    try {
+      var view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+      if (view == null) {
+        logger.debug("File system of {} does not support content-type", path);
+        return;
+      }
+      view.write("Content-Type", StandardCharsets.UTF_8.encode(contentType));
     } catch (IOException e) {
-      logger.warn("Error reading file {}. {}", resultFile, e.getMessage());
-      return empty();
+      logger.warn("Error adding content-type to file {}. {}", path, e.getMessage());
     }
   }
 }
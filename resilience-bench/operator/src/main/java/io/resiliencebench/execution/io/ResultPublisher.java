@@ -0,0 +1,364 @@
+package io.resiliencebench.execution.io;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.vertx.core.json.JsonObject;
+
+import static io.resiliencebench.execution.ScenarioTracer.QUEUE_TAG;
+import static io.resiliencebench.execution.ScenarioTracer.SCENARIO_TAG;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Publishes the results of the scenarios in the background, so the next scenario does not wait for the
+ * storage. Each result is first written to a spool directory on the operator's volume, then published by
+ * a pool of workers fed by a bounded queue. A result published again before a worker picks it up replaces
+ * the previous one. Failed publications are retried with exponential backoff, and results left in the spool
+ * are published again when the operator restarts.
+ */
+@Component
+public class ResultPublisher {
+
+  private final static Logger logger = LoggerFactory.getLogger(ResultPublisher.class);
+
+  static final String SPOOL_EXTENSION = ".json";
+  static final String PUBLISH_DURATION_METRIC = "resiliencebench.results.publish";
+
+  private final FileProvider fileProvider;
+  private final ResultSink resultSink;
+  private final ColumnarResultWriter columnarResultWriter;
+  private final Tracer tracer;
+  private final Path spoolDirectory;
+  private final int maxAttempts;
+  private final long backoffMillis;
+
+  private final BlockingQueue<String> segments;
+  private final ExecutorService workers;
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Latest publication of each segment not picked up by a worker yet, by segment file.
+   */
+  private final Map<String, Publication> latest = new ConcurrentHashMap<>();
+
+  /**
+   * Segments not published yet, by results file. Guarded by this.
+   */
+  private final Map<String, Set<String>> unpublished = new HashMap<>();
+
+  /**
+   * Queues waiting for their segments to be published before being compacted, by results file. Guarded by this.
+   */
+  private final Map<String, ExecutionQueue> compactions = new HashMap<>();
+
+  public ResultPublisher(FileProviderFactory fileProviderFactory,
+                         ResultSink resultSink,
+                         ColumnarResultWriter columnarResultWriter,
+                         Tracer tracer,
+                         @Value("${RESULT_SPOOL_DIR:/results/spool}") String spoolDirectory,
+                         @Value("${RESULT_PUBLISHER_THREADS:2}") int threads,
+                         @Value("${RESULT_PUBLISHER_QUEUE_SIZE:256}") int queueSize,
+                         @Value("${RESULT_PUBLISH_MAX_ATTEMPTS:5}") int maxAttempts,
+                         @Value("${RESULT_PUBLISH_BACKOFF_MS:1000}") long backoffMillis) {
+    this.fileProvider = fileProviderFactory.create();
+    this.resultSink = resultSink;
+    this.columnarResultWriter = columnarResultWriter;
+    this.tracer = tracer;
+    this.spoolDirectory = createSpoolDirectory(spoolDirectory);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.backoffMillis = Math.max(1, backoffMillis);
+    this.segments = new LinkedBlockingQueue<>(Math.max(1, queueSize));
+    this.workers = Executors.newFixedThreadPool(Math.max(1, threads), namedThreads("result-publisher-"));
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("result-scheduler-"));
+    for (int i = 0; i < Math.max(1, threads); i++) {
+      workers.execute(this::work);
+    }
+    recoverSpool();
+  }
+
+  private static ThreadFactory namedThreads(String prefix) {
+    var count = new AtomicInteger();
+    return runnable -> {
+      var thread = new Thread(runnable, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private static Path createSpoolDirectory(String spoolDirectory) {
+    try {
+      return Files.createDirectories(Path.of(spoolDirectory));
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Spool directory {} not available, results are kept in memory only. {}", spoolDirectory, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Publishes the result of the scenario, read from its results file and extended with the given metadata,
+   * as the segment of the scenario in the queue. Returns once the result is spooled. When the queue of
+   * the workers is full the result is published on the calling thread. The span of the publication is a
+   * child of the current span of the caller.
+   *
+   * @return a stage completed once the segment is written, or completed exceptionally once the publisher
+   * gives up on it. Its callbacks run before the results file of the queue is compacted.
+   */
+  public CompletionStage<Void> publish(ExecutionQueue queue, String scenario, String scenarioResultFile, JsonObject metadata) {
+    var publication = new Publication(queue.getSpec().getResultFile(), scenario, scenarioResultFile, metadata, 1,
+            tracer.currentSpan(), new CompletableFuture<>());
+    enqueue(publication);
+    return publication.done();
+  }
+
+  /**
+   * Compacts the segments of the queue into its results file, and writes its columnar results, once the
+   * results published so far are out.
+   */
+  public void compact(ExecutionQueue queue) {
+    var resultFile = queue.getSpec().getResultFile();
+    synchronized (this) {
+      if (unpublished.containsKey(resultFile)) {
+        logger.info("Compaction of {} waits for {} result(s)", resultFile, unpublished.get(resultFile).size());
+        compactions.put(resultFile, queue);
+        return;
+      }
+    }
+    scheduler.execute(() -> compactNow(queue));
+  }
+
+  private void compactNow(ExecutionQueue queue) {
+    var span = tracer.nextSpan().name("results.compact").tag(QUEUE_TAG, queue.getMetadata().getName()).start();
+    try (var ignored = tracer.withSpan(span)) {
+      resultSink.compact(queue);
+      columnarResultWriter.write(queue);
+    } finally {
+      span.end();
+    }
+  }
+
+  private void enqueue(Publication publication) {
+    var segment = publication.segment();
+    synchronized (this) {
+      spool(publication);
+      unpublished.computeIfAbsent(publication.resultFile(), resultFile -> new HashSet<>()).add(segment);
+      var replaced = latest.put(segment, publication);
+      if (replaced != null) {
+        logger.debug("Result {} replaced before being published", segment);
+        follow(replaced, publication);
+        return;
+      }
+    }
+    offer(segment);
+  }
+
+  private void offer(String segment) {
+    if (!segments.offer(segment)) {
+      logger.warn("Result queue is full, publishing {} on the calling thread", segment);
+      process(segment);
+    }
+  }
+
+  private void work() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        process(segments.take());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void process(String segment) {
+    var publication = latest.remove(segment);
+    if (publication == null) {
+      return;
+    }
+    var span = (publication.parent() != null ? tracer.nextSpan(publication.parent()) : tracer.nextSpan())
+            .name("results.publish")
+            .tag(SCENARIO_TAG, publication.scenario())
+            .tag("attempt", String.valueOf(publication.attempt()))
+            .start();
+    var sample = Timer.start(Metrics.globalRegistry);
+    try (var ignored = tracer.withSpan(span)) {
+      var content = fileProvider.getFileAsString(publication.scenarioResultFile());
+      if (content.isPresent()) {
+        var result = new JsonObject(content.get()).mergeIn(publication.metadata());
+        resultSink.append(publication.resultFile(), publication.scenario(), result);
+      } else {
+        logger.warn("No results found for {}", publication.scenarioResultFile());
+      }
+      sample.stop(Metrics.timer(PUBLISH_DURATION_METRIC, "outcome", "success"));
+      published(publication, true);
+    } catch (IOException | RuntimeException e) {
+      span.error(e);
+      sample.stop(Metrics.timer(PUBLISH_DURATION_METRIC, "outcome", "failure"));
+      if (publication.attempt() >= maxAttempts) {
+        logger.error("Error publishing {} after {} attempt(s), keeping it in the spool. {}",
+                segment, publication.attempt(), e.getMessage());
+        published(publication, false);
+        return;
+      }
+      var delay = backoffMillis << Math.min(publication.attempt() - 1, 16);
+      logger.warn("Error publishing {}, retrying in {} ms. {}", segment, delay, e.getMessage());
+      // a result published while this one waits replaces it and is published when the wait is over
+      var newer = latest.putIfAbsent(segment, publication.nextAttempt());
+      if (newer != null) {
+        follow(publication, newer);
+      }
+      scheduler.schedule(() -> offer(segment), delay, TimeUnit.MILLISECONDS);
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * Completes the replaced publication along with the one replacing it.
+   */
+  private static void follow(Publication replaced, Publication replacement) {
+    replacement.done().whenComplete((ignored, error) -> {
+      if (error != null) {
+        replaced.done().completeExceptionally(error);
+      } else {
+        replaced.done().complete(null);
+      }
+    });
+  }
+
+  private void published(Publication publication, boolean succeeded) {
+    // completed first, so results published again from its callbacks hold the compaction back
+    if (succeeded) {
+      publication.done().complete(null);
+    } else {
+      publication.done().completeExceptionally(new IOException("Result %s not published".formatted(publication.segment())));
+    }
+    ExecutionQueue queue = null;
+    synchronized (this) {
+      if (latest.containsKey(publication.segment())) {
+        // a newer result of the scenario is still to be published
+        return;
+      }
+      if (succeeded) {
+        unspool(publication);
+      }
+      var pending = unpublished.get(publication.resultFile());
+      if (pending != null) {
+        pending.remove(publication.segment());
+        if (pending.isEmpty()) {
+          unpublished.remove(publication.resultFile());
+          queue = compactions.remove(publication.resultFile());
+        }
+      }
+    }
+    if (queue != null) {
+      var queueToCompact = queue;
+      scheduler.execute(() -> compactNow(queueToCompact));
+    }
+  }
+
+  private void spool(Publication publication) {
+    if (spoolDirectory == null) {
+      return;
+    }
+    try {
+      Files.writeString(spoolFile(publication), publication.toJson().encode(), UTF_8);
+    } catch (IOException e) {
+      logger.warn("Error spooling {}. {}", publication.segment(), e.getMessage());
+    }
+  }
+
+  private void unspool(Publication publication) {
+    if (spoolDirectory == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(spoolFile(publication));
+    } catch (IOException e) {
+      logger.warn("Error removing {} from the spool. {}", publication.segment(), e.getMessage());
+    }
+  }
+
+  private Path spoolFile(Publication publication) {
+    return spoolDirectory.resolve(URLEncoder.encode(publication.segment(), UTF_8) + SPOOL_EXTENSION);
+  }
+
+  private void recoverSpool() {
+    if (spoolDirectory == null) {
+      return;
+    }
+    try (var files = Files.list(spoolDirectory)) {
+      files.filter(file -> file.getFileName().toString().endsWith(SPOOL_EXTENSION)).forEach(file -> {
+        try {
+          var publication = Publication.fromJson(new JsonObject(Files.readString(file, UTF_8)));
+          logger.info("Publishing spooled result {}", publication.segment());
+          enqueue(publication);
+        } catch (IOException | RuntimeException e) {
+          logger.warn("Error reading spooled result {}. {}", file, e.getMessage());
+        }
+      });
+    } catch (IOException e) {
+      logger.warn("Error reading spool directory {}. {}", spoolDirectory, e.getMessage());
+    }
+  }
+
+  /**
+   * Stops publishing. Results not published yet stay in the spool.
+   */
+  @PreDestroy
+  public void close() {
+    workers.shutdownNow();
+    scheduler.shutdownNow();
+  }
+
+  private record Publication(String resultFile, String scenario, String scenarioResultFile, JsonObject metadata, int attempt,
+                             Span parent, CompletableFuture<Void> done) {
+
+    String segment() {
+      return ResultSink.segmentFile(resultFile, scenario);
+    }
+
+    Publication nextAttempt() {
+      return new Publication(resultFile, scenario, scenarioResultFile, metadata, attempt + 1, parent, done);
+    }
+
+    JsonObject toJson() {
+      return new JsonObject()
+              .put("resultFile", resultFile)
+              .put("scenario", scenario)
+              .put("scenarioResultFile", scenarioResultFile)
+              .put("metadata", metadata);
+    }
+
+    static Publication fromJson(JsonObject json) {
+      return new Publication(json.getString("resultFile"), json.getString("scenario"),
+              json.getString("scenarioResultFile"), json.getJsonObject("metadata"), 1, null, new CompletableFuture<>());
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package io.resiliencebench.execution.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.vertx.core.json.JsonObject;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Append-only sink for the results of a queue. Each scenario writes its result once, as a one-line NDJSON
+ * segment next to the results file of the queue, so recording a result does not depend on how many results
+ * came before it. The segments are compacted into the results file of the queue when the queue finishes.
+ */
+@Component
+public class ResultSink {
+
+  private final static Logger logger = LoggerFactory.getLogger(ResultSink.class);
+
+  static final String SEGMENT_EXTENSION = ".ndjson";
+
+  private final FileProvider fileProvider;
+
+  public ResultSink(FileProviderFactory fileProviderFactory) {
+    this.fileProvider = fileProviderFactory.create();
+  }
+
+  public void append(ExecutionQueue queue, String scenario, JsonObject result) throws IOException {
+    append(queue.getSpec().getResultFile(), scenario, result);
+  }
+
+  /**
+   * Writes the segment of the scenario next to the given results file, failing when it cannot be written.
+   */
+  public void append(String resultFile, String scenario, JsonObject result) throws IOException {
+    try (var output = fileProvider.openOutputStream(segmentFile(resultFile, scenario), "application/x-ndjson")) {
+      output.write((result.encode() + "\n").getBytes(UTF_8));
+    }
+  }
+
+  /**
+   * Writes the results file of the queue from the segments of its items, in queue order. Items without a
+   * segment are left out. Segments are streamed into the results file, so neither is held in memory.
+   * Compacting again gives the same file, so it is safe to repeat.
+   */
+  public void compact(ExecutionQueue queue) {
+    var resultFile = queue.getSpec().getResultFile();
+    var count = 0;
+    try (var output = new BufferedWriter(new OutputStreamWriter(fileProvider.openOutputStream(resultFile, "application/json"), UTF_8))) {
+      output.write("{\"results\":[");
+      for (var item : queue.getItems()) {
+        var segment = fileProvider.openInputStream(segmentFile(queue, item.getScenario()));
+        if (segment.isEmpty()) {
+          continue;
+        }
+        try (var lines = new BufferedReader(new InputStreamReader(segment.get(), UTF_8))) {
+          String line;
+          while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+              continue;
+            }
+            if (count++ > 0) {
+              output.write(",");
+            }
+            output.write(line);
+          }
+        }
+      }
+      output.write("]}");
+    } catch (IOException e) {
+      logger.warn("Error compacting results into {}. {}", resultFile, e.getMessage());
+      return;
+    }
+    logger.info("Compacted {} results into {}", count, resultFile);
+  }
+
+  /**
+   * Reads the results of the queue from the segments of its items, in queue order, one result at a time.
+   */
+  public void forEachResult(ExecutionQueue queue, Consumer<JsonObject> consumer) throws IOException {
+    for (var item : queue.getItems()) {
+      var segment = fileProvider.openInputStream(segmentFile(queue, item.getScenario()));
+      if (segment.isEmpty()) {
+        continue;
+      }
+      try (var lines = new BufferedReader(new InputStreamReader(segment.get(), UTF_8))) {
+        String line;
+        while ((line = lines.readLine()) != null) {
+          if (!line.isBlank()) {
+            consumer.accept(new JsonObject(line));
+          }
+        }
+      }
+    }
+  }
+
+  static String segmentFile(ExecutionQueue queue, String scenario) {
+    return segmentFile(queue.getSpec().getResultFile(), scenario);
+  }
+
+  static String segmentFile(String resultFile, String scenario) {
+    var parent = Path.of(resultFile).getParent();
+    var segment = scenario + SEGMENT_EXTENSION;
+    return parent == null ? segment : parent.resolve(segment).toString();
+  }
+}
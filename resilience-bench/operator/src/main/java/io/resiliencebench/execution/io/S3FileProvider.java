@@ -1,38 +1,93 @@
 package io.resiliencebench.execution.io;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
+/**
+ * Stores files in an S3 bucket. Large files are uploaded as multipart uploads whose parts are sent in
+ * parallel, holding at most one part per upload thread in memory. S3 requires at least 5 MiB for every
+ * part but the last.
+ */
 @Component("s3FileProvider")
-public class S3FileProvider implements FileProvider {
+public class S3FileProvider implements FileProvider, AutoCloseable {
 
   private final static Logger logger = LoggerFactory.getLogger(S3FileProvider.class);
 
   private final AmazonS3 s3Client;
   private final String bucketName;
+  private final int partSize;
+  private final int concurrency;
+  private final ExecutorService partExecutor;
+  private final TransferManager transferManager;
+  private final Tracer tracer;
 
-  public S3FileProvider(@Value("${AWS_BUCKET_NAME:none}") String bucketName, AmazonS3 s3Client) {
+  public S3FileProvider(@Value("${AWS_BUCKET_NAME:none}") String bucketName,
+                        AmazonS3 s3Client,
+                        Tracer tracer,
+                        @Value("${S3_UPLOAD_PART_SIZE_MB:8}") int partSizeMb,
+                        @Value("${S3_UPLOAD_CONCURRENCY:4}") int concurrency) {
     this.bucketName = bucketName; // TODO abstrair para CRD Benchmark
     this.s3Client = s3Client;
+    this.tracer = tracer;
+    this.partSize = Math.max(1, partSizeMb) * 1024 * 1024;
+    this.concurrency = Math.max(1, concurrency);
+    this.partExecutor = Executors.newFixedThreadPool(this.concurrency, threadFactory("s3-part-"));
+    this.transferManager = TransferManagerBuilder.standard()
+            .withS3Client(s3Client)
+            .withMinimumUploadPartSize((long) partSize)
+            .withMultipartUploadThreshold((long) partSize)
+            // the transfer manager waits for the parts of an upload from a thread of its own pool
+            .withExecutorFactory(() -> Executors.newFixedThreadPool(this.concurrency + 1, threadFactory("s3-transfer-")))
+            .build();
+  }
+
+  private static ThreadFactory threadFactory(String prefix) {
+    var count = new AtomicInteger();
+    return runnable -> {
+      var thread = new Thread(runnable, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Starts the span of an upload as a child of the current span, such as the publication of a result.
+   */
+  private Span startUploadSpan(String name, String file) {
+    return tracer.nextSpan().name(name).tag("s3.bucket", bucketName).tag("s3.key", file).start();
   }
 
    private void internalWriteFile(String resultFile, String content, String contentType) {
+    var span = startUploadSpan("s3.put", resultFile);
     try {
       var contentBytes = content.getBytes(UTF_8);
       InputStream inputStream = new ByteArrayInputStream(contentBytes);
@@ -43,9 +98,13 @@ public class S3FileProvider implements FileProvider {
       s3Client.putObject(putObjectRequest);
       logger.info("File {} uploaded to bucket {}.", resultFile, bucketName);
     } catch (AmazonServiceException e) {
+      span.error(e);
       logger.warn("Error writing file {}. Error code: {}. Message: {}", resultFile, e.getErrorCode(), e.getErrorMessage());
     } catch (Exception e) {
+      span.error(e);
       logger.warn("Error writing file {}. {}", resultFile, e.getMessage());
+    } finally {
+      span.end();
     }
   }
 
@@ -77,4 +136,86 @@ public class S3FileProvider implements FileProvider {
       return empty();
     }
   }
+
+  @Override
+  public boolean exists(String file) {
+    try {
+      return s3Client.doesObjectExist(bucketName, file);
+    } catch (AmazonServiceException e) {
+      logger.warn("Error checking file {}. Error code: {}. Message: {}", file, e.getErrorCode(), e.getErrorMessage());
+      return false;
+    }
+  }
+
+  @Override
+  public Optional<InputStream> openInputStream(String file) {
+    try {
+      return of(s3Client.getObject(bucketName, file).getObjectContent());
+    } catch (AmazonServiceException e) {
+      logger.warn("Error reading file {}. Error code: {}. Message: {}", file, e.getErrorCode(), e.getErrorMessage());
+      return empty();
+    }
+  }
+
+  /**
+   * The span of the upload lasts until the stream is closed.
+   */
+  @Override
+  public OutputStream openOutputStream(String file, String contentType) {
+    var span = startUploadSpan("s3.upload", file);
+    return new FilterOutputStream(new S3MultipartOutputStream(s3Client, bucketName, file, contentType, partSize, partExecutor, concurrency)) {
+      private boolean closed;
+
+      @Override
+      public void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        try {
+          out.close();
+        } catch (IOException | RuntimeException e) {
+          span.error(e);
+          throw e;
+        } finally {
+          span.end();
+        }
+      }
+    };
+  }
+
+  /**
+   * Uploads the file with the transfer manager, which reads the parts straight from disk and sends them
+   * in parallel.
+   */
+  @Override
+  public void copyFrom(Path source, String file, String contentType) throws IOException {
+    var metadata = new ObjectMetadata();
+    metadata.setContentType(contentType);
+    var span = startUploadSpan("s3.upload", file);
+    try {
+      transferManager.upload(new PutObjectRequest(bucketName, file, source.toFile()).withMetadata(metadata)).waitForCompletion();
+      logger.info("File {} uploaded to bucket {}.", file, bucketName);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      span.error(e);
+      throw new IOException("Interrupted uploading " + file + " to bucket " + bucketName, e);
+    } catch (AmazonClientException e) {
+      span.error(e);
+      throw new IOException("Error uploading " + file + " to bucket " + bucketName, e);
+    } finally {
+      span.end();
+    }
+  }
+
+  @Override
+  public void close() {
+    transferManager.shutdownNow(false);
+    partExecutor.shutdownNow();
+  }
 }
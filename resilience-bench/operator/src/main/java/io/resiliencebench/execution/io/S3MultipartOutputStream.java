@@ -0,0 +1,189 @@
+package io.resiliencebench.execution.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+/**
+ * Uploads what is written to it as an S3 object, sending each full part in the background while the next
+ * one is written. At most {@code concurrency} parts are uploading at a time, so memory stays bounded by
+ * the part size times the concurrency. Content smaller than a part is uploaded with a single put when the
+ * stream is closed. The buffer of the first part starts small and grows as it is written, so small
+ * objects take no more memory than their content.
+ */
+class S3MultipartOutputStream extends OutputStream {
+
+  private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+  private final AmazonS3 s3Client;
+  private final String bucketName;
+  private final String key;
+  private final String contentType;
+  private final int partSize;
+  private final Executor executor;
+  private final Semaphore uploadSlots;
+  private final List<Future<PartETag>> parts = new ArrayList<>();
+
+  private byte[] buffer;
+  private int size;
+  private String uploadId;
+  private boolean closed;
+
+  S3MultipartOutputStream(AmazonS3 s3Client, String bucketName, String key, String contentType,
+                          int partSize, Executor executor, int concurrency) {
+    this.s3Client = s3Client;
+    this.bucketName = bucketName;
+    this.key = key;
+    this.contentType = contentType;
+    this.partSize = partSize;
+    this.executor = executor;
+    this.uploadSlots = new Semaphore(Math.max(1, concurrency));
+    this.buffer = new byte[Math.min(partSize, INITIAL_BUFFER_SIZE)];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    ensureOpen();
+    while (length > 0) {
+      if (size == buffer.length) {
+        grow(size + length);
+      }
+      var count = Math.min(length, buffer.length - size);
+      System.arraycopy(bytes, offset, buffer, size, count);
+      size += count;
+      offset += count;
+      length -= count;
+      if (size == partSize) {
+        uploadPart();
+      }
+    }
+  }
+
+  /**
+   * Doubles the buffer, or more when needed to hold the given size, up to the part size.
+   */
+  private void grow(int needed) {
+    var capacity = Math.min(partSize, Math.max(needed, buffer.length * 2));
+    buffer = Arrays.copyOf(buffer, capacity);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      if (uploadId == null) {
+        s3Client.putObject(new PutObjectRequest(bucketName, key, new ByteArrayInputStream(buffer, 0, size), metadata(size)));
+        return;
+      }
+      if (size > 0) {
+        uploadPart();
+      }
+      var partETags = new ArrayList<PartETag>(parts.size());
+      for (var part : parts) {
+        partETags.add(part.get());
+      }
+      s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, partETags));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      abort();
+      throw new IOException("Interrupted uploading " + key + " to bucket " + bucketName, e);
+    } catch (ExecutionException | RuntimeException e) {
+      abort();
+      throw new IOException("Error uploading " + key + " to bucket " + bucketName, e);
+    }
+  }
+
+  private void uploadPart() throws IOException {
+    try {
+      if (uploadId == null) {
+        uploadId = s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key, metadata(-1))).getUploadId();
+      }
+      uploadSlots.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      closed = true;
+      abort();
+      throw new IOException("Interrupted uploading " + key + " to bucket " + bucketName, e);
+    } catch (RuntimeException e) {
+      closed = true;
+      throw new IOException("Error uploading " + key + " to bucket " + bucketName, e);
+    }
+    var request = new UploadPartRequest()
+            .withBucketName(bucketName)
+            .withKey(key)
+            .withUploadId(uploadId)
+            .withPartNumber(parts.size() + 1)
+            .withInputStream(new ByteArrayInputStream(buffer, 0, size))
+            .withPartSize(size);
+    FutureTask<PartETag> part = new FutureTask<>(() -> {
+      try {
+        return s3Client.uploadPart(request).getPartETag();
+      } finally {
+        uploadSlots.release();
+      }
+    });
+    parts.add(part);
+    try {
+      executor.execute(part);
+    } catch (RuntimeException e) {
+      uploadSlots.release();
+      closed = true;
+      abort();
+      throw new IOException("Error uploading part " + parts.size() + " of " + key, e);
+    }
+    // the submitted part keeps its buffer until it is uploaded, and the content goes on for another part
+    buffer = new byte[partSize];
+    size = 0;
+  }
+
+  private void abort() {
+    parts.forEach(part -> part.cancel(true));
+    if (uploadId != null) {
+      try {
+        s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+      } catch (RuntimeException ignored) {
+        // the bucket lifecycle removes uploads left incomplete
+      }
+    }
+  }
+
+  private ObjectMetadata metadata(long contentLength) {
+    var metadata = new ObjectMetadata();
+    metadata.setContentType(contentType);
+    if (contentLength >= 0) {
+      metadata.setContentLength(contentLength);
+    }
+    return metadata;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+}
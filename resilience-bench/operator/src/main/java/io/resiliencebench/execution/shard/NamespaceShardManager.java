@@ -0,0 +1,347 @@
+package io.resiliencebench.execution.shard;
+
+import static io.resiliencebench.support.Annotations.DESTINATION_RULE;
+import static io.resiliencebench.support.Annotations.ENVOY_SERVICE;
+import static io.resiliencebench.support.Annotations.SHARD_OF;
+import static io.resiliencebench.support.Annotations.VIRTUAL_SERVICE;
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import io.fabric8.istio.api.networking.v1beta1.Destination;
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.istio.client.IstioClient;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.resiliencebench.execution.io.DefaultFileProviderFactory;
+import io.resiliencebench.resources.benchmark.Benchmark;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.service.ResilientService;
+import io.resiliencebench.resources.workload.Workload;
+import io.resiliencebench.support.CustomResourceRepository;
+
+/**
+ * Clones the services under test of a benchmark into ephemeral namespaces, so scenarios touching the
+ * same ResilientService can run at the same time without interfering with each other. Shard namespaces
+ * are labelled with {@link #SHARD_LABEL} and annotated with the benchmark they belong to, so they can be
+ * found again and deleted with their benchmark.
+ */
+@Service
+public class NamespaceShardManager {
+
+  private final static Logger logger = LoggerFactory.getLogger(NamespaceShardManager.class);
+
+  private static final String RESULTS_CLAIM = "test-results";
+  private static final int MAX_NAMESPACE_LENGTH = 63;
+
+  public static final String SHARD_LABEL = "resiliencebench.io/shard";
+
+  private final KubernetesClient kubernetesClient;
+  private final IstioClient istioClient;
+  private final CustomResourceRepository<ResilientService> resilientServiceRepository;
+  private final Environment env;
+
+  public NamespaceShardManager(KubernetesClient kubernetesClient,
+                               IstioClient istioClient,
+                               CustomResourceRepository<ResilientService> resilientServiceRepository,
+                               Environment env) {
+    this.kubernetesClient = kubernetesClient;
+    this.istioClient = istioClient;
+    this.resilientServiceRepository = resilientServiceRepository;
+    this.env = env;
+  }
+
+  /**
+   * Whether the shards of the benchmark can be provisioned. Results written to local storage land in the
+   * copy of the results volume of each shard and would be lost with it, so more than one shard needs cloud
+   * storage.
+   */
+  public boolean supports(Benchmark benchmark) {
+    var shards = benchmark.getSpec().getShards();
+    return shards == null || shards <= 1 || DefaultFileProviderFactory.isCloudStorage(env);
+  }
+
+  /**
+   * Creates the shard namespaces of the benchmark and copies the ResilientServices, their deployments,
+   * services and Istio objects, the workload and its script into each one of them.
+   *
+   * @return the names of the shard namespaces, or an empty list when the benchmark is not sharded
+   */
+  public List<String> provision(Benchmark benchmark, Workload workload) {
+    var shards = benchmark.getSpec().getShards();
+    if (shards == null || shards < 1) {
+      return List.of();
+    }
+
+    var namespace = benchmark.getMetadata().getNamespace();
+    var benchmarkName = benchmark.getMetadata().getName();
+    var resources = collectResources(namespace, workload);
+
+    if (!supports(benchmark)) {
+      throw new IllegalStateException(format("Benchmark %s/%s has %d shards but results are stored locally", namespace, benchmarkName, shards));
+    }
+
+    var namespaces = new ArrayList<String>();
+    for (int i = 1; i <= shards; i++) {
+      var shardNamespace = shardName(namespace, benchmarkName, i);
+      createNamespace(namespace, shardNamespace, benchmarkName);
+      resources.forEach(resource -> copyTo(resource, namespace, shardNamespace));
+      namespaces.add(shardNamespace);
+      logger.info("Shard {} ready for benchmark {}/{} with {} resource(s)", shardNamespace, namespace, benchmarkName, resources.size());
+    }
+    return namespaces;
+  }
+
+  /**
+   * Deletes the shard namespaces used by the queue. Namespaces not created by this class are left untouched.
+   */
+  public void teardown(ExecutionQueue queue) {
+    var queueNamespace = queue.getMetadata().getNamespace();
+    var owner = shardOwner(queueNamespace, queue.getSpec().getBenchmark());
+    for (var shardNamespace : queue.getExecutionNamespaces()) {
+      if (!shardNamespace.equals(queueNamespace)) {
+        delete(shardNamespace, owner);
+      }
+    }
+  }
+
+  /**
+   * Requests the deletion of the shard namespaces of the benchmark, those its spec asks for and those its
+   * status records, without waiting for them to go away. Benchmarks without shards are left untouched.
+   *
+   * @return whether none of the shard namespaces exists anymore
+   */
+  public boolean teardown(Benchmark benchmark) {
+    var owner = shardOwner(benchmark.getMetadata().getNamespace(), benchmark.getMetadata().getName());
+    var gone = true;
+    for (var shardNamespace : shardNamespaces(benchmark)) {
+      gone &= !delete(shardNamespace, owner);
+    }
+    return gone;
+  }
+
+  /**
+   * Deletes the shard namespace if it belongs to the given benchmark and is not being deleted already.
+   *
+   * @return whether the namespace still exists
+   */
+  private boolean delete(String shardNamespace, String owner) {
+    var current = kubernetesClient.namespaces().withName(shardNamespace).get();
+    if (current == null || current.getMetadata().getAnnotations() == null
+            || !owner.equals(current.getMetadata().getAnnotations().get(SHARD_OF))) {
+      return false;
+    }
+    if (current.getMetadata().getDeletionTimestamp() == null) {
+      logger.info("Deleting shard {} of benchmark {}", shardNamespace, owner);
+      kubernetesClient.namespaces().withName(shardNamespace).delete();
+    }
+    return true;
+  }
+
+  private static Set<String> shardNamespaces(Benchmark benchmark) {
+    var namespaces = new LinkedHashSet<String>();
+    var status = benchmark.getStatus();
+    if (status != null && status.getShards() != null) {
+      namespaces.addAll(status.getShards());
+    }
+    var shards = benchmark.getSpec().getShards();
+    for (int i = 1; shards != null && i <= shards; i++) {
+      namespaces.add(shardName(benchmark.getMetadata().getNamespace(), benchmark.getMetadata().getName(), i));
+    }
+    return namespaces;
+  }
+
+  static String shardName(String namespace, String benchmarkName, int index) {
+    var suffix = "-shard-" + index;
+    var prefix = namespace + "-" + benchmarkName;
+    if (prefix.length() + suffix.length() > MAX_NAMESPACE_LENGTH) {
+      prefix = prefix.substring(0, MAX_NAMESPACE_LENGTH - suffix.length());
+    }
+    while (prefix.endsWith("-")) {
+      prefix = prefix.substring(0, prefix.length() - 1);
+    }
+    return prefix + suffix;
+  }
+
+  private static String shardOwner(String namespace, String benchmarkName) {
+    return namespace + "." + benchmarkName;
+  }
+
+  private void createNamespace(String sourceNamespace, String shardNamespace, String benchmarkName) {
+    var source = kubernetesClient.namespaces().withName(sourceNamespace).get();
+    var labels = new HashMap<String, String>();
+    if (source != null && source.getMetadata().getLabels() != null) {
+      labels.putAll(source.getMetadata().getLabels());
+    }
+    labels.remove("kubernetes.io/metadata.name");
+
+    var shard = new NamespaceBuilder()
+            .withNewMetadata()
+            .withName(shardNamespace)
+            .withLabels(labels)
+            .addToLabels(SHARD_LABEL, "true")
+            .addToAnnotations(SHARD_OF, shardOwner(sourceNamespace, benchmarkName))
+            .endMetadata()
+            .build();
+    kubernetesClient.resource(shard).forceConflicts().serverSideApply();
+  }
+
+  private List<HasMetadata> collectResources(String namespace, Workload workload) {
+    var resources = new LinkedHashMap<String, HasMetadata>();
+    var services = kubernetesClient.services().inNamespace(namespace).list().getItems();
+
+    for (var resilientService : resilientServiceRepository.list(namespace)) {
+      add(resources, resilientService);
+
+      var deployments = kubernetesClient.apps().deployments()
+              .inNamespace(namespace)
+              .withLabelSelector(resilientService.getSpec().getSelector())
+              .list()
+              .getItems();
+      for (var deployment : deployments) {
+        add(resources, deployment);
+        services.stream().filter(service -> selects(service.getSpec().getSelector(), deployment))
+                .forEach(service -> add(resources, service));
+      }
+
+      var annotations = resilientService.getMetadata().getAnnotations();
+      if (annotations == null) {
+        continue;
+      }
+      var envoyService = annotations.get(ENVOY_SERVICE);
+      if (envoyService != null) {
+        services.stream().filter(service -> service.getMetadata().getName().equals(envoyService))
+                .forEach(service -> add(resources, service));
+      }
+      var virtualService = annotations.get(VIRTUAL_SERVICE);
+      if (virtualService != null) {
+        add(resources, istioClient.v1beta1().virtualServices().inNamespace(namespace).withName(virtualService).get());
+      }
+      var destinationRule = annotations.get(DESTINATION_RULE);
+      if (destinationRule != null) {
+        add(resources, istioClient.v1beta1().destinationRules().inNamespace(namespace).withName(destinationRule).get());
+      }
+    }
+
+    add(resources, workload);
+    var script = workload.getSpec().getScript();
+    if (script != null && script.getConfigMap() != null) {
+      add(resources, kubernetesClient.configMaps().inNamespace(namespace).withName(script.getConfigMap().getName()).get());
+    }
+    add(resources, kubernetesClient.persistentVolumeClaims().inNamespace(namespace).withName(RESULTS_CLAIM).get());
+    return new ArrayList<>(resources.values());
+  }
+
+  private static void add(Map<String, HasMetadata> resources, HasMetadata resource) {
+    if (resource != null) {
+      resources.putIfAbsent(resource.getKind() + "/" + resource.getMetadata().getName(), resource);
+    }
+  }
+
+  private static boolean selects(Map<String, String> selector, Deployment deployment) {
+    if (selector == null || selector.isEmpty()) {
+      return false;
+    }
+    var podLabels = deployment.getSpec().getTemplate().getMetadata().getLabels();
+    return podLabels != null && podLabels.entrySet().containsAll(selector.entrySet());
+  }
+
+  private void copyTo(HasMetadata resource, String sourceNamespace, String shardNamespace) {
+    var serialization = kubernetesClient.getKubernetesSerialization();
+    var copy = serialization.unmarshal(serialization.asJson(resource), resource.getClass());
+    copy.setMetadata(copyMetadata(resource, shardNamespace));
+
+    if (copy instanceof VirtualService virtualService) {
+      pointToShard(virtualService, sourceNamespace, shardNamespace);
+    } else if (copy instanceof DestinationRule destinationRule) {
+      destinationRule.getSpec().setHost(shardHost(destinationRule.getSpec().getHost(), sourceNamespace, shardNamespace));
+    } else if (copy instanceof io.fabric8.kubernetes.api.model.Service service) {
+      service.setStatus(null);
+      service.getSpec().setClusterIP(null);
+      service.getSpec().setClusterIPs(null);
+      Stream.ofNullable(service.getSpec().getPorts()).flatMap(List::stream).forEach(port -> port.setNodePort(null));
+    } else if (copy instanceof Deployment deployment) {
+      deployment.setStatus(null);
+    } else if (copy instanceof PersistentVolumeClaim claim) {
+      claim.setStatus(null);
+      claim.getSpec().setVolumeName(null);
+    }
+
+    kubernetesClient.resource(copy).inNamespace(shardNamespace).forceConflicts().serverSideApply();
+  }
+
+  /**
+   * Moves the hosts of the virtual service and of its route destinations to the shard namespace.
+   */
+  private static void pointToShard(VirtualService virtualService, String sourceNamespace, String shardNamespace) {
+    var spec = virtualService.getSpec();
+    if (spec.getHosts() != null) {
+      spec.setHosts(spec.getHosts().stream().map(host -> shardHost(host, sourceNamespace, shardNamespace)).toList());
+    }
+    var destinations = new ArrayList<Destination>();
+    Stream.ofNullable(spec.getHttp()).flatMap(List::stream).forEach(http -> {
+      Stream.ofNullable(http.getRoute()).flatMap(List::stream).forEach(route -> destinations.add(route.getDestination()));
+      destinations.add(http.getMirror());
+    });
+    Stream.ofNullable(spec.getTcp()).flatMap(List::stream)
+            .flatMap(tcp -> Stream.ofNullable(tcp.getRoute()).flatMap(List::stream))
+            .forEach(route -> destinations.add(route.getDestination()));
+    Stream.ofNullable(spec.getTls()).flatMap(List::stream)
+            .flatMap(tls -> Stream.ofNullable(tls.getRoute()).flatMap(List::stream))
+            .forEach(route -> destinations.add(route.getDestination()));
+    destinations.stream().filter(Objects::nonNull)
+            .forEach(destination -> destination.setHost(shardHost(destination.getHost(), sourceNamespace, shardNamespace)));
+  }
+
+  /**
+   * The host of a service of the source namespace as seen from the shard namespace. Names qualified by the
+   * source namespace are qualified by the shard namespace instead; other hosts are kept.
+   */
+  static String shardHost(String host, String sourceNamespace, String shardNamespace) {
+    if (host == null) {
+      return null;
+    }
+    var labels = host.split("\\.", -1);
+    if (labels.length >= 2 && labels[1].equals(sourceNamespace) && (labels.length == 2 || labels[2].equals("svc"))) {
+      labels[1] = shardNamespace;
+      return String.join(".", labels);
+    }
+    return host;
+  }
+
+  private static ObjectMeta copyMetadata(HasMetadata resource, String shardNamespace) {
+    var metadata = resource.getMetadata();
+    var annotations = new HashMap<String, String>();
+    if (metadata.getAnnotations() != null && !(resource instanceof PersistentVolumeClaim)) {
+      metadata.getAnnotations().entrySet().stream()
+              .filter(entry -> !entry.getKey().startsWith("kubectl.kubernetes.io/"))
+              .filter(entry -> !entry.getKey().startsWith("deployment.kubernetes.io/"))
+              .forEach(entry -> annotations.put(entry.getKey(), entry.getValue()));
+    }
+    return new ObjectMetaBuilder()
+            .withName(metadata.getName())
+            .withNamespace(shardNamespace)
+            .withLabels(metadata.getLabels())
+            .withAnnotations(annotations)
+            .build();
+  }
+}
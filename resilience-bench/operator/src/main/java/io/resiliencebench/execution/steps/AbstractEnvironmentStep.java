@@ -7,20 +7,28 @@ import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 import io.fabric8.kubernetes.client.dsl.PodResource;
-import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.Metrics;
 import io.resiliencebench.resources.scenario.Scenario;
 import io.resiliencebench.resources.service.ResilientService;
 import io.resiliencebench.support.CustomResourceRepository;
+import io.resiliencebench.support.Retries;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 abstract class AbstractEnvironmentStep extends ExecutorStep {
 
   private final static Logger logger = LoggerFactory.getLogger(AbstractEnvironmentStep.class);
+
+  static final String ROLLOUTS_METRIC = "resiliencebench.deployment.rollouts";
+
   protected final CustomResourceRepository<ResilientService> resilientServiceRepository;
 
   public AbstractEnvironmentStep(KubernetesClient kubernetesClient,
@@ -42,7 +50,7 @@ abstract class AbstractEnvironmentStep extends ExecutorStep {
         .orElse(null);
   }
 
-  private void internalUpdateVariablesDeployment(Deployment targetDeployment, String containerName, List<EnvVar> envVars) {
+  private Optional<Deployment> internalApply(Deployment targetDeployment, Map<String, List<EnvVar>> containerEnvs) {
     var deployment = kubernetesClient()
             .apps()
             .deployments()
@@ -50,24 +58,39 @@ abstract class AbstractEnvironmentStep extends ExecutorStep {
             .withName(targetDeployment.getMetadata().getName())
             .get();
 
-    var container = deployment
-            .getSpec()
-            .getTemplate()
-            .getSpec()
-            .getContainers()
-            .stream()
-            .filter(c -> c.getName().equals(containerName))
-            .findFirst();
-
-    if (container.isPresent()) {
-      container.get().setEnv(envVars);
-      kubernetesClient().apps().deployments().inNamespace(targetDeployment.getMetadata().getNamespace()).resource(deployment).update();
+    if (DeploymentEnvPlan.isUpToDate(deployment, containerEnvs)) {
+      return Optional.empty();
+    }
+    for (var container : deployment.getSpec().getTemplate().getSpec().getContainers()) {
+      var envVars = containerEnvs.get(container.getName());
+      if (envVars != null) {
+        container.setEnv(envVars);
+      }
     }
+    return Optional.of(kubernetesClient().apps().deployments().inNamespace(targetDeployment.getMetadata().getNamespace()).resource(deployment).update());
   }
 
-  protected void updateVariablesDeployment(Deployment targetDeployment, String containerName, List<EnvVar> envVars) {
-    Retry.of("updateVariablesDeployment", RetryConfig.custom().maxAttempts(3).build())
-            .executeRunnable(() -> internalUpdateVariablesDeployment(targetDeployment, containerName, envVars));
+  /**
+   * Writes the planned environment with one update per deployment, returning the deployments updated.
+   * Deployments already running with the planned environment are left alone, as updating them would
+   * restart their pods for nothing.
+   */
+  protected List<Deployment> apply(DeploymentEnvPlan plan) {
+    var retry = Retries.of("updateVariablesDeployment", RetryConfig.custom().maxAttempts(3).build());
+    var updated = new ArrayList<Deployment>();
+    for (var deployment : plan.getDeployments()) {
+      var containerEnvs = plan.getContainerEnvs(deployment);
+      var result = retry.executeSupplier(() -> internalApply(deployment, containerEnvs));
+      if (result.isPresent()) {
+        logger.info("Updated deployment {} containers {}", deployment.getMetadata().getName(), containerEnvs.keySet());
+        Metrics.counter(ROLLOUTS_METRIC, "outcome", "applied").increment();
+        updated.add(result.get());
+      } else {
+        logger.info("Deployment {} already up to date, skipping rollout", deployment.getMetadata().getName());
+        Metrics.counter(ROLLOUTS_METRIC, "outcome", "skipped").increment();
+      }
+    }
+    return updated;
   }
 
   protected void waitUntilReady(Deployment targetDeployment) {
@@ -76,6 +99,17 @@ abstract class AbstractEnvironmentStep extends ExecutorStep {
     logger.info("Deployment restarted: {}", targetDeployment.getMetadata().getName());
   }
 
+  /**
+   * Completes once the pods of the deployment are ready, without blocking a thread while waiting.
+   */
+  protected CompletableFuture<Void> whenReady(Deployment targetDeployment) {
+    logger.info("Waiting for deployment: {}", targetDeployment.getMetadata().getName());
+    return getPods(targetDeployment)
+            .informOnCondition(pods -> pods.stream().allMatch(this::waitUntilCondition))
+            .orTimeout(2, TimeUnit.MINUTES)
+            .thenAccept(pods -> logger.info("Deployment ready: {}", targetDeployment.getMetadata().getName()));
+  }
+
   protected List<EnvVar> getActualContainerEnv(Deployment targetDeployment, String containerName) {
     return targetDeployment.getSpec().getTemplate().getSpec().getContainers().stream()
         .filter(c -> c.getName().equals(containerName))
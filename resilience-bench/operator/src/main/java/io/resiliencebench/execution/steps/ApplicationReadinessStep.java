@@ -1,5 +1,6 @@
 package io.resiliencebench.execution.steps;
 
+import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.resiliencebench.resources.queue.ExecutionQueue;
 import io.resiliencebench.resources.scenario.Scenario;
@@ -9,6 +10,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -25,16 +32,38 @@ public class ApplicationReadinessStep extends AbstractEnvironmentStep {
     return true;
   }
 
+  @Override
+  public Set<StepResource> reads() {
+    return Set.of(StepResource.DEPLOYMENT_ENV);
+  }
+
   @Override
   protected void internalExecute(Scenario scenario, ExecutionQueue queue) {
-    var ns = scenario.getMetadata().getNamespace();
-    resilientServiceRepository.list(ns).forEach(resilientService -> {
+    getDeployments(scenario).forEach(deployment -> {
+      logger.info("Waiting for deployment: {}", deployment.getMetadata().getName());
+      getPods(deployment).waitUntilCondition(this::waitUntilCondition, 2, TimeUnit.MINUTES);
+      waitUntilReady(deployment);
+    });
+  }
+
+  @Override
+  protected CompletionStage<Void> internalExecuteAsync(Scenario scenario, ExecutionQueue queue, Executor executor) {
+    return CompletableFuture.supplyAsync(() -> getDeployments(scenario), executor)
+            .thenCompose(deployments -> CompletableFuture.allOf(
+                    deployments.stream().map(this::whenReady).toArray(CompletableFuture[]::new)));
+  }
+
+  /**
+   * The deployments of the services of the namespace, once each even when several services select the same.
+   */
+  private Collection<Deployment> getDeployments(Scenario scenario) {
+    var deployments = new LinkedHashMap<String, Deployment>();
+    for (var resilientService : resilientServiceRepository.list(scenario.getMetadata().getNamespace())) {
       var deployment = getDeployment(scenario, resilientService);
       if (deployment != null) {
-        logger.info("Waiting for deployment: {}", deployment.getMetadata().getName());
-        getPods(deployment).waitUntilCondition(this::waitUntilCondition, 2, TimeUnit.MINUTES);
-        waitUntilReady(deployment);
+        deployments.putIfAbsent(deployment.getMetadata().getName(), deployment);
       }
-    });
+    }
+    return deployments.values();
   }
 }
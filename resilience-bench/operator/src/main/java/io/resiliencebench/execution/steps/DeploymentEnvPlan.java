@@ -0,0 +1,114 @@
+package io.resiliencebench.execution.steps;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The environment changes of a scenario grouped by deployment. Every service, connector and container
+ * changing the same deployment changes the same copy, so each deployment is updated, and rolled out,
+ * once per scenario.
+ */
+class DeploymentEnvPlan {
+
+  private final Map<String, Deployment> deployments = new LinkedHashMap<>();
+  private final Map<String, Set<String>> changedContainers = new LinkedHashMap<>();
+
+  private static String key(Deployment deployment) {
+    return deployment.getMetadata().getNamespace() + "/" + deployment.getMetadata().getName();
+  }
+
+  /**
+   * Returns the copy of the deployment holding the changes planned so far.
+   */
+  Deployment track(Deployment deployment) {
+    return deployments.computeIfAbsent(key(deployment), k -> deployment);
+  }
+
+  /**
+   * Sets the variable on the container, replacing its value when it is already defined.
+   */
+  void set(Deployment deployment, String containerName, String name, String value) {
+    var env = env(deployment, containerName);
+    env.stream()
+            .filter(variable -> name.equals(variable.getName()))
+            .findFirst()
+            .ifPresentOrElse(variable -> {
+              variable.setValue(value);
+              variable.setValueFrom(null);
+            }, () -> env.add(new EnvVar(name, value, null)));
+  }
+
+  /**
+   * Replaces the whole environment of the container.
+   */
+  void replace(Deployment deployment, String containerName, List<EnvVar> envVars) {
+    var env = env(deployment, containerName);
+    env.clear();
+    env.addAll(envVars);
+  }
+
+  /**
+   * Returns the planned environment of the container, marking it as changed.
+   */
+  List<EnvVar> env(Deployment deployment, String containerName) {
+    var tracked = track(deployment);
+    var container = container(tracked, containerName);
+    if (container.getEnv() == null) {
+      container.setEnv(new ArrayList<>());
+    }
+    changedContainers.computeIfAbsent(key(tracked), k -> new LinkedHashSet<>()).add(containerName);
+    return container.getEnv();
+  }
+
+  /**
+   * The deployments with at least one container changed, in the order they were first changed.
+   */
+  List<Deployment> getDeployments() {
+    return changedContainers.keySet().stream().map(deployments::get).toList();
+  }
+
+  /**
+   * The planned environment of each changed container of the deployment.
+   */
+  Map<String, List<EnvVar>> getContainerEnvs(Deployment deployment) {
+    var tracked = deployments.get(key(deployment));
+    var envs = new LinkedHashMap<String, List<EnvVar>>();
+    for (var containerName : changedContainers.getOrDefault(key(deployment), Set.of())) {
+      envs.put(containerName, container(tracked, containerName).getEnv());
+    }
+    return envs;
+  }
+
+  /**
+   * Tests whether the live deployment already has the planned environment on every changed container,
+   * in which case updating it would only restart its pods.
+   */
+  static boolean isUpToDate(Deployment live, Map<String, List<EnvVar>> containerEnvs) {
+    for (var entry : containerEnvs.entrySet()) {
+      var liveEnv = container(live, entry.getKey()).getEnv();
+      if (!normalize(liveEnv).equals(normalize(entry.getValue()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static List<EnvVar> normalize(List<EnvVar> env) {
+    return env == null ? List.of() : env;
+  }
+
+  private static Container container(Deployment deployment, String containerName) {
+    return deployment.getSpec().getTemplate().getSpec().getContainers().stream()
+            .filter(c -> c.getName().equals(containerName))
+            .findFirst()
+            .orElseThrow(() -> new RuntimeException("Container not found: " + containerName));
+  }
+}
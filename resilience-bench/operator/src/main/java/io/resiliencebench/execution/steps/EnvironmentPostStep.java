@@ -1,5 +1,6 @@
 package io.resiliencebench.execution.steps;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.resiliencebench.resources.queue.ExecutionQueue;
@@ -10,16 +11,33 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
+/**
+ * Restores the environment of the services of the scenario. When the queue runs one scenario at a time in
+ * one namespace, services whose environment the next scenario of the queue sets to the same values are
+ * left as they are, sparing the restart of their deployments.
+ */
 @Service
 public class EnvironmentPostStep extends AbstractEnvironmentStep {
 
   private final static Logger logger = LoggerFactory.getLogger(EnvironmentPostStep.class);
 
+  private final CustomResourceRepository<Scenario> scenarioRepository;
+
   public EnvironmentPostStep(KubernetesClient kubernetesClient,
-      CustomResourceRepository<ResilientService> resilientServiceRepository) {
+      CustomResourceRepository<ResilientService> resilientServiceRepository,
+      CustomResourceRepository<Scenario> scenarioRepository) {
     super(kubernetesClient, resilientServiceRepository);
+    this.scenarioRepository = scenarioRepository;
   }
 
   @Override
@@ -32,50 +50,90 @@ public class EnvironmentPostStep extends AbstractEnvironmentStep {
             connector.getSource().getEnvs() != null);
   }
 
+  @Override
+  public Set<StepResource> writes() {
+    return Set.of(StepResource.DEPLOYMENT_ENV);
+  }
+
   @Override
   protected void internalExecute(Scenario scenario, ExecutionQueue executionQueue) {
+    restoreEnvironments(scenario, executionQueue).forEach(this::waitUntilReady);
+  }
+
+  @Override
+  protected CompletionStage<Void> internalExecuteAsync(Scenario scenario, ExecutionQueue queue, Executor executor) {
+    return CompletableFuture.supplyAsync(() -> restoreEnvironments(scenario, queue), executor)
+            .thenCompose(deployments -> CompletableFuture.allOf(
+                    deployments.stream().map(this::whenReady).toArray(CompletableFuture[]::new)));
+  }
+
+  /**
+   * Restores every service of the scenario with one update per deployment, returning the deployments updated.
+   */
+  private List<Deployment> restoreEnvironments(Scenario scenario, ExecutionQueue queue) {
+    var plan = new DeploymentEnvPlan();
+    var services = new LinkedHashSet<String>();
     for (var connector : scenario.getSpec().getConnectors()) {
-      restoreEnvironment(scenario, connector.getSource());
-      restoreEnvironment(scenario, connector.getDestination());
+      services.add(connector.getSource().getName());
+      services.add(connector.getDestination().getName());
     }
+    var envs = envs(scenario);
+    var nextEnvs = nextScenario(queue).map(EnvironmentPostStep::envs).orElse(Map.of());
+    for (var service : services) {
+      if (envs.containsKey(service) && envs.get(service).equals(nextEnvs.get(service))) {
+        logger.info("Keeping the environment of {}, the next scenario sets the same one", service);
+      } else {
+        restoreEnvironment(scenario, service, plan);
+      }
+    }
+    return apply(plan);
   }
 
-  public void restoreEnvironment(Scenario scenario, io.resiliencebench.resources.scenario.Service service) {
-    var resilientService = resilientServiceRepository.get(scenario.getMetadata().getNamespace(), service.getName());
+  /**
+   * The scenario of the next pending item, when it is the next one to run in the same namespace.
+   */
+  private Optional<Scenario> nextScenario(ExecutionQueue queue) {
+    if (queue.getParallelism() > 1 || queue.getExecutionNamespaces().size() > 1) {
+      return Optional.empty();
+    }
+    return queue.getNextPendingItem()
+            .flatMap(item -> scenarioRepository.find(queue.getMetadata().getNamespace(), item.getScenario()));
+  }
+
+  /**
+   * The environment the scenario sets, by service.
+   */
+  static Map<String, Map<String, JsonNode>> envs(Scenario scenario) {
+    var envs = new HashMap<String, Map<String, JsonNode>>();
+    for (var connector : scenario.getSpec().getConnectors()) {
+      for (var service : List.of(connector.getSource(), connector.getDestination())) {
+        if (service.getEnvs() != null && !service.getEnvs().isEmpty()) {
+          envs.computeIfAbsent(service.getName(), name -> new HashMap<>()).putAll(service.getEnvs());
+        }
+      }
+    }
+    return envs;
+  }
+
+  /**
+   * Plans the environment saved in the ResilientService back on its application container.
+   */
+  public void restoreEnvironment(Scenario scenario, String service, DeploymentEnvPlan plan) {
+    var resilientService = resilientServiceRepository.get(scenario.getMetadata().getNamespace(), service);
     var containerName = resilientService.getSpec().getAppContainerName();
 
     var env = resilientService.getSpec().getEnvs();
     if (env == null) {
       return;
     }
-    var deployment = findDeployment(scenario, resilientService);
-    if (deployment.isPresent()) {
-      var container = deployment.get().getSpec().getTemplate().getSpec().getContainers().stream()
-          .filter(c -> c.getName().equals(containerName))
-          .findFirst()
-          .orElseThrow(() -> new RuntimeException("Container not found: " + containerName));
-
+    var deployment = getDeployment(scenario, resilientService);
+    if (deployment != null) {
       var textEnvs = String.join(" ", env.stream().map((variable) -> "\"" + variable.getName() + "\": \"" + variable.getValue() + "\"").toList());
-      logger.info("deployment {} container {}. {}", deployment.get().getMetadata().getName(), containerName, textEnvs);
+      logger.info("deployment {} container {}. {}", deployment.getMetadata().getName(), containerName, textEnvs);
 
-      container.setEnv(env);
-      updateVariablesDeployment(deployment.get(), containerName, env);
-      waitUntilReady(deployment.get());
+      plan.replace(deployment, containerName, env);
     } else {
-      logger.warn("Deployment not found for ResilientService {}", service.getName());
+      logger.warn("Deployment not found for ResilientService {}", service);
     }
   }
-
-  private Optional<Deployment> findDeployment(Scenario scenario, ResilientService resilientService) {
-    var deployment = kubernetesClient()
-        .apps()
-        .deployments()
-        .inNamespace(scenario.getMetadata().getNamespace())
-        .withLabelSelector(resilientService.getSpec().getSelector())
-        .list()
-        .getItems()
-        .stream()
-        .findFirst();
-    return deployment;
-  }
 }
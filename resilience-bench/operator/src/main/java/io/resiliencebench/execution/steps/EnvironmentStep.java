@@ -1,5 +1,6 @@
 package io.resiliencebench.execution.steps;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.EnvVar;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.resiliencebench.resources.queue.ExecutionQueue;
@@ -10,7 +11,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class EnvironmentStep extends AbstractEnvironmentStep {
@@ -24,7 +29,7 @@ public class EnvironmentStep extends AbstractEnvironmentStep {
 
   @Override
   protected boolean isApplicable(Scenario scenario) {
-    return scenario
+    return scenario.getSpec().getFault() != null || scenario
         .getSpec()
         .getConnectors()
         .stream()
@@ -32,7 +37,19 @@ public class EnvironmentStep extends AbstractEnvironmentStep {
             connector.getSource().getEnvs() != null);
   }
 
-  public void applyServiceEnvironment(Scenario scenario, io.resiliencebench.resources.scenario.Service service) {
+  @Override
+  public Set<StepResource> writes() {
+    return Set.of(StepResource.DEPLOYMENT_ENV);
+  }
+
+  /**
+   * Plans the environment of the service on its application container. The environment before the
+   * scenario is saved in the ResilientService, once per service, to be restored after the scenario. It is
+   * not saved when the container already has the environment of the scenario, as the previous scenario
+   * may have left it there instead of restoring the saved one.
+   */
+  public void applyServiceEnvironment(Scenario scenario, io.resiliencebench.resources.scenario.Service service,
+                                      DeploymentEnvPlan plan, Set<String> saved) {
     var env = service.getEnvs();
     if (env == null) {
       return;
@@ -40,48 +57,73 @@ public class EnvironmentStep extends AbstractEnvironmentStep {
     var resilientService = resilientServiceRepository.get(scenario.getMetadata().getNamespace(), service.getName());
     var containerName = resilientService.getSpec().getAppContainerName();
 
-    var deployment = kubernetesClient()
-        .apps()
-        .deployments()
-        .inNamespace(scenario.getMetadata().getNamespace())
-        .withLabelSelector(resilientService.getSpec().getSelector())
-        .list()
-        .getItems()
-        .stream()
-        .findFirst();
-
-    if (deployment.isPresent()) {
-      var targetDeployment = deployment.get();
-      var containerEnvs = getActualContainerEnv(targetDeployment, containerName);
-      saveActualEnv(containerEnvs, resilientService);
+    var deployment = getDeployment(scenario, resilientService);
+    if (deployment != null) {
+      var actualEnv = getActualContainerEnv(deployment, containerName);
+      if (saved.add(service.getName()) && !isApplied(actualEnv, env)) {
+        saveActualEnv(actualEnv, resilientService);
+      }
 
-      for (var variable : containerEnvs) {
+      for (var variable : actualEnv) {
         var newValue = env.get(variable.getName());
         if (newValue != null) {
           logger.info("deployment {} container {}. envVar {}={}",
-              deployment.get().getMetadata().getName(),
+              deployment.getMetadata().getName(),
               containerName,
               variable.getName(),
               newValue);
 
-          variable.setValue(newValue.asText());
+          plan.set(deployment, containerName, variable.getName(), newValue.asText());
         }
       }
-      updateVariablesDeployment(targetDeployment, containerName, containerEnvs);
     } else {
       logger.warn("Deployment not found for ResilientService {}", service.getName());
     }
   }
 
+  /**
+   * Plans the fault percentage of the scenario on the fault container of the service. It does not matter
+   * what was set in fault.provider, it is applied as env var of the envoy container.
+   */
+  public void applyServiceFault(Scenario scenario, ResilientService resilientService, DeploymentEnvPlan plan) {
+    var deployment = getDeployment(scenario, resilientService);
+    if (deployment != null) {
+      var containerName = resilientService.getSpec().getFaultContainerName();
+      plan.set(deployment, containerName, "FAULT_PERCENTAGE", String.valueOf(scenario.getSpec().getFault().getPercentage()));
+    } else {
+      logger.warn("Deployment not found for ResilientService {}", resilientService.getMetadata().getName());
+    }
+  }
+
   @Override
   protected void internalExecute(Scenario scenario, ExecutionQueue executionQueue) {
+    var plan = new DeploymentEnvPlan();
+    var saved = new HashSet<String>();
     for (var connector : scenario.getSpec().getConnectors()) {
-      applyServiceEnvironment(scenario, connector.getSource());
-      applyServiceEnvironment(scenario, connector.getDestination());
+      applyServiceEnvironment(scenario, connector.getSource(), plan, saved);
+      applyServiceEnvironment(scenario, connector.getDestination(), plan, saved);
+    }
+
+    var fault = scenario.getSpec().getFault();
+    if (fault != null) {
+      for (var service : fault.getServices()) {
+        var resilientService = resilientServiceRepository.get(scenario.getMetadata().getNamespace(), service);
+        applyServiceFault(scenario, resilientService, plan);
+      }
     }
+    apply(plan);
+  }
+
+  private static boolean isApplied(List<EnvVar> actualEnv, Map<String, JsonNode> env) {
+    return actualEnv.stream()
+            .filter(variable -> env.containsKey(variable.getName()))
+            .allMatch(variable -> env.get(variable.getName()).asText().equals(variable.getValue()));
   }
 
   private void saveActualEnv(List<EnvVar> deploymentVars, ResilientService resilientService) {
+    if (Objects.equals(deploymentVars, resilientService.getSpec().getEnvs())) {
+      return;
+    }
     resilientService.getSpec().setEnvs(deploymentVars);
     resilientServiceRepository.update(resilientService);
   }
@@ -1,5 +1,12 @@
 package io.resiliencebench.execution.steps;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import io.resiliencebench.resources.queue.ExecutionQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +18,8 @@ public abstract class ExecutorStep {
 
   private final static Logger logger = LoggerFactory.getLogger(ExecutorStep.class);
 
+  static final String STEP_DURATION_METRIC = "resiliencebench.step.duration";
+
   private final KubernetesClient kubernetesClient;
 
   public ExecutorStep(KubernetesClient kubernetesClient) {
@@ -23,14 +32,68 @@ public abstract class ExecutorStep {
 
   protected abstract boolean isApplicable(Scenario scenario);
 
+  /**
+   * What the step reads from the cluster. Steps reading what another step writes run after it.
+   */
+  public Set<StepResource> reads() {
+    return Set.of();
+  }
+
+  /**
+   * What the step changes in the cluster. Steps writing the same resource never run at the same time.
+   */
+  public Set<StepResource> writes() {
+    return Set.of();
+  }
+
   protected abstract void internalExecute(Scenario scenario, ExecutionQueue queue);
 
+  /**
+   * Runs the step without blocking the caller. By default {@link #internalExecute} runs on the executor;
+   * steps waiting on the cluster override it to be notified instead of holding a thread.
+   */
+  protected CompletionStage<Void> internalExecuteAsync(Scenario scenario, ExecutionQueue queue, Executor executor) {
+    return CompletableFuture.runAsync(() -> internalExecute(scenario, queue), executor);
+  }
+
   public void execute(Scenario scenario, ExecutionQueue queue) {
     if (isApplicable(scenario)) {
       logger.info("Executing step {}", this.getClass().getSimpleName());
-      internalExecute(scenario, queue);
+      var sample = Timer.start(Metrics.globalRegistry);
+      var outcome = "failure";
+      try {
+        internalExecute(scenario, queue);
+        outcome = "success";
+      } finally {
+        record(sample, outcome);
+      }
     } else {
       logger.info("Step {} is not applicable for scenario {}", this.getClass().getSimpleName(), scenario.getMetadata().getName());
     }
   }
+
+  public CompletionStage<Void> executeAsync(Scenario scenario, ExecutionQueue queue, Executor executor) {
+    if (isApplicable(scenario)) {
+      logger.info("Executing step {}", this.getClass().getSimpleName());
+      var sample = Timer.start(Metrics.globalRegistry);
+      CompletionStage<Void> stage;
+      try {
+        stage = internalExecuteAsync(scenario, queue, executor);
+      } catch (RuntimeException e) {
+        record(sample, "failure");
+        throw e;
+      }
+      return stage.whenComplete((ignored, error) -> record(sample, error == null ? "success" : "failure"));
+    } else {
+      logger.info("Step {} is not applicable for scenario {}", this.getClass().getSimpleName(), scenario.getMetadata().getName());
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  /**
+   * Records how long the step took, tagged by step and outcome, so the time of a scenario can be split by step.
+   */
+  private void record(Timer.Sample sample, String outcome) {
+    sample.stop(Metrics.timer(STEP_DURATION_METRIC, "step", getClass().getSimpleName(), "outcome", outcome));
+  }
 }
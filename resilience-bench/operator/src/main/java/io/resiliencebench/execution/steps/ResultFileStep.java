@@ -1,27 +1,30 @@
 package io.resiliencebench.execution.steps;
 
-import io.resiliencebench.execution.io.FileProvider;
-import io.resiliencebench.execution.io.FileProviderFactory;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.resiliencebench.execution.ExecutionTimeline;
+import io.resiliencebench.execution.ScenarioTracer;
+import io.resiliencebench.execution.io.ResultPublisher;
 import org.springframework.stereotype.Service;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.resiliencebench.resources.queue.ExecutionQueue;
 import io.resiliencebench.resources.scenario.Scenario;
-import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.Set;
+
 @Service
 public class ResultFileStep extends ExecutorStep {
 
-  private final static Logger logger = LoggerFactory.getLogger(ResultFileStep.class);
-
-  private final FileProvider fileProvider;
+  private final ResultPublisher resultPublisher;
+  private final ExecutionTimeline timeline;
+  private final ScenarioTracer scenarioTracer;
 
-  public ResultFileStep(KubernetesClient kubernetesClient, FileProviderFactory fileProviderFactory) {
+  public ResultFileStep(KubernetesClient kubernetesClient, ResultPublisher resultPublisher, ExecutionTimeline timeline,
+                        ScenarioTracer scenarioTracer) {
     super(kubernetesClient);
-    this.fileProvider = fileProviderFactory.create();
+    this.resultPublisher = resultPublisher;
+    this.timeline = timeline;
+    this.scenarioTracer = scenarioTracer;
   }
 
   @Override
@@ -29,40 +32,44 @@ public class ResultFileStep extends ExecutorStep {
     return true;
   }
 
+  @Override
+  public Set<StepResource> reads() {
+    return Set.of(StepResource.QUEUE);
+  }
+
+  @Override
+  public Set<StepResource> writes() {
+    return Set.of(StepResource.RESULTS);
+  }
+
+  /**
+   * Hands the result of the scenario to the publisher, which reads the results file of the scenario and
+   * writes its segment in the background. The result carries the timeline of the scenario recorded so far,
+   * and is published again with the final timeline once the post-execution steps ran and it was published.
+   */
   @Override
   protected void internalExecute(Scenario scenario, ExecutionQueue executionQueue) {
     var executionQueueItem = executionQueue.getItem(scenario.getMetadata().getName());
-    var currentResults = fileProvider.getFileAsString(executionQueueItem.getResultFile());
-    if (currentResults.isPresent()) {
-      var currentResultsJson = new JsonObject(currentResults.get());
-      currentResultsJson.put("scenario", scenario.getMetadata().getName());
+    var metadata = new JsonObject();
+    metadata.put("scenario", scenario.getMetadata().getName());
 
-      if (scenario.getSpec().getFault() != null) {
-        for (var json : scenario.getSpec().getFault().toJson()) {
-          currentResultsJson.put(json.getKey(), json.getValue());
-        }
+    if (scenario.getSpec().getFault() != null) {
+      for (var json : scenario.getSpec().getFault().toJson()) {
+        metadata.put(json.getKey(), json.getValue());
       }
-      currentResultsJson.put("workload_name", scenario.getSpec().getWorkload().getWorkloadName());
-      currentResultsJson.put("workload_users", scenario.getSpec().getWorkload().getUsers());
-
-      currentResultsJson.put("connectors", scenario.getSpec().toConnectorsInJson());
-      var resultsJson = getJsonResults(executionQueue);
-      resultsJson.getJsonArray("results").add(currentResultsJson);
-      fileProvider.writeToFile(executionQueue.getSpec().getResultFile(), resultsJson.encode(), "application/json");
-    } else {
-      logger.warn("No results found for {}", executionQueueItem.getResultFile());
     }
-  }
+    metadata.put("workload_name", scenario.getSpec().getWorkload().getWorkloadName());
+    metadata.put("workload_users", scenario.getSpec().getWorkload().getUsers());
 
-  public JsonObject getJsonResults(ExecutionQueue executionQueue) {
-    var results = fileProvider.getFileAsString(executionQueue.getSpec().getResultFile());
-    JsonObject resultsJson;
-    if (results.isPresent()) {
-      resultsJson = new JsonObject(results.get());
-    } else {
-      resultsJson = new JsonObject();
-      resultsJson.put("results", new JsonArray());
+    metadata.put("connectors", scenario.getSpec().toConnectorsInJson());
+    var scenarioName = scenario.getMetadata().getName();
+    metadata.put("timeline", timeline.toJson(executionQueue, scenarioName));
+    // the publication joins the trace of the scenario
+    try (var ignored = scenarioTracer.inScenario(executionQueue, scenarioName)) {
+      var publication = resultPublisher.publish(executionQueue, scenarioName, executionQueueItem.getResultFile(), metadata);
+      timeline.publishing(executionQueue, scenarioName, publication, finalTimeline ->
+              resultPublisher.publish(executionQueue, scenarioName, executionQueueItem.getResultFile(),
+                      metadata.copy().put("timeline", finalTimeline)));
     }
-    return resultsJson;
   }
 }
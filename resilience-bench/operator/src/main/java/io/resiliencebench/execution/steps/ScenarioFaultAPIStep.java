@@ -11,6 +11,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Set;
+
 import static io.resiliencebench.support.Annotations.*;
 
 @Service
@@ -31,6 +33,11 @@ import static io.resiliencebench.support.Annotations.*;
     return scenario.getSpec().getFault() != null;
   }
 
+  @Override
+  public Set<StepResource> writes() {
+    return Set.of(StepResource.ENVOY_RUNTIME);
+  }
+
   // Does not matter what was set in fault.provider. we'll apply it as env var of envoy container.
   @Override
   protected void internalExecute(Scenario scenario, ExecutionQueue queue) {
@@ -0,0 +1,100 @@
+package io.resiliencebench.execution.steps;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.scenario.Scenario;
+
+/**
+ * Runs steps as a dependency graph built from what each step reads and writes. A step waits for every
+ * step declared before it that writes something it reads or writes, or that reads something it writes.
+ * Steps without such a conflict run at the same time.
+ */
+class StepGraph {
+
+  private final List<ExecutorStep> steps;
+  private final List<Set<Integer>> dependencies;
+
+  StepGraph(List<ExecutorStep> steps) {
+    this.steps = List.copyOf(steps);
+    this.dependencies = new ArrayList<>();
+    for (int i = 0; i < steps.size(); i++) {
+      var step = steps.get(i);
+      var stepDependencies = new HashSet<Integer>();
+      for (int j = 0; j < i; j++) {
+        if (conflicts(steps.get(j), step)) {
+          stepDependencies.add(j);
+        }
+      }
+      dependencies.add(Collections.unmodifiableSet(stepDependencies));
+    }
+  }
+
+  private static boolean conflicts(ExecutorStep previous, ExecutorStep step) {
+    return intersects(previous.writes(), step.reads())
+            || intersects(previous.writes(), step.writes())
+            || intersects(previous.reads(), step.writes());
+  }
+
+  private static boolean intersects(Set<StepResource> a, Set<StepResource> b) {
+    return a.stream().anyMatch(b::contains);
+  }
+
+  List<ExecutorStep> getSteps() {
+    return steps;
+  }
+
+  /**
+   * The indexes of the steps the given step waits for.
+   */
+  Set<Integer> getDependencies(int step) {
+    return dependencies.get(step);
+  }
+
+  /**
+   * Runs every step once its dependencies completed. The returned stage completes when all steps did, or
+   * exceptionally when one of them failed; the steps depending on a failed step are not run.
+   */
+  CompletionStage<Void> run(Scenario scenario, ExecutionQueue queue, Executor executor) {
+    return run(scenario, queue, executor, StepListener.NONE);
+  }
+
+  /**
+   * Runs the steps as {@link #run(Scenario, ExecutionQueue, Executor)} does, and notifies the listener as
+   * every applicable step starts and completes, successfully or not.
+   */
+  CompletionStage<Void> run(Scenario scenario, ExecutionQueue queue, Executor executor, StepListener listener) {
+    var futures = new ArrayList<CompletableFuture<Void>>(steps.size());
+    for (int i = 0; i < steps.size(); i++) {
+      var step = steps.get(i);
+      var ready = CompletableFuture.allOf(dependencies.get(i).stream().map(futures::get).toArray(CompletableFuture[]::new));
+      futures.add(ready.thenComposeAsync(ignored -> timed(step, scenario, queue, executor, listener), executor));
+    }
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+  }
+
+  private static CompletionStage<Void> timed(ExecutorStep step, Scenario scenario, ExecutionQueue queue, Executor executor,
+                                             StepListener listener) {
+    if (!step.isApplicable(scenario)) {
+      return step.executeAsync(scenario, queue, executor);
+    }
+    listener.onStart(step);
+    var start = System.nanoTime();
+    CompletionStage<Void> stage;
+    try {
+      stage = step.executeAsync(scenario, queue, executor);
+    } catch (RuntimeException e) {
+      listener.onComplete(step, Duration.ofNanos(System.nanoTime() - start), e);
+      throw e;
+    }
+    return stage.whenComplete((ignored, error) -> listener.onComplete(step, Duration.ofNanos(System.nanoTime() - start), error));
+  }
+}
@@ -0,0 +1,21 @@
+package io.resiliencebench.execution.steps;
+
+import java.time.Duration;
+
+/**
+ * Notified as each applicable step of a graph starts and completes.
+ */
+public interface StepListener {
+
+  StepListener NONE = new StepListener() {
+  };
+
+  default void onStart(ExecutorStep step) {
+  }
+
+  /**
+   * Called once the step completed, with the time it took and the error it failed with, or null when it succeeded.
+   */
+  default void onComplete(ExecutorStep step, Duration duration, Throwable error) {
+  }
+}
@@ -1,55 +1,75 @@
 package io.resiliencebench.execution.steps;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
-import io.resiliencebench.execution.steps.istio.IstioCircuitBreakerStep;
+import io.resiliencebench.execution.steps.istio.IstioConfigurationStep;
 import io.resiliencebench.execution.steps.istio.IstioFaultStep;
-import io.resiliencebench.execution.steps.istio.IstioRetryStep;
-import io.resiliencebench.execution.steps.istio.IstioTimeoutStep;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.scenario.Scenario;
 
 import static java.util.List.of;
 
 @Component
 public class StepRegistry {
 
-  private final List<ExecutorStep> preparationSteps;
-  private final List<ExecutorStep> postExecutionSteps;
+  private final StepGraph preparationSteps;
+  private final StepGraph postExecutionSteps;
+  private final StepGraph failedPostExecutionSteps;
+  private final Executor stepExecutor;
 
-  public StepRegistry(UpdateStatusQueueStep updateStatusQueueStep,
+  public StepRegistry(@Qualifier("stepExecutor") Executor stepExecutor,
+                      UpdateStatusQueueStep updateStatusQueueStep,
                       ResultFileStep resultFileStep,
-                      IstioCircuitBreakerStep istioCircuitBreakerStep,
-                      IstioRetryStep istioRetryStep,
-                      IstioTimeoutStep istioTimeoutStep,
+                      IstioConfigurationStep istioConfigurationStep,
                       IstioFaultStep istioFaultStep,
                       EnvironmentStep environmentStep,
                       EnvironmentPostStep environmentPostStep,
                       ApplicationReadinessStep applicationReadinessStep,
-                      ScenarioFaultEnvVarStep scenarioFaultEnvVarStep,
                       ScenarioFaultAPIStep scenarioFaultAPIStep) {
+    this.stepExecutor = stepExecutor;
 
-    preparationSteps = of(
+    // steps run as soon as the steps declared before them touching the same resources finish
+    preparationSteps = new StepGraph(of(
             updateStatusQueueStep,
-            istioRetryStep,
-            istioCircuitBreakerStep,
-            istioTimeoutStep,
+            istioConfigurationStep,
             istioFaultStep,
             environmentStep,
-            applicationReadinessStep,
-            scenarioFaultEnvVarStep,
-            applicationReadinessStep);
-    postExecutionSteps = of(
-            updateStatusQueueStep,
+            applicationReadinessStep));
+    postExecutionSteps = new StepGraph(of(
+            updateStatusQueueStep.finishing(false),
+            resultFileStep,
+            environmentPostStep));
+    failedPostExecutionSteps = new StepGraph(of(
+            updateStatusQueueStep.finishing(true),
             resultFileStep,
-            environmentPostStep);
+            environmentPostStep));
   }
 
   public List<ExecutorStep> getPostExecutionSteps() {
-    return postExecutionSteps;
+    return postExecutionSteps.getSteps();
   }
 
   public List<ExecutorStep> getPreparationSteps() {
-    return preparationSteps;
+    return preparationSteps.getSteps();
+  }
+
+  /**
+   * Runs the preparation steps, notifying the listener as each of them starts and completes.
+   */
+  public CompletionStage<Void> runPreparationSteps(Scenario scenario, ExecutionQueue queue, StepListener listener) {
+    return preparationSteps.run(scenario, queue, stepExecutor, listener);
+  }
+
+  /**
+   * Runs the post-execution steps, notifying the listener as each of them starts and completes. The item
+   * of the scenario is recorded as failed when the scenario failed.
+   */
+  public CompletionStage<Void> runPostExecutionSteps(Scenario scenario, ExecutionQueue queue, boolean failed, StepListener listener) {
+    return (failed ? failedPostExecutionSteps : postExecutionSteps).run(scenario, queue, stepExecutor, listener);
   }
 }
@@ -0,0 +1,14 @@
+package io.resiliencebench.execution.steps;
+
+/**
+ * Cluster state read or written by the steps. Used by {@link StepGraph} to find out which steps can run
+ * at the same time.
+ */
+public enum StepResource {
+  QUEUE,
+  RESULTS,
+  VIRTUAL_SERVICE,
+  DESTINATION_RULE,
+  DEPLOYMENT_ENV,
+  ENVOY_RUNTIME
+}
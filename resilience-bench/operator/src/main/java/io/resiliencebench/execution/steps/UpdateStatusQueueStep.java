@@ -2,14 +2,22 @@ package io.resiliencebench.execution.steps;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
-import io.github.resilience4j.retry.Retry;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
 import io.github.resilience4j.retry.RetryConfig;
+import io.resiliencebench.resources.Phase;
 import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItemStatus;
 import io.resiliencebench.resources.scenario.Scenario;
 import io.resiliencebench.support.CustomResourceRepository;
+import io.resiliencebench.support.Retries;
 import io.resiliencebench.execution.BenchmarkStatusUpdater;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.Set;
+
 import static java.time.Duration.ofSeconds;
 
 @Service
@@ -30,7 +38,7 @@ public class UpdateStatusQueueStep extends ExecutorStep {
             .custom()
             .retryExceptions(KubernetesClientException.class)
             .waitDuration(ofSeconds(1))
-            .maxAttempts(3)
+            .maxAttempts(5)
             .build();
   }
 
@@ -39,36 +47,107 @@ public class UpdateStatusQueueStep extends ExecutorStep {
     return true;
   }
 
-  private void updateQueueItem(String queueName, String scenarioName, String namespace) {
+  @Override
+  public Set<StepResource> writes() {
+    return Set.of(StepResource.QUEUE);
+  }
+
+  /**
+   * The step recording the end of the item of a scenario in the post-execution steps, as failed when the
+   * scenario failed. Items are finished from any unfinished phase, so an item whose preparation failed
+   * before it was marked as running does not stay pending.
+   */
+  public ExecutorStep finishing(boolean failed) {
+    return new FinishQueueItemStep(failed);
+  }
+
+  /**
+   * Records the new phase of the item in its own item status, patched alone so items running and finishing
+   * in parallel do not conflict with each other. The patch applies only if the item is still in the phase
+   * it was read in.
+   */
+  private Optional<ExecutionQueueItemStatus> updateQueueItem(String queueName, String scenarioName, String namespace,
+                                                             String executionNamespace, String phase) {
     var queue = executionRepository.get(namespace, queueName);
-    var queueItem = queue.getItem(scenarioName);
-    if (queueItem.isRunning()) {
-      queueItem.markAsCompleted();
-    } else if (queueItem.isPending()) {
-      queueItem.markAsRunning();
+    var position = queue.indexOf(scenarioName);
+    if (position < 0) {
+      throw new IllegalStateException("Scenario " + scenarioName + " not found in queue " + queueName);
+    }
+    var queueItem = queue.getItems().get(position);
+    var previous = queue.getItemStatus(position);
+    var itemStatus = previous.map(ExecutionQueueItemStatus::new).orElseGet(ExecutionQueueItemStatus::new);
+    if (Phase.RUNNING.equals(phase) && queueItem.isPending()) {
+      itemStatus.markAsRunning(executionNamespace);
+    } else if (Phase.COMPLETED.equals(phase) && (queueItem.isPending() || queueItem.isRunning())) {
+      itemStatus.markAsCompleted();
+    } else if (Phase.FAILED.equals(phase) && (queueItem.isPending() || queueItem.isRunning())) {
+      itemStatus.markAsFailed(executionNamespace);
+    } else {
+      return Optional.empty();
     }
 
     queue.getMetadata().setNamespace(namespace);
-    executionRepository.update(queue);
+    if (queue.getStatus() == null || queue.getStatus().getItems() == null) {
+      // merging an empty map keeps the items other workers may have added meanwhile
+      executionRepository.patchStatus(queue, PatchType.JSON_MERGE, new JsonObject().put("status", new JsonObject().put("items", new JsonObject())).encode());
+    }
+    var path = "/status/items/" + position;
+    var patch = new JsonArray();
+    previous.ifPresent(status -> patch.add(new JsonObject().put("op", "test").put("path", path + "/phase").put("value", status.getPhase())));
+    patch.add(new JsonObject().put("op", "add").put("path", path).put("value", JsonObject.mapFrom(itemStatus)));
+    executionRepository.patchStatus(queue, PatchType.JSON, patch.encode());
+    return Optional.of(itemStatus);
   }
 
+  /**
+   * Marks the item of the scenario as running.
+   */
   @Override
   public void internalExecute(Scenario scenario, ExecutionQueue executionQueue) {
+    update(scenario, executionQueue, Phase.RUNNING);
+  }
+
+  private void update(Scenario scenario, ExecutionQueue executionQueue, String phase) {
     var benchmarkName = executionQueue.getMetadata().getName();
     var scenarioName = scenario.getMetadata().getName();
-    var namespace = scenario.getMetadata().getNamespace();
-    Retry.of("updateQueueItem", retryConfig)
-            .executeRunnable(() -> updateStatus(benchmarkName, scenarioName, namespace));
+    var namespace = executionQueue.getMetadata().getNamespace();
+    var executionNamespace = scenario.getMetadata().getNamespace();
+    Retries.of("updateQueueItem", retryConfig)
+            .executeRunnable(() -> updateStatus(benchmarkName, scenarioName, namespace, executionNamespace, phase));
   }
 
-  private void updateStatus(String benchmarkName, String scenarioName, String namespace) {
-    updateQueueItem(benchmarkName, scenarioName, namespace);
-    var queue = executionRepository.get(namespace, benchmarkName);
-    var queueItem = queue.getItem(scenarioName);
-    if (queueItem.isRunning()) {
+  private void updateStatus(String benchmarkName, String scenarioName, String namespace, String executionNamespace, String phase) {
+    updateQueueItem(benchmarkName, scenarioName, namespace, executionNamespace, phase).ifPresent(itemStatus -> {
+      if (Phase.RUNNING.equals(itemStatus.getPhase())) {
         statusUpdater.markScenarioAsStarted(namespace, benchmarkName, scenarioName);
-    } else if (queueItem.isFinished()) {
+      } else {
         statusUpdater.markScenarioAsCompleted(namespace, benchmarkName, scenarioName);
+      }
+    });
+  }
+
+  private class FinishQueueItemStep extends ExecutorStep {
+
+    private final String phase;
+
+    FinishQueueItemStep(boolean failed) {
+      super(UpdateStatusQueueStep.this.kubernetesClient());
+      this.phase = failed ? Phase.FAILED : Phase.COMPLETED;
+    }
+
+    @Override
+    protected boolean isApplicable(Scenario scenario) {
+      return true;
+    }
+
+    @Override
+    public Set<StepResource> writes() {
+      return UpdateStatusQueueStep.this.writes();
+    }
+
+    @Override
+    protected void internalExecute(Scenario scenario, ExecutionQueue executionQueue) {
+      update(scenario, executionQueue, phase);
     }
   }
 }
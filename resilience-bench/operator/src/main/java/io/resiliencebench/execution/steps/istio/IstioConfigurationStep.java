@@ -0,0 +1,180 @@
+package io.resiliencebench.execution.steps.istio;
+
+import io.fabric8.istio.api.networking.v1beta1.ConnectionPoolSettings;
+import io.fabric8.istio.api.networking.v1beta1.ConnectionPoolSettingsHTTPSettings;
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
+import io.fabric8.istio.api.networking.v1beta1.HTTPRetry;
+import io.fabric8.istio.api.networking.v1beta1.OutlierDetection;
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.istio.client.IstioClient;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.resiliencebench.execution.steps.StepResource;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.scenario.Connector;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.service.ResilientService;
+import io.resiliencebench.support.CustomResourceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+
+/**
+ * Configures the retry, timeout and circuit breaker of every connector of the scenario. The changes on
+ * each virtual service and destination rule are accumulated in an {@link IstioPatch} and written with a
+ * single server-side apply, so connectors sharing an object neither overwrite nor conflict with each other.
+ * The destinations of connectors without policies are reset too, so no policy of a previous scenario is
+ * left on them.
+ */
+@Service
+public class IstioConfigurationStep extends IstioExecutorStep {
+
+  private final static Logger logger = LoggerFactory.getLogger(IstioConfigurationStep.class);
+
+  static final String FIELD_MANAGER = "resiliencebench-operator";
+
+  public IstioConfigurationStep(KubernetesClient kubernetesClient, IstioClient istioClient, CustomResourceRepository<ResilientService> serviceRepository) {
+    super(kubernetesClient, istioClient, serviceRepository);
+  }
+
+  @Override
+  protected boolean isApplicable(Scenario scenario) {
+    return !scenario.getSpec().getConnectors().isEmpty();
+  }
+
+  @Override
+  public Set<StepResource> writes() {
+    return Set.of(StepResource.VIRTUAL_SERVICE, StepResource.DESTINATION_RULE);
+  }
+
+  @Override
+  protected void internalExecute(Scenario scenario, ExecutionQueue queue) {
+    var patch = plan(scenario);
+    patch.getVirtualServices().forEach(this::apply);
+    patch.getDestinationRules().forEach(this::apply);
+  }
+
+  public IstioPatch plan(Scenario scenario) {
+    var namespace = scenario.getMetadata().getNamespace();
+    var patch = new IstioPatch(
+            name -> findVirtualService(namespace, name),
+            name -> findDestinationRule(namespace, name));
+
+    for (var connector : scenario.getSpec().getConnectors()) {
+      patch.reset(connector.getDestination().getName());
+      if (connector.getIstio() != null) {
+        configureDestination(patch, connector);
+      }
+    }
+    return patch;
+  }
+
+  private void configureDestination(IstioPatch patch, Connector connector) {
+    var destination = connector.getDestination().getName();
+    var istio = connector.getIstio();
+
+    if (!istio.getRetry().isEmpty()) {
+      createRetryPolicy(istio.getRetry()).ifPresent(retry -> patch.withRetry(destination, retry));
+    }
+    if (!istio.getTimeout().isEmpty()) {
+      createTimeoutPolicy(istio.getTimeout()).ifPresent(timeout -> patch.withTimeout(destination, timeout));
+    }
+    if (!istio.getCircuitBreaker().isEmpty()) {
+      var circuitBreaker = istio.getCircuitBreaker();
+      patch.withCircuitBreaker(destination,
+              createConnectionPool(circuitBreaker).orElse(null),
+              createOutlierDetection(circuitBreaker).orElse(null));
+    }
+  }
+
+  private void apply(VirtualService virtualService) {
+    clearServerFields(virtualService);
+    istioClient()
+            .v1beta1()
+            .virtualServices()
+            .inNamespace(virtualService.getMetadata().getNamespace())
+            .resource(virtualService)
+            .fieldManager(FIELD_MANAGER)
+            .forceConflicts()
+            .serverSideApply();
+  }
+
+  private void apply(DestinationRule destinationRule) {
+    clearServerFields(destinationRule);
+    istioClient()
+            .v1beta1()
+            .destinationRules()
+            .inNamespace(destinationRule.getMetadata().getNamespace())
+            .resource(destinationRule)
+            .fieldManager(FIELD_MANAGER)
+            .forceConflicts()
+            .serverSideApply();
+  }
+
+  private static void clearServerFields(HasMetadata resource) {
+    resource.getMetadata().setResourceVersion(null);
+    resource.getMetadata().setManagedFields(null);
+  }
+
+  public Optional<HTTPRetry> createRetryPolicy(Map<String, Object> patternConfig) {
+    var httpRetry = new HTTPRetry();
+    var attempts = (Integer) patternConfig.get("attempts");
+    var perTryTimeout = (Integer) patternConfig.get("perTryTimeout");
+    if (attempts != null && attempts >= 0) {
+      httpRetry.setAttempts(attempts);
+      if (perTryTimeout != null && perTryTimeout > 0) {
+        httpRetry.setPerTryTimeout(perTryTimeout + "ms");
+      } else {
+        logger.warn("perTryTimeout must be greater than or equal to 0.");
+      }
+      return of(httpRetry);
+    } else {
+      logger.error("Retry not configured. Attempts and perTryTimeout are required for retry pattern configuration.");
+      return empty();
+    }
+  }
+
+  public Optional<String> createTimeoutPolicy(Map<String, Object> patternConfig) {
+    var timeout = (Integer) patternConfig.get("timeout");
+    if (timeout != null && timeout >= 0) {
+      return of(timeout + "ms");
+    } else {
+      logger.error("Timeout not configured. The timeout is required for timeout pattern configuration.");
+      return empty();
+    }
+  }
+
+  public Optional<ConnectionPoolSettings> createConnectionPool(Map<String, Object> patternConfig) {
+    var maxPendingRequests = (Integer) patternConfig.get("http1MaxPendingRequests");
+    if (maxPendingRequests == null) {
+      return empty();
+    }
+    var http = new ConnectionPoolSettingsHTTPSettings();
+    http.setHttp1MaxPendingRequests(maxPendingRequests);
+    return of(new ConnectionPoolSettings(http, null));
+  }
+
+  public Optional<OutlierDetection> createOutlierDetection(Map<String, Object> patternConfig) {
+    var consecutive5xxErrors = (Integer) patternConfig.get("consecutive5xxErrors");
+    if (consecutive5xxErrors == null) {
+      return empty();
+    }
+    var outlierDetection = new OutlierDetection();
+    outlierDetection.setConsecutive5xxErrors(consecutive5xxErrors);
+    if (patternConfig.get("interval") != null) {
+      outlierDetection.setInterval(patternConfig.get("interval").toString());
+    }
+    if (patternConfig.get("baseEjectionTime") != null) {
+      outlierDetection.setBaseEjectionTime(patternConfig.get("baseEjectionTime").toString());
+    }
+    outlierDetection.setMaxEjectionPercent((Integer) patternConfig.get("maxEjectionPercent"));
+    return of(outlierDetection);
+  }
+}
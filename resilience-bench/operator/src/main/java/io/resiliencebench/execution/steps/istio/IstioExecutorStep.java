@@ -1,14 +1,15 @@
 package io.resiliencebench.execution.steps.istio;
 
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
 import io.fabric8.istio.api.networking.v1beta1.VirtualService;
 import io.fabric8.istio.client.IstioClient;
-import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.resiliencebench.execution.steps.ExecutorStep;
 import io.resiliencebench.resources.service.ResilientService;
 import io.resiliencebench.support.CustomResourceRepository;
 import org.springframework.stereotype.Service;
 
+import static io.resiliencebench.support.Annotations.DESTINATION_RULE;
 import static io.resiliencebench.support.Annotations.VIRTUAL_SERVICE;
 import static java.lang.String.format;
 
@@ -40,6 +41,9 @@ public abstract class IstioExecutorStep extends ExecutorStep {
 
     if (targetService.isPresent()) {
       var virtualServiceName = targetService.get().getMetadata().getAnnotations().get(VIRTUAL_SERVICE);
+      if (virtualServiceName == null) {
+        return null;
+      }
       return istioClient
               .v1beta1()
               .virtualServices()
@@ -50,4 +54,23 @@ public abstract class IstioExecutorStep extends ExecutorStep {
       throw new RuntimeException(format("Service not found: %s.%s", namespace, name));
     }
   }
+
+  public DestinationRule findDestinationRule(String namespace, String name) {
+    var targetService = getServiceRepository().find(namespace, name);
+
+    if (targetService.isPresent()) {
+      var destinationRuleName = targetService.get().getMetadata().getAnnotations().get(DESTINATION_RULE);
+      if (destinationRuleName == null) {
+        return null;
+      }
+      return istioClient
+              .v1beta1()
+              .destinationRules()
+              .inNamespace(namespace)
+              .withName(destinationRuleName)
+              .get();
+    } else {
+      throw new RuntimeException(format("Service not found: %s.%s", namespace, name));
+    }
+  }
 }
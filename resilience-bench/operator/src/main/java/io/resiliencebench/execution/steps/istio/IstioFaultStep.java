@@ -3,6 +3,7 @@ package io.resiliencebench.execution.steps.istio;
 import io.fabric8.istio.api.networking.v1beta1.HTTPFaultInjection;
 import io.fabric8.istio.client.IstioClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.resiliencebench.execution.steps.StepResource;
 import io.resiliencebench.resources.queue.ExecutionQueue;
 import io.resiliencebench.resources.scenario.Connector;
 import io.resiliencebench.resources.scenario.Fault;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class IstioFaultStep extends IstioExecutorStep {
@@ -29,6 +31,11 @@ public class IstioFaultStep extends IstioExecutorStep {
     return false;
   }
 
+  @Override
+  public Set<StepResource> writes() {
+    return Set.of(StepResource.VIRTUAL_SERVICE);
+  }
+
   @Override
   public void internalExecute(Scenario scenario, ExecutionQueue executionQueue) {
     for (var connector : scenario.getSpec().getConnectors()) {
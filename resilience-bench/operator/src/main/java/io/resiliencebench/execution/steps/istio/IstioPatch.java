@@ -0,0 +1,133 @@
+package io.resiliencebench.execution.steps.istio;
+
+import io.fabric8.istio.api.networking.v1beta1.ConnectionPoolSettings;
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
+import io.fabric8.istio.api.networking.v1beta1.HTTPRetry;
+import io.fabric8.istio.api.networking.v1beta1.HTTPRoute;
+import io.fabric8.istio.api.networking.v1beta1.OutlierDetection;
+import io.fabric8.istio.api.networking.v1beta1.TrafficPolicy;
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Accumulates the changes a scenario makes on the virtual services and destination rules of its
+ * destination services. Each object is fetched once, even when several destinations share it, and
+ * every change is made on that copy, so the whole configuration is written with one request per object.
+ * The policies left by the previous scenario are cleared when an object is fetched, and {@link #reset}
+ * fetches the objects of destinations the scenario sets no policy on, so those are cleared as well.
+ */
+public class IstioPatch {
+
+  private final Function<String, VirtualService> virtualServiceFinder;
+  private final Function<String, DestinationRule> destinationRuleFinder;
+
+  private final Map<String, VirtualService> virtualServicesByDestination = new HashMap<>();
+  private final Map<String, DestinationRule> destinationRulesByDestination = new HashMap<>();
+  private final Map<String, VirtualService> virtualServices = new LinkedHashMap<>();
+  private final Map<String, DestinationRule> destinationRules = new LinkedHashMap<>();
+
+  public IstioPatch(Function<String, VirtualService> virtualServiceFinder,
+                    Function<String, DestinationRule> destinationRuleFinder) {
+    this.virtualServiceFinder = virtualServiceFinder;
+    this.destinationRuleFinder = destinationRuleFinder;
+  }
+
+  /**
+   * Clears the policies of the virtual service and destination rule of the destination, if it has them.
+   */
+  public IstioPatch reset(String destination) {
+    find(virtualServicesByDestination, virtualServices, virtualServiceFinder, destination, IstioPatch::resetRoute);
+    find(destinationRulesByDestination, destinationRules, destinationRuleFinder, destination, IstioPatch::resetTrafficPolicy);
+    return this;
+  }
+
+  public IstioPatch withRetry(String destination, HTTPRetry retry) {
+    route(destination).setRetries(retry);
+    return this;
+  }
+
+  public IstioPatch withTimeout(String destination, String timeout) {
+    route(destination).setTimeout(timeout);
+    return this;
+  }
+
+  public IstioPatch withCircuitBreaker(String destination, ConnectionPoolSettings connectionPool, OutlierDetection outlierDetection) {
+    var trafficPolicy = trafficPolicy(destination);
+    trafficPolicy.setConnectionPool(connectionPool);
+    trafficPolicy.setOutlierDetection(outlierDetection);
+    return this;
+  }
+
+  public List<VirtualService> getVirtualServices() {
+    return new ArrayList<>(virtualServices.values());
+  }
+
+  public List<DestinationRule> getDestinationRules() {
+    return new ArrayList<>(destinationRules.values());
+  }
+
+  private HTTPRoute route(String destination) {
+    var virtualService = find(virtualServicesByDestination, virtualServices, virtualServiceFinder, destination, IstioPatch::resetRoute);
+    if (virtualService == null) {
+      throw new RuntimeException(format("Virtual service not found for service %s", destination));
+    }
+    return virtualService.getSpec().getHttp().get(0);
+  }
+
+  private TrafficPolicy trafficPolicy(String destination) {
+    var destinationRule = find(destinationRulesByDestination, destinationRules, destinationRuleFinder, destination, IstioPatch::resetTrafficPolicy);
+    if (destinationRule == null) {
+      throw new RuntimeException(format("Destination rule not found for service %s", destination));
+    }
+    return destinationRule.getSpec().getTrafficPolicy();
+  }
+
+  private static void resetRoute(VirtualService virtualService) {
+    var http = virtualService.getSpec().getHttp();
+    if (http == null || http.isEmpty()) {
+      throw new RuntimeException(format("Virtual service %s has no http route", virtualService.getMetadata().getName()));
+    }
+    http.get(0).setRetries(null);
+    http.get(0).setTimeout(null);
+  }
+
+  private static void resetTrafficPolicy(DestinationRule destinationRule) {
+    if (destinationRule.getSpec().getTrafficPolicy() == null) {
+      destinationRule.getSpec().setTrafficPolicy(new TrafficPolicy());
+    }
+    destinationRule.getSpec().getTrafficPolicy().setConnectionPool(null);
+    destinationRule.getSpec().getTrafficPolicy().setOutlierDetection(null);
+  }
+
+  /**
+   * Fetches the object of the destination once, or returns null when the destination has none. Returns the
+   * copy already being changed when another destination resolved to the same object.
+   */
+  private static <T extends HasMetadata> T find(Map<String, T> byDestination,
+                                                Map<String, T> objects,
+                                                Function<String, T> finder,
+                                                String destination,
+                                                Consumer<T> reset) {
+    return byDestination.computeIfAbsent(destination, name -> {
+      var found = finder.apply(name);
+      if (found == null) {
+        return null;
+      }
+      var key = found.getMetadata().getNamespace() + "/" + found.getMetadata().getName();
+      return objects.computeIfAbsent(key, k -> {
+        reset.accept(found);
+        return found;
+      });
+    });
+  }
+}
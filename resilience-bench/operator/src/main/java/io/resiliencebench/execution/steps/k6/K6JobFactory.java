@@ -18,6 +18,11 @@ import static io.resiliencebench.support.Annotations.*;
 @Service
 public class K6JobFactory {
 
+  public static final String APP_LABEL = "app";
+  public static final String APP_NAME = "k6";
+  public static final String CREATOR = "resiliencebench-operator";
+  public static final String CONTAINER_NAME = "k6";
+
   public K6JobFactory() {
   }
 
@@ -46,8 +51,8 @@ public class K6JobFactory {
     return new ObjectMetaBuilder()
             .withName(workload.getMetadata().getName() + "-" + scenario.getMetadata().getName())
             .withNamespace(workload.getMetadata().getNamespace())
-            .withLabels(Map.of("app", "k6"))
-            .addToAnnotations(CREATED_BY, "resiliencebench-operator")
+            .withLabels(Map.of(APP_LABEL, APP_NAME))
+            .addToAnnotations(CREATED_BY, CREATOR)
             .addToAnnotations(SCENARIO, scenario.getMetadata().getName())
             .addToAnnotations(WORKLOAD, workload.getMetadata().getName())
             .build();
@@ -66,7 +71,7 @@ public class K6JobFactory {
 
   public Container createK6Container(ScenarioWorkload scenarioWorkload, Workload workload, ExecutionQueueItem executionQueueItem) {
     var container = new ContainerBuilder()
-            .withName("k6")
+            .withName(CONTAINER_NAME)
             .withImage(workload.getSpec().getK6ContainerImage())
             .withCommand("k6", "run", "/scripts/k6.js")
             .withImagePullPolicy("IfNotPresent")
@@ -3,42 +3,122 @@ package io.resiliencebench.resources;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
 
+import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.resiliencebench.resources.benchmark.Benchmark;
+import io.resiliencebench.resources.queue.CompactItems;
 import io.resiliencebench.resources.queue.ExecutionQueue;
 import io.resiliencebench.resources.queue.ExecutionQueueSpec;
 import io.resiliencebench.resources.queue.ExecutionQueueItem;
 import io.resiliencebench.resources.scenario.Scenario;
 import static io.resiliencebench.support.Annotations.OWNED_BY;
+import static java.util.Objects.requireNonNullElse;
 
 public class ExecutionQueueFactory {
 
+  /**
+   * Benchmarks with more scenarios than this get a queue of compact items, keeping the queue well below
+   * the size limit of Kubernetes objects.
+   */
+  public static final int COMPACT_ITEMS_THRESHOLD = 1000;
+
   public ExecutionQueueFactory() {
     throw new IllegalStateException("Utility class");
   }
 
   public static ExecutionQueue create(Benchmark benchmark, List<Scenario> scenarios) {
-    var meta = new ObjectMetaBuilder()
-            .withNamespace(benchmark.getMetadata().getNamespace())
-            .addToAnnotations(OWNED_BY, benchmark.getMetadata().getNamespace())
-            .withName(benchmark.getMetadata().getName())
-            .build();
+    return create(benchmark, scenarios, List.of());
+  }
 
+  public static ExecutionQueue create(Benchmark benchmark, List<Scenario> scenarios, List<String> namespaces) {
     var now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss"));
     var itemResultsFile = Paths.get(now, "%s.json").toString();
 
-    var items = scenarios.stream().map(s -> new ExecutionQueueItem(
+    var items = ScenarioOrdering.order(benchmark.getSpec().getOrdering(), scenarios).stream().map(s -> new ExecutionQueueItem(
             s.getMetadata().getName(), itemResultsFile.formatted(s.getMetadata().getName()))
     ).toList();
+    return create(benchmark, now, items, namespaces);
+  }
+
+  /**
+   * Creates the queue of all the scenarios of the space without holding them in memory. Each item keeps
+   * the position of its scenario, so the scenario can be generated again when it is about to run.
+   */
+  public static ExecutionQueue create(Benchmark benchmark, ScenarioSpace space, List<String> namespaces) {
+    var now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss"));
+    var itemResultsFile = Paths.get(now, "%s.json").toString();
+
+    var order = ScenarioOrdering.order(benchmark.getSpec().getOrdering(), space);
+    if (space.size() > COMPACT_ITEMS_THRESHOLD) {
+      var spec = new ExecutionQueueSpec(
+              Paths.get(now,  "results.json").toString(),
+              new CompactItems(space.getDimensions(), order.iterator(), itemResultsFile),
+              benchmark.getMetadata().getName(),
+              parallelism(benchmark, namespaces),
+              namespaces.isEmpty() ? null : namespaces
+      );
+      return new ExecutionQueue(spec, meta(benchmark));
+    }
+    var items = order.mapToObj(index -> {
+      var name = space.get(index).getMetadata().getName();
+      return new ExecutionQueueItem(name, itemResultsFile.formatted(name), index);
+    }).toList();
+    return create(benchmark, now, items, namespaces);
+  }
+
+  /**
+   * Keeps in the items of a queue created by hand the position of their scenario in the space, so the
+   * scenarios can be generated when they are about to run. Returns whether any item was changed.
+   */
+  public static boolean locate(ExecutionQueue queue, ScenarioSpace space) {
+    var items = new HashMap<String, ExecutionQueueItem>();
+    queue.getSpec().getItems().stream()
+            .filter(item -> item.getIndex() == null)
+            .forEach(item -> items.put(item.getScenario(), item));
+    if (items.isEmpty()) {
+      return false;
+    }
+    var changed = false;
+    var index = 0L;
+    for (var scenario : space) {
+      var item = items.remove(scenario.getMetadata().getName());
+      if (item != null) {
+        item.setIndex(index);
+        changed = true;
+      }
+      if (items.isEmpty()) {
+        break;
+      }
+      index++;
+    }
+    return changed;
+  }
+
+  private static ExecutionQueue create(Benchmark benchmark, String now, List<ExecutionQueueItem> items, List<String> namespaces) {
     var spec = new ExecutionQueueSpec(
             Paths.get(now,  "results.json").toString(),
             items,
-            benchmark.getMetadata().getNamespace()
+            benchmark.getMetadata().getName(),
+            parallelism(benchmark, namespaces),
+            namespaces.isEmpty() ? null : namespaces
     );
 
-    var queue = new ExecutionQueue(spec, meta);
+    var queue = new ExecutionQueue(spec, meta(benchmark));
     return queue;
   }
+
+  private static ObjectMeta meta(Benchmark benchmark) {
+    return new ObjectMetaBuilder()
+            .withNamespace(benchmark.getMetadata().getNamespace())
+            .addToAnnotations(OWNED_BY, benchmark.getMetadata().getName())
+            .withName(benchmark.getMetadata().getName())
+            .build();
+  }
+
+  private static int parallelism(Benchmark benchmark, List<String> namespaces) {
+    return Math.max(requireNonNullElse(benchmark.getSpec().getParallelism(), 1), namespaces.size());
+  }
 }
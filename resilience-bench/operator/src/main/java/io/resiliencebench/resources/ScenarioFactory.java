@@ -63,7 +63,7 @@ public final class ScenarioFactory {
     return result;
   }
 
-  private static List<Connector> expandConnector(ConnectorTemplate connectorTemplate) {
+  static List<Connector> expandConnector(ConnectorTemplate connectorTemplate) {
     List<Connector> expandedConnectors = new ArrayList<>();
 
     var sources = expandService(connectorTemplate.getSource());
@@ -99,78 +99,11 @@ public final class ScenarioFactory {
     return expandedConnectors;
   }
 
-  private static <T> void generateCombinationsRecursive(List<List<T>> listOfLists, int depth, List<T> currentCombination, List<List<T>> result) {
-    if (depth == listOfLists.size()) {
-      result.add(new ArrayList<>(currentCombination));
-      return;
-    }
-
-    for (T element : listOfLists.get(depth)) {
-      currentCombination.add(element);
-      generateCombinationsRecursive(listOfLists, depth + 1, currentCombination, result);
-      currentCombination.remove(currentCombination.size() - 1);
-    }
-  }
-
   public static List<Scenario> create(Benchmark benchmark, Workload workload) {
-    List<Scenario> executions = new ArrayList<>();
-
-    for (var scenarioTemplate : benchmark.getSpec().getScenarios()) {
-      var expandedConnectors = new ArrayList<List<Connector>>();
-      for (var connectorTemplate : scenarioTemplate.getConnectors()) {
-        expandedConnectors.add(expandConnector(connectorTemplate));
-      }
-
-      var expandedConnectorsCombined = new ArrayList<List<Connector>>();
-      generateCombinationsRecursive(expandedConnectors, 0, new ArrayList<>(), expandedConnectorsCombined);
-
-      var workloadUsers = workload.getSpec().getUsers();
-      var workloadName = workload.getMetadata().getName();
-
-      var faultPercentages = List.<Integer>of();
-
-      if (scenarioTemplate.getFault() != null) {
-        faultPercentages = scenarioTemplate.getFault().getPercentages();
-      }
-
-      for (var workloadUser : workloadUsers) {
-        for (int i = 0; i < expandedConnectorsCombined.size(); i++) {
-          for (int j = 0; j < Math.max(1, faultPercentages.size()); j++) {
-            var connectors = expandedConnectorsCombined.get(i);
-            var scenarioNameBuilder = new StringBuilder();
-            scenarioNameBuilder.append(scenarioTemplate.getName()).append("-").append(workloadUser).append("vu");
-            ScenarioFault scenarioFault = null;
-            if (scenarioTemplate.getFault() != null) {
-              scenarioFault = new ScenarioFault(
-                      scenarioTemplate.getFault().getProvider(),
-                      faultPercentages.get(j),
-                      scenarioTemplate.getFault().getServices()
-              );
-              scenarioNameBuilder.append("-").append(faultPercentages.get(j)).append("f");
-            }
-            var scenarioName = generateScenarioName(scenarioNameBuilder.toString(), i + 1);
-            var spec = new ScenarioSpec(
-                    scenarioName,
-                    new ScenarioWorkload(workloadName, workloadUser),
-                    connectors,
-                    scenarioFault);
-            var scenario = new Scenario();
-            scenario.setSpec(spec);
-            scenario.setMetadata(createMeta(scenarioName, benchmark));
-            executions.add(scenario);
-          }
-        }
-      }
-    }
-
-    return executions;
-  }
-
-  private static String generateScenarioName(String scenarioName, int index) {
-    return scenarioName + "-" + "00000".substring(("" + index).length()) + index;
+    return new ScenarioSpace(benchmark, workload).stream().toList();
   }
 
-  private static ObjectMeta createMeta(String name, Benchmark benchmark) {
+  static ObjectMeta createMeta(String name, Benchmark benchmark) {
     return new ObjectMetaBuilder()
             .withName(name)
             .withNamespace(benchmark.getMetadata().getNamespace())
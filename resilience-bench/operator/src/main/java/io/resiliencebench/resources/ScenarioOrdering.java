@@ -0,0 +1,173 @@
+package io.resiliencebench.resources;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.LongStream;
+
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.scenario.Service;
+
+/**
+ * Orders the scenarios of a benchmark so that consecutive scenarios change as few deployments and Istio
+ * objects as possible. The scenarios of a space follow a reflected Gray code over the users, the expansion
+ * of each connector and the fault percentage of each template, so consecutive scenarios of a template
+ * differ in one of them only. A list of scenarios is ordered by describing each scenario with the
+ * configuration it applies on every object it touches, the next scenario always being the one changing
+ * the fewest objects from the previous one.
+ */
+public class ScenarioOrdering {
+
+  public static final String DECLARED = "declared";
+  public static final String MINIMAL_CHANGES = "minimal-changes";
+
+  public ScenarioOrdering() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static List<Scenario> order(String ordering, List<Scenario> scenarios) {
+    if (MINIMAL_CHANGES.equals(ordering)) {
+      return minimizeChanges(scenarios);
+    }
+    return scenarios;
+  }
+
+  /**
+   * The positions of the scenarios of the space in the given ordering, generated as they are consumed.
+   */
+  public static LongStream order(String ordering, ScenarioSpace space) {
+    if (MINIMAL_CHANGES.equals(ordering)) {
+      return reflectedGrayCode(space.getRadices());
+    }
+    return LongStream.range(0, space.size());
+  }
+
+  /**
+   * The positions of the templates with the given radices, each template in reflected Gray code order and
+   * the templates one after the other.
+   */
+  static LongStream reflectedGrayCode(List<int[]> templates) {
+    var positions = LongStream.empty();
+    long offset = 0;
+    for (var radices : templates) {
+      long size = 1;
+      for (var radix : radices) {
+        size *= radix;
+      }
+      var templateOffset = offset;
+      var templateSize = size;
+      positions = LongStream.concat(positions,
+              LongStream.range(0, size).map(step -> templateOffset + grayPosition(radices, templateSize, step)));
+      offset += size;
+    }
+    return positions;
+  }
+
+  /**
+   * The position of the given step of the reflected Gray code over the radices. Each digit runs forward
+   * while the digit before it is even and backward while it is odd, so consecutive steps change one digit.
+   */
+  static long grayPosition(int[] radices, long size, long step) {
+    long position = 0;
+    var remaining = size;
+    for (var radix : radices) {
+      remaining /= radix;
+      var digit = step / remaining;
+      step %= remaining;
+      if (digit % 2 == 1) {
+        step = remaining - 1 - step;
+      }
+      position = position * radix + digit;
+    }
+    return position;
+  }
+
+  public static List<Scenario> minimizeChanges(List<Scenario> scenarios) {
+    var configurations = scenarios.stream().map(ScenarioOrdering::configuration).toList();
+    return nearestNeighbours(configurations).stream().map(scenarios::get).toList();
+  }
+
+  /**
+   * Greedy nearest neighbour starting from the first configuration. Ties keep the given order, so grids
+   * already in a good order are left as they are.
+   */
+  static List<Integer> nearestNeighbours(List<Map<String, Object>> configurations) {
+    var ordered = new ArrayList<Integer>(configurations.size());
+    if (configurations.isEmpty()) {
+      return ordered;
+    }
+    var remaining = new ArrayList<Integer>();
+    for (int i = 1; i < configurations.size(); i++) {
+      remaining.add(i);
+    }
+
+    var current = 0;
+    ordered.add(current);
+    while (!remaining.isEmpty()) {
+      var nearest = 0;
+      var nearestDistance = Integer.MAX_VALUE;
+      for (int i = 0; i < remaining.size(); i++) {
+        var distance = distance(configurations.get(current), configurations.get(remaining.get(i)));
+        if (distance < nearestDistance) {
+          nearest = i;
+          nearestDistance = distance;
+        }
+      }
+      current = remaining.remove(nearest);
+      ordered.add(current);
+    }
+    return ordered;
+  }
+
+  /**
+   * The number of objects configured differently by the two scenarios.
+   */
+  static int distance(Map<String, Object> configuration, Map<String, Object> other) {
+    var keys = new HashSet<>(configuration.keySet());
+    keys.addAll(other.keySet());
+    return (int) keys.stream().filter(key -> !Objects.equals(configuration.get(key), other.get(key))).count();
+  }
+
+  /**
+   * The configuration the scenario applies, by object: the environment of each deployment, the fault of
+   * each fault container, and the virtual service and destination rule of each destination.
+   */
+  static Map<String, Object> configuration(Scenario scenario) {
+    var configuration = new LinkedHashMap<String, Object>();
+    for (var connector : scenario.getSpec().getConnectors()) {
+      putEnvs(configuration, connector.getSource());
+      putEnvs(configuration, connector.getDestination());
+
+      var istio = connector.getIstio();
+      if (istio != null) {
+        var destination = connector.getDestination().getName();
+        if (!istio.getRetry().isEmpty() || !istio.getTimeout().isEmpty()) {
+          configuration.put("virtual-service:" + destination, List.of(istio.getRetry(), istio.getTimeout()));
+        }
+        if (!istio.getCircuitBreaker().isEmpty()) {
+          configuration.put("destination-rule:" + destination, istio.getCircuitBreaker());
+        }
+      }
+    }
+    var fault = scenario.getSpec().getFault();
+    if (fault != null) {
+      for (var service : fault.getServices()) {
+        configuration.put("fault:" + service, fault.getPercentage());
+      }
+    }
+    return configuration;
+  }
+
+  private static void putEnvs(Map<String, Object> configuration, Service service) {
+    if (service != null && service.getEnvs() != null && !service.getEnvs().isEmpty()) {
+      configuration.merge("env:" + service.getName(), service.getEnvs(), (envs, other) -> {
+        var merged = new LinkedHashMap<Object, Object>((Map<?, ?>) envs);
+        merged.putAll((Map<?, ?>) other);
+        return merged;
+      });
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package io.resiliencebench.resources;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import io.resiliencebench.resources.benchmark.Benchmark;
+import io.resiliencebench.resources.benchmark.ScenarioTemplate;
+import io.resiliencebench.resources.queue.ScenarioDimensions;
+import io.resiliencebench.resources.scenario.Connector;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.scenario.ScenarioFault;
+import io.resiliencebench.resources.scenario.ScenarioSpec;
+import io.resiliencebench.resources.scenario.ScenarioWorkload;
+import io.resiliencebench.resources.workload.Workload;
+
+/**
+ * All the scenarios of a benchmark, generated on demand. Only the expansion of each connector is kept in
+ * memory; a scenario is built from its position in the space when it is requested, so the space can be
+ * iterated or indexed without ever holding all the scenarios. Positions follow the order of
+ * {@link ScenarioFactory#create}: templates, then workload users, then connector combinations, then
+ * fault percentages.
+ */
+public class ScenarioSpace implements Iterable<Scenario> {
+
+  private final Benchmark benchmark;
+  private final String workloadName;
+  private final List<Integer> users;
+  private final List<TemplateSpace> templates = new ArrayList<>();
+  private final long size;
+
+  private record TemplateSpace(ScenarioTemplate template,
+                               List<List<Connector>> connectors,
+                               ScenarioDimensions dimensions,
+                               long size) {
+  }
+
+  public ScenarioSpace(Benchmark benchmark, Workload workload) {
+    this.benchmark = benchmark;
+    this.workloadName = workload.getMetadata().getName();
+    this.users = workload.getSpec().getUsers();
+
+    long total = 0;
+    for (var scenarioTemplate : benchmark.getSpec().getScenarios()) {
+      var connectors = new ArrayList<List<Connector>>();
+      long combinations = 1;
+      for (var connectorTemplate : scenarioTemplate.getConnectors()) {
+        var expanded = ScenarioFactory.expandConnector(connectorTemplate);
+        connectors.add(expanded);
+        combinations = multiply(combinations, expanded.size());
+      }
+      var faultPercentages = scenarioTemplate.getFault() != null
+              ? scenarioTemplate.getFault().getPercentages()
+              : List.<Integer>of();
+      var dimensions = new ScenarioDimensions(scenarioTemplate.getName(), users, combinations, faultPercentages);
+      var templateSize = size(dimensions);
+      templates.add(new TemplateSpace(scenarioTemplate, connectors, dimensions, templateSize));
+      total = add(total, templateSize);
+    }
+    this.size = total;
+  }
+
+  private static long multiply(long value, long factor) {
+    try {
+      return Math.multiplyExact(value, factor);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Too many scenarios in benchmark", e);
+    }
+  }
+
+  private static long add(long value, long other) {
+    try {
+      return Math.addExact(value, other);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Too many scenarios in benchmark", e);
+    }
+  }
+
+  private static long size(ScenarioDimensions dimensions) {
+    try {
+      return dimensions.size();
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Too many scenarios in benchmark", e);
+    }
+  }
+
+  public long size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * The dimensions of each template, enough to name every scenario of the space without the benchmark.
+   */
+  public List<ScenarioDimensions> getDimensions() {
+    return templates.stream().map(TemplateSpace::dimensions).toList();
+  }
+
+  /**
+   * The number of values of each digit of the positions of each template, slowest digit first: the
+   * workload users, the expansions of each connector, then the fault percentages.
+   */
+  List<int[]> getRadices() {
+    return templates.stream().map(templateSpace -> {
+      var expansions = templateSpace.connectors();
+      var radices = new int[expansions.size() + 2];
+      radices[0] = templateSpace.dimensions().getUsers().size();
+      for (int i = 0; i < expansions.size(); i++) {
+        radices[i + 1] = expansions.get(i).size();
+      }
+      var faultPercentages = templateSpace.dimensions().getFaultPercentages();
+      radices[radices.length - 1] = faultPercentages.isEmpty() ? 1 : faultPercentages.size();
+      return radices;
+    }).toList();
+  }
+
+  /**
+   * Builds the scenario at the given position.
+   */
+  public Scenario get(long index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Scenario " + index + " out of " + size);
+    }
+    var position = index;
+    for (var templateSpace : templates) {
+      if (position < templateSpace.size()) {
+        return build(templateSpace, position);
+      }
+      position -= templateSpace.size();
+    }
+    throw new IllegalStateException("Scenario " + index + " not found");
+  }
+
+  public Stream<Scenario> stream() {
+    return LongStream.range(0, size).mapToObj(this::get);
+  }
+
+  @Override
+  public Iterator<Scenario> iterator() {
+    return stream().iterator();
+  }
+
+  private Scenario build(TemplateSpace templateSpace, long position) {
+    var scenarioTemplate = templateSpace.template();
+    var dimensions = templateSpace.dimensions();
+    ScenarioFault scenarioFault = null;
+    if (scenarioTemplate.getFault() != null) {
+      scenarioFault = new ScenarioFault(
+              scenarioTemplate.getFault().getProvider(),
+              dimensions.faultPercentageAt(position),
+              scenarioTemplate.getFault().getServices()
+      );
+    }
+    var scenarioName = dimensions.scenarioName(position);
+    var spec = new ScenarioSpec(
+            scenarioName,
+            new ScenarioWorkload(workloadName, dimensions.usersAt(position)),
+            connectors(templateSpace, dimensions.combinationAt(position)),
+            scenarioFault);
+    var scenario = new Scenario();
+    scenario.setSpec(spec);
+    scenario.setMetadata(ScenarioFactory.createMeta(scenarioName, benchmark));
+    return scenario;
+  }
+
+  /**
+   * Picks one expansion of each connector, the last connector changing fastest.
+   */
+  private static List<Connector> connectors(TemplateSpace templateSpace, long combination) {
+    var expansions = templateSpace.connectors();
+    var connectors = new Connector[expansions.size()];
+    var remaining = combination;
+    for (int i = expansions.size() - 1; i >= 0; i--) {
+      var expansion = expansions.get(i);
+      connectors[i] = expansion.get((int) (remaining % expansion.size()));
+      remaining /= expansion.size();
+    }
+    return List.of(connectors);
+  }
+}
@@ -18,6 +18,25 @@ public class BenchmarkSpec {
   @Default(value = "true")
   private Boolean autoCreateQueue;
 
+  @JsonPropertyDescription("The maximum number of scenarios running at the same time. Scenarios touching the same ResilientService never run concurrently")
+  @Default(value = "1")
+  private Integer parallelism;
+
+  @JsonPropertyDescription("The number of ephemeral namespaces the ResilientServices are cloned into. " +
+          "When set, scenarios run in these namespaces instead of the benchmark namespace and parallelism is raised to at least the number of shards. " +
+          "More than one shard requires cloud storage")
+  private Integer shards;
+
+  @JsonPropertyDescription("The order the scenarios run in. 'declared' keeps the order they are generated in and " +
+          "'minimal-changes' orders them so consecutive scenarios reconfigure as few deployments and Istio objects as possible")
+  @Default(value = "declared")
+  private String ordering;
+
+  @JsonPropertyDescription("The maximum number of upcoming scenarios existing as Scenario resources at a time. " +
+          "Scenarios are created shortly before they run and deleted once finished. Defaults to twice the parallelism, and at least 16. " +
+          "0 creates all the scenarios up front")
+  private Integer scenarioWindow;
+
   @JsonPropertyDescription("The set of scenarios templates to be processed and then generated as scenarios")
   private List<ScenarioTemplate> scenarios = new ArrayList<>();
 
@@ -38,6 +57,22 @@ public class BenchmarkSpec {
     return autoCreateQueue;
   }
 
+  public Integer getParallelism() {
+    return parallelism;
+  }
+
+  public Integer getShards() {
+    return shards;
+  }
+
+  public String getOrdering() {
+    return ordering;
+  }
+
+  public Integer getScenarioWindow() {
+    return scenarioWindow;
+  }
+
   public String getQueueName() {
     return queueName;
   }
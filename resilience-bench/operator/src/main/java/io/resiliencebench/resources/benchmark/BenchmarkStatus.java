@@ -2,10 +2,12 @@ package io.resiliencebench.resources.benchmark;
 
 import io.fabric8.crd.generator.annotation.PrinterColumn;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.resiliencebench.resources.Phase;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Objects;
 
 public class BenchmarkStatus {
@@ -28,6 +30,8 @@ public class BenchmarkStatus {
   private String completionTime;
   private String message;
   private Long observedGeneration;
+  @JsonPropertyDescription("The shard namespaces provisioned for the benchmark, deleted with it.")
+  private List<String> shards;
 
   public BenchmarkStatus() {
   }
@@ -134,6 +138,14 @@ public class BenchmarkStatus {
     this.observedGeneration = observedGeneration;
   }
 
+  public List<String> getShards() {
+    return shards;
+  }
+
+  public void setShards(List<String> shards) {
+    this.shards = shards;
+  }
+
   // Utility methods
   @JsonIgnore
   public boolean isRunning() {
@@ -0,0 +1,120 @@
+package io.resiliencebench.resources.queue;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+/**
+ * The items of a queue encoded by the position of their scenarios in the benchmark, so the size of the
+ * queue does not grow with the length of scenario names and result paths. Scenario names are derived from
+ * the dimensions of the templates and result files from a pattern. Items are created pending; their
+ * later phases are kept in the status of the queue.
+ */
+public class CompactItems {
+
+  @JsonPropertyDescription("The dimensions of each scenario template of the benchmark, in declared order.")
+  private List<ScenarioDimensions> templates;
+
+  @JsonPropertyDescription("The positions of the scenarios in the order they run, as comma-separated ranges such as '0-9,12,10-11'.")
+  private String order;
+
+  @JsonPropertyDescription("The path of the file with each item's results, where %s is the name of the scenario. Automatically created.")
+  private String resultFile;
+
+  public CompactItems() {
+  }
+
+  public CompactItems(List<ScenarioDimensions> templates, PrimitiveIterator.OfLong order, String resultFile) {
+    this.templates = templates;
+    this.order = encodeRanges(order);
+    this.resultFile = resultFile;
+  }
+
+  public List<ScenarioDimensions> getTemplates() {
+    return templates;
+  }
+
+  public String getOrder() {
+    return order;
+  }
+
+  public String getResultFile() {
+    return resultFile;
+  }
+
+  /**
+   * Builds the items of the queue.
+   */
+  public List<ExecutionQueueItem> expand() {
+    var positions = decodeRanges(order);
+    var items = new ArrayList<ExecutionQueueItem>(positions.size());
+    for (var index : positions) {
+      var name = scenarioName(index);
+      items.add(new ExecutionQueueItem(name, resultFile.formatted(name), index));
+    }
+    return items;
+  }
+
+  private String scenarioName(long index) {
+    var position = index;
+    for (var template : templates) {
+      if (position < template.size()) {
+        return template.scenarioName(position);
+      }
+      position -= template.size();
+    }
+    throw new IllegalStateException("Scenario " + index + " not found in queue");
+  }
+
+  /**
+   * Encodes consecutive positions as ranges, so queues in declared order take a single range.
+   */
+  static String encodeRanges(PrimitiveIterator.OfLong positions) {
+    var ranges = new StringBuilder();
+    long start = -1;
+    long end = -1;
+    while (positions.hasNext()) {
+      var position = positions.nextLong();
+      if (start >= 0 && position == end + 1) {
+        end = position;
+        continue;
+      }
+      appendRange(ranges, start, end);
+      start = position;
+      end = position;
+    }
+    appendRange(ranges, start, end);
+    return ranges.toString();
+  }
+
+  private static void appendRange(StringBuilder ranges, long start, long end) {
+    if (start < 0) {
+      return;
+    }
+    if (!ranges.isEmpty()) {
+      ranges.append(",");
+    }
+    ranges.append(start);
+    if (end > start) {
+      ranges.append("-").append(end);
+    }
+  }
+
+  static List<Long> decodeRanges(String ranges) {
+    var positions = new ArrayList<Long>();
+    if (ranges == null || ranges.isBlank()) {
+      return positions;
+    }
+    for (var range : ranges.split(",")) {
+      var bounds = range.trim().split("-");
+      var start = Long.parseLong(bounds[0]);
+      var end = bounds.length > 1 ? Long.parseLong(bounds[1]) : start;
+      for (var position = start; position <= end; position++) {
+        positions.add(position);
+      }
+    }
+    return positions;
+  }
+}
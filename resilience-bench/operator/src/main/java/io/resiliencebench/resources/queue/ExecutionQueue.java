@@ -5,7 +5,9 @@ import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.model.annotation.*;
+import io.resiliencebench.resources.Phase;
 
+import java.util.List;
 import java.util.Optional;
 
 @Group("resiliencebench.io")
@@ -13,7 +15,13 @@ import java.util.Optional;
 @ShortNames("eq")
 @Plural("queues")
 @Kind("Queue")
-public class ExecutionQueue extends CustomResource<ExecutionQueueSpec, Void> implements Namespaced {
+public class ExecutionQueue extends CustomResource<ExecutionQueueSpec, ExecutionQueueStatus> implements Namespaced {
+  @JsonIgnore
+  private boolean statusApplied;
+
+  @JsonIgnore
+  private ExecutionQueueIndex index;
+
   ExecutionQueue() { }
 
   public ExecutionQueue(ExecutionQueueSpec spec, ObjectMeta meta) {
@@ -21,28 +29,118 @@ public class ExecutionQueue extends CustomResource<ExecutionQueueSpec, Void> imp
     this.setMetadata(meta);
   }
 
+  /**
+   * The items of the queue, in the phase recorded by their item status. Items without status keep the
+   * phase of the spec.
+   */
+  @JsonIgnore
+  public List<ExecutionQueueItem> getItems() {
+    var items = getSpec().getItems();
+    if (!statusApplied && getStatus() != null) {
+      if (getStatus().getItems() != null) {
+        getStatus().getItems().forEach((position, itemStatus) -> {
+          var index = Integer.parseInt(position);
+          if (index < items.size()) {
+            itemStatus.applyTo(items.get(index));
+          }
+        });
+      }
+      statusApplied = true;
+    }
+    return items;
+  }
+
+  private ExecutionQueueIndex index() {
+    var items = getItems();
+    if (index == null) {
+      index = new ExecutionQueueIndex(items);
+    }
+    return index;
+  }
+
   @JsonIgnore
   public ExecutionQueueItem getItem(String name) {
-    return getSpec().getItems().stream().filter(item -> item.getScenario().equals(name)).findFirst().orElse(null);
+    var position = indexOf(name);
+    return position < 0 ? null : getItems().get(position);
+  }
+
+  /**
+   * The position of the item of the given scenario in the queue, or -1 when there is none.
+   */
+  @JsonIgnore
+  public int indexOf(String name) {
+    return index().indexOf(name);
+  }
+
+  /**
+   * The number of items in the given phase.
+   */
+  @JsonIgnore
+  public int countItems(String phase) {
+    return index().count(phase);
+  }
+
+  @JsonIgnore
+  public Optional<ExecutionQueueItemStatus> getItemStatus(int position) {
+    if (getStatus() == null || getStatus().getItems() == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(getStatus().getItems().get(String.valueOf(position)));
   }
 
   @JsonIgnore
   public Optional<ExecutionQueueItem> getNextPendingItem() {
-    return getSpec().getItems().stream().filter(ExecutionQueueItem::isPending).findFirst();
+    var position = index().firstPending();
+    return position < getItems().size() ? Optional.of(getItems().get(position)) : Optional.empty();
+  }
+
+  @JsonIgnore
+  public List<ExecutionQueueItem> getPendingItems() {
+    var items = getItems();
+    return items.subList(index().firstPending(), items.size()).stream().filter(ExecutionQueueItem::isPending).toList();
+  }
+
+  @JsonIgnore
+  public List<ExecutionQueueItem> getRunningItems() {
+    return index().running();
+  }
+
+  /**
+   * The maximum number of items allowed to run at the same time. Defaults to one.
+   */
+  @JsonIgnore
+  public int getParallelism() {
+    var parallelism = getSpec().getParallelism();
+    return parallelism == null || parallelism < 1 ? 1 : parallelism;
+  }
+
+  /**
+   * The namespaces where items can be executed. Defaults to the namespace of the queue.
+   */
+  @JsonIgnore
+  public List<String> getExecutionNamespaces() {
+    var namespaces = getSpec().getNamespaces();
+    if (namespaces == null || namespaces.isEmpty()) {
+      return List.of(getMetadata().getNamespace());
+    }
+    return namespaces;
   }
 
   @JsonIgnore
   public boolean hasPendingItems() {
-    return getSpec().getItems().stream().anyMatch(ExecutionQueueItem::isPending);
+    return countItems(Phase.PENDING) > 0;
   }
 
+  /**
+   * Whether every item of the queue is over, completed or failed.
+   */
   @JsonIgnore
   public boolean isDone() {
-    return getSpec().getItems().stream().allMatch(ExecutionQueueItem::isFinished);
+    return countItems(Phase.COMPLETED) + countItems(Phase.FAILED) == getItems().size();
   }
 
   @JsonIgnore
   public boolean isRunning() {
-    return getSpec().getItems().stream().anyMatch(ExecutionQueueItem::isRunning);
+    return countItems(Phase.RUNNING) > 0;
   }
 }
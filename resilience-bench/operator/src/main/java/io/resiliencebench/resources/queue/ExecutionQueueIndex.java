@@ -0,0 +1,73 @@
+package io.resiliencebench.resources.queue;
+
+import io.resiliencebench.resources.Phase;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Lookups over the items of a queue: the position of each scenario, the number of items in each phase,
+ * the running items, and a cursor before which no item is pending. Built once from the items and kept
+ * up to date by the items as they change phase.
+ */
+class ExecutionQueueIndex {
+
+  private final List<ExecutionQueueItem> items;
+  private final Map<String, Integer> positions = new HashMap<>();
+  private final Map<String, Integer> counts = new HashMap<>();
+  private final TreeSet<Integer> running = new TreeSet<>();
+  private int pendingCursor;
+
+  ExecutionQueueIndex(List<ExecutionQueueItem> items) {
+    this.items = items;
+    for (int i = 0; i < items.size(); i++) {
+      var item = items.get(i);
+      positions.putIfAbsent(item.getScenario(), i);
+      counts.merge(item.getStatus(), 1, Integer::sum);
+      if (item.isRunning()) {
+        running.add(i);
+      }
+      item.indexedBy(this, i);
+    }
+  }
+
+  int indexOf(String scenario) {
+    return positions.getOrDefault(scenario, -1);
+  }
+
+  int count(String phase) {
+    return counts.getOrDefault(phase, 0);
+  }
+
+  List<ExecutionQueueItem> running() {
+    return running.stream().map(items::get).toList();
+  }
+
+  /**
+   * The position of the first pending item, or the number of items when none is pending.
+   */
+  int firstPending() {
+    if (count(Phase.PENDING) == 0) {
+      return items.size();
+    }
+    while (pendingCursor < items.size() && !items.get(pendingCursor).isPending()) {
+      pendingCursor++;
+    }
+    return pendingCursor;
+  }
+
+  void moved(int position, String from, String to) {
+    counts.merge(from, -1, Integer::sum);
+    counts.merge(to, 1, Integer::sum);
+    if (Phase.RUNNING.equals(to)) {
+      running.add(position);
+    } else {
+      running.remove(position);
+    }
+    if (Phase.PENDING.equals(to)) {
+      pendingCursor = Math.min(pendingCursor, position);
+    }
+  }
+}
@@ -5,16 +5,27 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.resiliencebench.resources.Phase;
 
+import java.util.Objects;
+
 public class ExecutionQueueItem {
 
   @JsonPropertyDescription("The name of the scenario it belongs to.")
   @JsonProperty(required = true)
   private String scenario;
-  @JsonPropertyDescription("The status of the execution. Can be 'pending', 'running' or 'finished'. Automatically managed.")
+  @JsonPropertyDescription("The status of the execution when the queue is created. Can be 'pending', 'running' or 'finished'. Later phases are kept in the status of the queue.")
   @JsonProperty(required = true)
   private String phase = Phase.PENDING;
   @JsonPropertyDescription("The path of the file with the item's results. Automatically created.")
   private String resultFile;
+  @JsonPropertyDescription("The namespace the item was executed in. Automatically managed.")
+  private String namespace;
+  @JsonPropertyDescription("The position of the scenario among the scenarios of the benchmark. Automatically created.")
+  private Long index;
+
+  @JsonIgnore
+  private ExecutionQueueIndex queueIndex;
+  @JsonIgnore
+  private int position;
 
   public ExecutionQueueItem(String scenario, String resultFile) {
     this.scenario = scenario;
@@ -22,6 +33,11 @@ public class ExecutionQueueItem {
     this.phase = Phase.PENDING;
   }
 
+  public ExecutionQueueItem(String scenario, String resultFile, Long index) {
+    this(scenario, resultFile);
+    this.index = index;
+  }
+
   public ExecutionQueueItem() {
   }
 
@@ -30,7 +46,19 @@ public class ExecutionQueueItem {
   }
 
   public void setStatus(String status) {
+    var previous = this.phase;
     this.phase = status;
+    if (queueIndex != null && !Objects.equals(previous, status)) {
+      queueIndex.moved(position, previous, status);
+    }
+  }
+
+  /**
+   * Keeps the index of the queue up to date when the phase of this item changes.
+   */
+  void indexedBy(ExecutionQueueIndex queueIndex, int position) {
+    this.queueIndex = queueIndex;
+    this.position = position;
   }
 
   public String getStatus() {
@@ -41,6 +69,22 @@ public class ExecutionQueueItem {
     return resultFile;
   }
 
+  public String getNamespace() {
+    return namespace;
+  }
+
+  public void setNamespace(String namespace) {
+    this.namespace = namespace;
+  }
+
+  public Long getIndex() {
+    return index;
+  }
+
+  public void setIndex(Long index) {
+    this.index = index;
+  }
+
   @JsonIgnore
   public boolean isPending() {
     return phase.equals(Phase.PENDING);
@@ -51,9 +95,12 @@ public class ExecutionQueueItem {
     return phase.equals(Phase.RUNNING);
   }
 
+  /**
+   * Whether the item is over, completed or failed.
+   */
   @JsonIgnore
   public boolean isFinished() {
-    return phase.equals(Phase.COMPLETED);
+    return phase.equals(Phase.COMPLETED) || phase.equals(Phase.FAILED);
   }
 
   @JsonIgnore
@@ -61,6 +108,11 @@ public class ExecutionQueueItem {
     this.setStatus(Phase.COMPLETED);
   }
 
+  @JsonIgnore
+  public void markAsFailed() {
+    this.setStatus(Phase.FAILED);
+  }
+
   @JsonIgnore
   public void markAsRunning() {
     this.setStatus(Phase.RUNNING);
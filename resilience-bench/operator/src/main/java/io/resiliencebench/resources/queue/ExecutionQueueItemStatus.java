@@ -0,0 +1,124 @@
+package io.resiliencebench.resources.queue;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import io.resiliencebench.resources.Phase;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ExecutionQueueItemStatus {
+
+  @JsonPropertyDescription("The phase of the item. Can be 'Running', 'Completed' or 'Failed'.")
+  private String phase;
+  @JsonPropertyDescription("The namespace the item is executed in.")
+  private String namespace;
+  @JsonPropertyDescription("The number of times the item started running.")
+  private int attempts;
+  private String startTime;
+  private String completionTime;
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  @JsonPropertyDescription("When each event of the last run of the item happened, by event name.")
+  private Map<String, String> timeline;
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  @JsonPropertyDescription("How long each step of the last run of the item took in milliseconds, by step name.")
+  private Map<String, Long> stepDurations;
+
+  public ExecutionQueueItemStatus() {
+  }
+
+  public ExecutionQueueItemStatus(ExecutionQueueItemStatus other) {
+    this.phase = other.phase;
+    this.namespace = other.namespace;
+    this.attempts = other.attempts;
+    this.startTime = other.startTime;
+    this.completionTime = other.completionTime;
+    this.timeline = other.timeline == null ? null : new LinkedHashMap<>(other.timeline);
+    this.stepDurations = other.stepDurations == null ? null : new LinkedHashMap<>(other.stepDurations);
+  }
+
+  public String getPhase() {
+    return phase;
+  }
+
+  public String getNamespace() {
+    return namespace;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public String getStartTime() {
+    return startTime;
+  }
+
+  public String getCompletionTime() {
+    return completionTime;
+  }
+
+  public Map<String, String> getTimeline() {
+    return timeline;
+  }
+
+  public Map<String, Long> getStepDurations() {
+    return stepDurations;
+  }
+
+  @JsonIgnore
+  public void markAsRunning(String namespace) {
+    this.phase = Phase.RUNNING;
+    this.namespace = namespace;
+    this.attempts++;
+    this.startTime = getCurrentTimestamp();
+    this.completionTime = null;
+    this.timeline = null;
+    this.stepDurations = null;
+  }
+
+  /**
+   * Marks the item as completed. Finished items keep a compact record, and the timeline of their run is
+   * written back once it ends.
+   */
+  @JsonIgnore
+  public void markAsCompleted() {
+    this.phase = Phase.COMPLETED;
+    this.completionTime = getCurrentTimestamp();
+    this.timeline = null;
+    this.stepDurations = null;
+  }
+
+  /**
+   * Marks the item as failed. Items failing before they started running are recorded in the namespace
+   * they were to run in.
+   */
+  @JsonIgnore
+  public void markAsFailed(String namespace) {
+    this.phase = Phase.FAILED;
+    if (this.namespace == null) {
+      this.namespace = namespace;
+    }
+    this.completionTime = getCurrentTimestamp();
+    this.timeline = null;
+    this.stepDurations = null;
+  }
+
+  /**
+   * Sets the phase and namespace of the item as recorded in this status.
+   */
+  void applyTo(ExecutionQueueItem item) {
+    if (phase != null) {
+      item.setStatus(phase);
+    }
+    if (namespace != null) {
+      item.setNamespace(namespace);
+    }
+  }
+
+  private static String getCurrentTimestamp() {
+    return LocalDateTime.now().atZone(ZoneId.of("UTC")).toString();
+  }
+}
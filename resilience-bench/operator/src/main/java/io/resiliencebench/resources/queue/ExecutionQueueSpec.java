@@ -1,5 +1,8 @@
 package io.resiliencebench.resources.queue;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 
 import java.util.List;
@@ -13,8 +16,23 @@ public class ExecutionQueueSpec {
   private String benchmark;
 
   @JsonPropertyDescription("The list of items to execute.")
+  @JsonProperty("items")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
   private List<ExecutionQueueItem> items;
 
+  @JsonPropertyDescription("The items to execute, encoded by the position of their scenarios. Used instead of the list of items by large benchmarks.")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private CompactItems compactItems;
+
+  @JsonIgnore
+  private List<ExecutionQueueItem> expandedItems;
+
+  @JsonPropertyDescription("The maximum number of items running at the same time.")
+  private Integer parallelism;
+
+  @JsonPropertyDescription("The namespaces the items are executed in. Defaults to the namespace of the queue.")
+  private List<String> namespaces;
+
   public ExecutionQueueSpec() {
   }
 
@@ -24,10 +42,39 @@ public class ExecutionQueueSpec {
     this.benchmark = benchmark;
   }
 
+  public ExecutionQueueSpec(String resultFile, List<ExecutionQueueItem> items, String benchmark, Integer parallelism) {
+    this(resultFile, items, benchmark);
+    this.parallelism = parallelism;
+  }
+
+  public ExecutionQueueSpec(String resultFile, List<ExecutionQueueItem> items, String benchmark, Integer parallelism, List<String> namespaces) {
+    this(resultFile, items, benchmark, parallelism);
+    this.namespaces = namespaces;
+  }
+
+  public ExecutionQueueSpec(String resultFile, CompactItems compactItems, String benchmark, Integer parallelism, List<String> namespaces) {
+    this(resultFile, (List<ExecutionQueueItem>) null, benchmark, parallelism, namespaces);
+    this.compactItems = compactItems;
+  }
+
+  /**
+   * The items of the queue. Compact items are expanded once.
+   */
+  @JsonIgnore
   public List<ExecutionQueueItem> getItems() {
+    if (items == null && compactItems != null) {
+      if (expandedItems == null) {
+        expandedItems = compactItems.expand();
+      }
+      return expandedItems;
+    }
     return items;
   }
 
+  public CompactItems getCompactItems() {
+    return compactItems;
+  }
+
   public String getResultFile() {
     return resultFile;
   }
@@ -35,4 +82,12 @@ public class ExecutionQueueSpec {
   public String getBenchmark() {
     return benchmark;
   }
+
+  public Integer getParallelism() {
+    return parallelism;
+  }
+
+  public List<String> getNamespaces() {
+    return namespaces;
+  }
 }
@@ -0,0 +1,21 @@
+package io.resiliencebench.resources.queue;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ExecutionQueueStatus {
+
+  @JsonPropertyDescription("The status of the items that started running or finished, by the position of the item in the queue. " +
+          "Finished items keep a compact record, with the final timeline of their run once their result is published. " +
+          "Automatically managed.")
+  private Map<String, ExecutionQueueItemStatus> items = new LinkedHashMap<>();
+
+  public ExecutionQueueStatus() {
+  }
+
+  public Map<String, ExecutionQueueItemStatus> getItems() {
+    return items;
+  }
+}
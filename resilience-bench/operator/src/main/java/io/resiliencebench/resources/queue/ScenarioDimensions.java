@@ -0,0 +1,95 @@
+package io.resiliencebench.resources.queue;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+
+import java.util.List;
+
+/**
+ * The dimensions of one scenario template of a benchmark. A position below {@link #size()} identifies one
+ * scenario of the template: the workload users change slowest, then the combination of connectors, then
+ * the fault percentage.
+ */
+public class ScenarioDimensions {
+
+  @JsonPropertyDescription("The name of the scenario template.")
+  private String template;
+
+  @JsonPropertyDescription("The workload users of the template.")
+  private List<Integer> users;
+
+  @JsonPropertyDescription("The number of combinations of the connectors of the template.")
+  private long combinations;
+
+  @JsonPropertyDescription("The fault percentages of the template. Empty when the template has no fault.")
+  private List<Integer> faultPercentages;
+
+  public ScenarioDimensions() {
+  }
+
+  public ScenarioDimensions(String template, List<Integer> users, long combinations, List<Integer> faultPercentages) {
+    this.template = template;
+    this.users = users;
+    this.combinations = combinations;
+    this.faultPercentages = faultPercentages;
+  }
+
+  public String getTemplate() {
+    return template;
+  }
+
+  public List<Integer> getUsers() {
+    return users;
+  }
+
+  public long getCombinations() {
+    return combinations;
+  }
+
+  public List<Integer> getFaultPercentages() {
+    return faultPercentages;
+  }
+
+  /**
+   * The number of scenarios of the template.
+   *
+   * @throws ArithmeticException if the number does not fit in a long
+   */
+  public long size() {
+    return Math.multiplyExact(Math.multiplyExact(users.size(), combinations), faultCount());
+  }
+
+  public int usersAt(long position) {
+    return users.get((int) (position / (combinations * faultCount())));
+  }
+
+  public long combinationAt(long position) {
+    return (position % (combinations * faultCount())) / faultCount();
+  }
+
+  /**
+   * The fault percentage of the scenario at the given position, or null when the template has no fault.
+   */
+  public Integer faultPercentageAt(long position) {
+    if (!hasFault()) {
+      return null;
+    }
+    return faultPercentages.get((int) (position % faultCount()));
+  }
+
+  public String scenarioName(long position) {
+    var name = new StringBuilder();
+    name.append(template).append("-").append(usersAt(position)).append("vu");
+    if (hasFault()) {
+      name.append("-").append(faultPercentageAt(position)).append("f");
+    }
+    return name.append("-").append(String.format("%05d", combinationAt(position) + 1)).toString();
+  }
+
+  private boolean hasFault() {
+    return faultPercentages != null && !faultPercentages.isEmpty();
+  }
+
+  private int faultCount() {
+    return hasFault() ? faultPercentages.size() : 1;
+  }
+}
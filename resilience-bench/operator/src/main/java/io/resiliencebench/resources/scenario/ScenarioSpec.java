@@ -1,13 +1,16 @@
 package io.resiliencebench.resources.scenario;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static io.vertx.core.json.JsonObject.mapFrom;
 
@@ -54,6 +57,22 @@ public class ScenarioSpec {
     return fault;
   }
 
+  /**
+   * Returns the names of the ResilientServices changed while running the scenario
+   */
+  @JsonIgnore
+  public Set<String> getResilientServices() {
+    var services = new LinkedHashSet<String>();
+    for (var connector : connectors) {
+      services.add(connector.getSource().getName());
+      services.add(connector.getDestination().getName());
+    }
+    if (fault != null && fault.getServices() != null) {
+      services.addAll(fault.getServices());
+    }
+    return services;
+  }
+
   public JsonArray toConnectorsInJson() {
     JsonArray json = new JsonArray();
     for (var connector : connectors) {
@@ -18,5 +18,7 @@ public interface Annotations {
 
   String EXECUTION_ID = "resiliencebench.io/execution-id";
 
+  String SHARD_OF = "resiliencebench.io/shard-of";
+
   String ENVOY_PORT = "envoy";
 }
@@ -0,0 +1,266 @@
+package io.resiliencebench.support;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+
+import static io.resiliencebench.support.Annotations.OWNED_BY;
+
+/**
+ * A {@link CustomResourceRepository} serving reads from a shared informer instead of the API server.
+ * Writes still go to the API server, and the written version is returned by the reads until the informer
+ * receives it, so callers always see their own writes. Reads fall back to the API server while the
+ * informer is not synced.
+ */
+public class CachingCustomResourceRepository<T extends CustomResource> extends CustomResourceRepository<T> implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(CachingCustomResourceRepository.class);
+
+  static final String OWNER_INDEX = "owner";
+  static final String EXECUTION_ID_INDEX = "execution-id";
+
+  private final KubernetesSerialization serialization;
+  private final SharedIndexInformer<T> informer;
+
+  /**
+   * Versions written by this repository the informer has not received yet, by namespace/name key.
+   */
+  private final Map<String, T> pendingWrites = new ConcurrentHashMap<>();
+
+  /**
+   * Uids of resources deleted by this repository the informer has not seen go away yet, by namespace/name key.
+   */
+  private final Map<String, String> pendingDeletes = new ConcurrentHashMap<>();
+
+  public CachingCustomResourceRepository(KubernetesClient kubernetesClient, Class<T> resourceClass) {
+    this(kubernetesClient.resources(resourceClass), kubernetesClient.getKubernetesSerialization(),
+            HasMetadata.getKind(resourceClass));
+  }
+
+  public CachingCustomResourceRepository(MixedOperation<T, KubernetesResourceList<T>, Resource<T>> resourceOperation,
+                                         KubernetesSerialization serialization) {
+    this(resourceOperation, serialization, "unknown");
+  }
+
+  public CachingCustomResourceRepository(MixedOperation<T, KubernetesResourceList<T>, Resource<T>> resourceOperation,
+                                         KubernetesSerialization serialization,
+                                         String kind) {
+    super(resourceOperation, kind);
+    this.serialization = serialization;
+    this.informer = resourceOperation.inAnyNamespace().runnableInformer(0);
+    this.informer.addIndexers(Map.of(
+            OWNER_INDEX, r -> indexValue(r.getMetadata().getNamespace(), r.getMetadata().getAnnotations(), OWNED_BY),
+            EXECUTION_ID_INDEX, r -> indexValue(null, r.getMetadata().getLabels(), EXECUTION_ID_LABEL)
+    ));
+    this.informer.addEventHandler(new ResourceEventHandler<>() {
+      @Override
+      public void onAdd(T resource) {
+        received(resource);
+      }
+
+      @Override
+      public void onUpdate(T oldResource, T newResource) {
+        received(newResource);
+      }
+
+      @Override
+      public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+        var key = Cache.metaNamespaceKeyFunc(resource);
+        var uid = resource.getMetadata().getUid();
+        pendingWrites.computeIfPresent(key, (k, written) -> uid != null && uid.equals(written.getMetadata().getUid()) ? null : written);
+        pendingDeletes.remove(key, uid);
+      }
+    });
+    this.informer.start();
+  }
+
+  private static List<String> indexValue(String namespace, Map<String, String> values, String key) {
+    if (values == null || values.get(key) == null) {
+      return List.of();
+    }
+    return List.of(namespace == null ? values.get(key) : Cache.namespaceKeyFunc(namespace, values.get(key)));
+  }
+
+  private void received(T resource) {
+    var key = Cache.metaNamespaceKeyFunc(resource);
+    var resourceVersion = resource.getMetadata().getResourceVersion();
+    pendingWrites.computeIfPresent(key, (k, written) ->
+            isAtLeast(resourceVersion, written.getMetadata().getResourceVersion()) ? null : written);
+  }
+
+  /**
+   * Resource versions are opaque, but the API server backed by etcd hands out increasing numbers. Versions
+   * are only compared for equality when they are not numeric.
+   */
+  static boolean isAtLeast(String resourceVersion, String other) {
+    if (resourceVersion == null || other == null) {
+      return false;
+    }
+    try {
+      return Long.parseLong(resourceVersion) >= Long.parseLong(other);
+    } catch (NumberFormatException e) {
+      return resourceVersion.equals(other);
+    }
+  }
+
+  private T remember(T written) {
+    if (written != null) {
+      var key = Cache.metaNamespaceKeyFunc(written);
+      pendingDeletes.remove(key);
+      pendingWrites.put(key, serialization.clone(written));
+    }
+    return written;
+  }
+
+  private boolean isDeleted(T cached) {
+    var uid = pendingDeletes.get(Cache.metaNamespaceKeyFunc(cached));
+    return uid != null && uid.equals(cached.getMetadata().getUid());
+  }
+
+  private T copy(T resource) {
+    return resource == null ? null : serialization.clone(resource);
+  }
+
+  private boolean isCacheAvailable() {
+    return informer.hasSynced();
+  }
+
+  private <R> R write(T resource, Function<T, R> operation) {
+    try {
+      return operation.apply(resource);
+    } catch (KubernetesClientException e) {
+      if (e.getCode() == 409 || e.getCode() == 422) {
+        // the cached version is older than the one on the server, or a patch test failed against it;
+        // the next read gets the live one
+        var meta = resource.getMetadata();
+        super.find(meta.getNamespace(), meta.getName()).ifPresent(this::remember);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public T create(T resource) {
+    return remember(write(resource, super::create));
+  }
+
+  @Override
+  public T update(T resource) {
+    return remember(write(resource, super::update));
+  }
+
+  @Override
+  public T updateStatus(T resource) {
+    return remember(write(resource, super::updateStatus));
+  }
+
+  @Override
+  public T patchStatus(T resource, T originalResource) {
+    return remember(write(resource, r -> super.patchStatus(r, originalResource)));
+  }
+
+  @Override
+  public T patchStatus(T resource, PatchType patchType, String patch) {
+    return remember(write(resource, r -> super.patchStatus(r, patchType, patch)));
+  }
+
+  @Override
+  public void delete(T resource) {
+    var key = Cache.metaNamespaceKeyFunc(resource);
+    pendingWrites.remove(key);
+    if (resource.getMetadata().getUid() != null) {
+      pendingDeletes.put(key, resource.getMetadata().getUid());
+    }
+    super.delete(resource);
+  }
+
+  @Override
+  public Optional<T> find(String namespace, String name) {
+    if (namespace == null || !isCacheAvailable()) {
+      return super.find(namespace, name);
+    }
+    var key = Cache.namespaceKeyFunc(namespace, name);
+    var written = pendingWrites.get(key);
+    if (written != null) {
+      return Optional.of(copy(written));
+    }
+    var cached = informer.getIndexer().getByKey(key);
+    if (cached == null || isDeleted(cached)) {
+      return Optional.empty();
+    }
+    return Optional.of(copy(cached));
+  }
+
+  @Override
+  public List<T> list(String namespace) {
+    if (!isCacheAvailable()) {
+      return super.list(namespace);
+    }
+    return merge(informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, namespace),
+            r -> namespace.equals(r.getMetadata().getNamespace()));
+  }
+
+  @Override
+  public List<T> listByOwner(String namespace, String owner) {
+    if (!isCacheAvailable()) {
+      return super.listByOwner(namespace, owner);
+    }
+    return merge(informer.getIndexer().byIndex(OWNER_INDEX, Cache.namespaceKeyFunc(namespace, owner)),
+            r -> indexValue(r.getMetadata().getNamespace(), r.getMetadata().getAnnotations(), OWNED_BY)
+                    .contains(Cache.namespaceKeyFunc(namespace, owner)));
+  }
+
+  @Override
+  public List<T> listByExecutionId(String executionId) {
+    if (!isCacheAvailable()) {
+      return super.listByExecutionId(executionId);
+    }
+    return merge(informer.getIndexer().byIndex(EXECUTION_ID_INDEX, executionId),
+            r -> indexValue(null, r.getMetadata().getLabels(), EXECUTION_ID_LABEL).contains(executionId));
+  }
+
+  /**
+   * Replaces the cached resources by the versions written by this repository and adds the matching
+   * resources created by it the informer has not received yet.
+   */
+  private List<T> merge(List<T> cached, Predicate<T> matches) {
+    var resources = new LinkedHashMap<String, T>();
+    cached.stream().filter(r -> !isDeleted(r)).forEach(r -> resources.put(Cache.metaNamespaceKeyFunc(r), r));
+    pendingWrites.forEach((key, written) -> {
+      if (matches.test(written)) {
+        resources.put(key, written);
+      } else {
+        resources.remove(key);
+      }
+    });
+    return resources.values().stream().map(this::copy).collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  @Override
+  public void close() {
+    logger.debug("Stopping informer");
+    informer.close();
+  }
+}
@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
@@ -14,20 +15,47 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.micrometer.core.instrument.Metrics;
 import static io.javaoperatorsdk.operator.processing.KubernetesResourceUtils.getName;
 
 public class CustomResourceRepository<T extends CustomResource> {
 
   private static final Logger logger = LoggerFactory.getLogger(CustomResourceRepository.class);
 
+  /**
+   * Label holding the id of the benchmark execution a resource was created for.
+   */
+  public static final String EXECUTION_ID_LABEL = "execution-id";
+
+  static final String API_CALLS_METRIC = "resiliencebench.repository.api.calls";
+
   private final MixedOperation<T, KubernetesResourceList<T>, Resource<T>> resourceOperation;
+  private final String kind;
 
   public CustomResourceRepository(KubernetesClient kubernetesClient, Class<T> resourceClass) {
-    this(kubernetesClient.resources(resourceClass));
+    this(kubernetesClient.resources(resourceClass), HasMetadata.getKind(resourceClass));
   }
 
   public CustomResourceRepository(MixedOperation<T, KubernetesResourceList<T>, Resource<T>> resourceOperation) {
+    this(resourceOperation, "unknown");
+  }
+
+  public CustomResourceRepository(MixedOperation<T, KubernetesResourceList<T>, Resource<T>> resourceOperation, String kind) {
     this.resourceOperation = resourceOperation;
+    this.kind = kind;
+  }
+
+  /**
+   * Counts a request sent to the API server, by resource kind and repository method.
+   */
+  protected void countApiCall(String method) {
+    Metrics.counter(API_CALLS_METRIC, "kind", kind, "method", method).increment();
+  }
+
+  protected MixedOperation<T, KubernetesResourceList<T>, Resource<T>> resourceOperation() {
+    return resourceOperation;
   }
 
   private NonNamespaceOperation<T, KubernetesResourceList<T>, Resource<T>> inNamespace(T resource) {
@@ -35,6 +63,7 @@ public class CustomResourceRepository<T extends CustomResource> {
   }
 
   public T create(T resource) {
+    countApiCall("create");
     return inNamespace(resource).resource(resource).create();
   }
 
@@ -43,11 +72,13 @@ public class CustomResourceRepository<T extends CustomResource> {
             "Trying to replace resource {}, version: {}",
             getName(resource),
             resource.getMetadata().getResourceVersion());
+    countApiCall("update");
     return resource(resource).update();
   }
 
   public T updateStatus(T resource) {
     logger.trace("Updating status for resource: {}", resource);
+    countApiCall("updateStatus");
     return resource(resource)
             .lockResourceVersion()
             .updateStatus();
@@ -59,6 +90,7 @@ public class CustomResourceRepository<T extends CustomResource> {
     // don't do optimistic locking on patch
     originalResource.getMetadata().setResourceVersion(null);
     resource.getMetadata().setResourceVersion(null);
+    countApiCall("patchStatus");
     try {
       return resource(originalResource)
               .editStatus(r -> resource);
@@ -69,11 +101,27 @@ public class CustomResourceRepository<T extends CustomResource> {
     }
   }
 
+  /**
+   * Applies the patch to the status subresource only, without optimistic locking on the whole resource.
+   */
+  public T patchStatus(T resource, PatchType patchType, String patch) {
+    logger.trace("Patching status of resource {}: {}", getName(resource), patch);
+    countApiCall("patchStatus");
+    return inNamespace(resource)
+            .withName(resource.getMetadata().getName())
+            .subresource("status")
+            .patch(PatchContext.of(patchType), patch);
+  }
+
   public void deleteAll(String namespace) {
-    resourceOperation.inNamespace(namespace).list().getItems().forEach(r -> {
-      logger.debug("Deleting resource: {}", r);
-      inNamespace(r).delete();
-    });
+    countApiCall("list");
+    resourceOperation.inNamespace(namespace).list().getItems().forEach(this::delete);
+  }
+
+  public void delete(T resource) {
+    logger.debug("Deleting resource: {}", resource);
+    countApiCall("delete");
+    inNamespace(resource).withName(resource.getMetadata().getName()).delete();
   }
 
   public Optional<T> find(ObjectMeta meta) {
@@ -86,6 +134,7 @@ public class CustomResourceRepository<T extends CustomResource> {
   }
 
   public Optional<T> find(String namespace, String name) {
+    countApiCall("find");
     if (namespace != null) {
       return Optional.ofNullable(resourceOperation.inNamespace(namespace).withName(name).get());
     } else {
@@ -94,9 +143,28 @@ public class CustomResourceRepository<T extends CustomResource> {
   }
 
   public List<T> list(String namespace) {
+    countApiCall("list");
     return this.resourceOperation.inNamespace(namespace).list().getItems();
   }
 
+  /**
+   * Lists the resources of the namespace annotated as owned by the given resource name.
+   */
+  public List<T> listByOwner(String namespace, String owner) {
+    return list(namespace).stream()
+            .filter(r -> r.getMetadata().getAnnotations() != null)
+            .filter(r -> owner.equals(r.getMetadata().getAnnotations().get(Annotations.OWNED_BY)))
+            .toList();
+  }
+
+  /**
+   * Lists the resources of all namespaces labeled with the given execution id.
+   */
+  public List<T> listByExecutionId(String executionId) {
+    countApiCall("listByExecutionId");
+    return this.resourceOperation.inAnyNamespace().withLabel(EXECUTION_ID_LABEL, executionId).list().getItems();
+  }
+
   private Resource<T> resource(T resource) {
     return resource instanceof Namespaced ? resourceOperation
             .inNamespace(resource.getMetadata().getNamespace())
@@ -23,6 +23,9 @@ public class Maps {
   }
 
   public static Map<String, Object> toObjectMap(Map<String, JsonNode> jsonMap) {
+    if (jsonMap == null) {
+      return Map.of();
+    }
     return jsonMap.entrySet().stream()
             .collect(LinkedHashMap::new,
                     (map, entry) -> map.put(entry.getKey(), Maps.toObject(entry.getValue())),
@@ -0,0 +1,25 @@
+package io.resiliencebench.support;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.Metrics;
+
+public final class Retries {
+
+  static final String RETRIES_METRIC = "resiliencebench.retries";
+
+  private Retries() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Creates the retry counting each retried attempt by name, and each call that ran out of attempts.
+   */
+  public static Retry of(String name, RetryConfig config) {
+    var retry = Retry.of(name, config);
+    retry.getEventPublisher()
+            .onRetry(event -> Metrics.counter(RETRIES_METRIC, "name", name, "outcome", "retried").increment())
+            .onError(event -> Metrics.counter(RETRIES_METRIC, "name", name, "outcome", "exhausted").increment());
+    return retry;
+  }
+}
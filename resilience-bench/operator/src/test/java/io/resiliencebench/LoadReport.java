@@ -0,0 +1,107 @@
+package io.resiliencebench;
+
+import io.vertx.core.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measurements of a load test run, written as JSON under target/load-test so runs can be compared. The used
+ * heap is sampled while the run lasts.
+ */
+class LoadReport implements AutoCloseable {
+
+  private final static Logger logger = LoggerFactory.getLogger(LoadReport.class);
+
+  static final Path DIRECTORY = Path.of("target", "load-test");
+
+  private final String name;
+  private final Instant start = Instant.now();
+  private final JsonObject json = new JsonObject();
+  private final AtomicLong peakHeap = new AtomicLong();
+  private final ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    var thread = new Thread(runnable, "heap-sampler");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  LoadReport(String name) {
+    this.name = name;
+    heapSampler.scheduleAtFixedRate(this::sampleHeap, 0, 100, TimeUnit.MILLISECONDS);
+  }
+
+  private void sampleHeap() {
+    peakHeap.accumulateAndGet(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), Math::max);
+  }
+
+  Instant start() {
+    return start;
+  }
+
+  Duration elapsed() {
+    return Duration.between(start, Instant.now());
+  }
+
+  LoadReport put(String key, Object value) {
+    json.put(key, value);
+    return this;
+  }
+
+  /**
+   * The count, mean, median, 95th percentile and maximum of the given durations, in milliseconds.
+   */
+  static JsonObject summary(Collection<Duration> durations) {
+    var millis = new ArrayList<Long>();
+    durations.forEach(duration -> millis.add(duration.toMillis()));
+    millis.sort(Long::compare);
+    var summary = new JsonObject().put("count", millis.size());
+    if (!millis.isEmpty()) {
+      summary.put("mean", millis.stream().mapToLong(Long::longValue).average().orElse(0))
+              .put("p50", percentile(millis, 0.5))
+              .put("p95", percentile(millis, 0.95))
+              .put("max", millis.get(millis.size() - 1));
+    }
+    return summary;
+  }
+
+  private static long percentile(List<Long> sorted, double quantile) {
+    return sorted.get(Math.max(0, (int) Math.ceil(quantile * sorted.size()) - 1));
+  }
+
+  /**
+   * Records the duration of the run and the heap it used, at its peak and still retained once a garbage
+   * collection ran, and writes the report.
+   */
+  JsonObject write() throws IOException {
+    heapSampler.shutdownNow();
+    sampleHeap();
+    System.gc();
+    json.put("wall_clock_ms", elapsed().toMillis());
+    json.put("heap", new JsonObject()
+            .put("peak_bytes", peakHeap.get())
+            .put("retained_bytes", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed()));
+    Files.createDirectories(DIRECTORY);
+    var file = DIRECTORY.resolve(name + ".json");
+    Files.writeString(file, json.encodePrettily());
+    logger.info("Load report {} written to {}:\n{}", name, file, json.encodePrettily());
+    return json;
+  }
+
+  @Override
+  public void close() {
+    heapSampler.shutdownNow();
+  }
+}
@@ -0,0 +1,337 @@
+package io.resiliencebench;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.EnableKubernetesMockClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.resiliencebench.execution.io.FileProvider;
+import io.resiliencebench.execution.io.FileProviderFactory;
+import io.resiliencebench.resources.Phase;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static io.resiliencebench.BenchmarkController.RECONCILE_DURATION_METRIC;
+import static io.resiliencebench.execution.ExecutionTimeline.PREPARATION_STARTED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.NONE;
+
+/**
+ * Runs the whole operator against a mock API server, with the services, Istio objects and k6 jobs of the
+ * benchmarks simulated by {@link SimulatedCluster}, and reports its reconcile throughput, the API calls it
+ * makes per scenario, its heap and how long scenarios wait to be scheduled. Runs offline with
+ * {@code mvn verify}; the reports are written to target/load-test. The load is set with system properties:
+ * load.benchmarks, load.scenarios (per benchmark), load.queueItems, load.queueScenarios (scenarios of the
+ * large queue to run), load.jobMillis (how long each k6 job runs) and load.timeoutMinutes.
+ */
+@SpringBootTest(webEnvironment = NONE, properties = {
+        "MAX_PARALLEL_SCENARIOS=16",
+        "STEP_EXECUTOR_THREADS=16",
+        "JOB_RESYNC_PERIOD_SECONDS=5",
+        "RESULT_PUBLISH_BACKOFF_MS=50",
+        "STORAGE_TYPE=local"
+})
+@EnableKubernetesMockClient(crud = true)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OperatorLoadE2ETest {
+
+  private static final String BENCHMARK = "benchmark";
+
+  private static final int BENCHMARKS = Integer.getInteger("load.benchmarks", 50);
+  private static final int SCENARIOS_PER_BENCHMARK = Integer.getInteger("load.scenarios", 2);
+  private static final int QUEUE_ITEMS = Integer.getInteger("load.queueItems", 10_000);
+  private static final int QUEUE_SCENARIOS = Integer.getInteger("load.queueScenarios", 20);
+  private static final int SCENARIO_WINDOW = 20;
+  private static final long JOB_MILLIS = Long.getLong("load.jobMillis", 200);
+  private static final Duration TIMEOUT = Duration.ofMinutes(Long.getLong("load.timeoutMinutes", 10));
+
+  static KubernetesMockServer server;
+  static KubernetesClient client;
+
+  @TempDir
+  static Path spoolDirectory;
+
+  @Autowired
+  private InMemoryFileProvider files;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private SimulatedCluster cluster;
+  private final List<String> namespaces = new ArrayList<>();
+
+  @TestConfiguration
+  static class MockClusterConfiguration {
+
+    // the client belongs to the mock server, which closes it
+    @Bean(destroyMethod = "")
+    @Primary
+    KubernetesClient mockKubernetesClient() {
+      return client;
+    }
+
+    @Bean
+    InMemoryFileProvider inMemoryFileProvider() {
+      return new InMemoryFileProvider();
+    }
+
+    @Bean
+    @Primary
+    FileProviderFactory inMemoryFileProviderFactory(InMemoryFileProvider files) {
+      return () -> files;
+    }
+  }
+
+  /**
+   * Keeps results in memory, so the results of the k6 jobs and of the queues stay out of the file system,
+   * and when each file was written.
+   */
+  static class InMemoryFileProvider implements FileProvider {
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final Map<String, Instant> written = new ConcurrentHashMap<>();
+
+    @Override
+    public void writeToFile(String resultFile, String content) {
+      write(resultFile, content.getBytes(UTF_8));
+    }
+
+    private void write(String resultFile, byte[] content) {
+      files.put(resultFile, content);
+      written.put(resultFile, Instant.now());
+    }
+
+    Instant writtenAt(String file) {
+      return written.get(file);
+    }
+
+    @Override
+    public void writeToFile(String resultFile, String content, String contentType) {
+      writeToFile(resultFile, content);
+    }
+
+    @Override
+    public Optional<String> getFileAsString(String resultFile) {
+      return Optional.ofNullable(files.get(resultFile)).map(content -> new String(content, UTF_8));
+    }
+
+    @Override
+    public Optional<InputStream> openInputStream(String file) {
+      return Optional.ofNullable(files.get(file)).map(ByteArrayInputStream::new);
+    }
+
+    @Override
+    public OutputStream openOutputStream(String file, String contentType) {
+      return new ByteArrayOutputStream() {
+        @Override
+        public void close() {
+          write(file, toByteArray());
+        }
+      };
+    }
+  }
+
+  @DynamicPropertySource
+  static void spool(DynamicPropertyRegistry properties) {
+    properties.add("RESULT_SPOOL_DIR", () -> spoolDirectory.toString());
+  }
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    Metrics.addRegistry(registry);
+    cluster = new SimulatedCluster(server, client.getConfiguration(), files, JOB_MILLIS);
+    cluster.installCustomResourceDefinitions();
+    cluster.startJobController();
+    cluster.takeOperatorRequests();
+  }
+
+  @AfterEach
+  void tearDown() {
+    // stops the scenarios still running before the operator is closed
+    namespaces.forEach(namespace -> cluster.delete(namespace, BENCHMARK));
+    cluster.close();
+    Metrics.removeRegistry(registry);
+  }
+
+  @Test
+  void should_run_concurrent_benchmarks_to_completion() throws Exception {
+    IntStream.range(0, BENCHMARKS).forEach(i -> namespaces.add("load-" + i));
+    namespaces.forEach(cluster::seed);
+    cluster.takeOperatorRequests();
+
+    try (var report = new LoadReport("concurrent-benchmarks")) {
+      var created = new ConcurrentHashMap<String, Instant>();
+      for (var namespace : namespaces) {
+        created.put(namespace, Instant.now());
+        cluster.createBenchmark(namespace, BENCHMARK, SCENARIOS_PER_BENCHMARK, 1, null);
+      }
+      await().atMost(TIMEOUT).pollInterval(Duration.ofMillis(500)).until(() -> namespaces.stream()
+              .allMatch(namespace -> cluster.queue(namespace, BENCHMARK).map(ExecutionQueue::isDone).orElse(false)));
+      var elapsed = report.elapsed();
+      var scenarios = BENCHMARKS * SCENARIOS_PER_BENCHMARK;
+
+      for (var namespace : namespaces) {
+        var queue = cluster.queue(namespace, BENCHMARK).orElseThrow();
+        assertEquals(SCENARIOS_PER_BENCHMARK, queue.countItems(Phase.COMPLETED));
+        await().atMost(Duration.ofMinutes(1)).until(() -> files.exists(queue.getSpec().getResultFile()));
+        var results = new JsonObject(files.getFileAsString(queue.getSpec().getResultFile()).orElseThrow());
+        assertEquals(SCENARIOS_PER_BENCHMARK, results.getJsonArray("results").size());
+      }
+      assertEquals(scenarios, cluster.completedJobs());
+
+      report.put("benchmarks", BENCHMARKS)
+              .put("scenarios", scenarios)
+              .put("job_ms", JOB_MILLIS)
+              .put("scenarios_per_second", scenarios / seconds(elapsed))
+              .put("reconciles", reconciles(elapsed))
+              .put("api_calls", apiCalls(scenarios))
+              .put("latency_ms", latencies(created));
+      report.write();
+    }
+  }
+
+  @Test
+  void should_schedule_the_scenarios_of_a_large_queue_within_its_window() throws Exception {
+    var namespace = "load-queue";
+    namespaces.add(namespace);
+    cluster.seed(namespace);
+    var attempts = Math.min(QUEUE_ITEMS, 100);
+    var perTryTimeouts = Math.max(1, QUEUE_ITEMS / attempts);
+    cluster.takeOperatorRequests();
+
+    try (var report = new LoadReport("large-queue")) {
+      cluster.createBenchmark(namespace, BENCHMARK, attempts, perTryTimeouts, SCENARIO_WINDOW);
+      await().atMost(TIMEOUT).until(() -> cluster.queue(namespace, BENCHMARK).isPresent());
+      var queueCreated = report.elapsed();
+
+      await().atMost(TIMEOUT).pollInterval(Duration.ofMillis(500)).untilAsserted(() -> {
+        var queue = cluster.queue(namespace, BENCHMARK).orElseThrow();
+        assertTrue(queue.countItems(Phase.COMPLETED) >= QUEUE_SCENARIOS);
+        assertTrue(cluster.countScenarios(namespace) <= SCENARIO_WINDOW);
+      });
+      var elapsed = report.elapsed();
+      var queue = cluster.queue(namespace, BENCHMARK).orElseThrow();
+      var completed = queue.countItems(Phase.COMPLETED);
+      assertEquals(attempts * perTryTimeouts, queue.getItems().size());
+      assertTrue(cluster.countScenarios(namespace) <= SCENARIO_WINDOW);
+
+      report.put("queue_items", queue.getItems().size())
+              .put("scenario_window", SCENARIO_WINDOW)
+              .put("scenarios", completed)
+              .put("job_ms", JOB_MILLIS)
+              .put("queue_created_ms", queueCreated.toMillis())
+              .put("scenarios_per_second", completed / seconds(elapsed))
+              .put("reconciles", reconciles(elapsed))
+              .put("api_calls", apiCalls(completed))
+              .put("latency_ms", latencies(Map.of(namespace, report.start())));
+      report.write();
+    }
+  }
+
+  private JsonObject reconciles(Duration elapsed) {
+    var timer = registry.find(RECONCILE_DURATION_METRIC).timer();
+    var count = timer == null ? 0 : timer.count();
+    var json = new JsonObject()
+            .put("count", count)
+            .put("per_second", count / seconds(elapsed));
+    if (timer != null) {
+      json.put("mean_ms", timer.mean(TimeUnit.MILLISECONDS)).put("max_ms", timer.max(TimeUnit.MILLISECONDS));
+    }
+    return json;
+  }
+
+  private JsonObject apiCalls(long scenarios) throws InterruptedException {
+    var requests = cluster.takeOperatorRequests();
+    var total = requests.values().stream().mapToInt(Integer::intValue).sum();
+    var byRequest = new JsonObject();
+    requests.forEach(byRequest::put);
+    return new JsonObject()
+            .put("total", total)
+            .put("per_scenario", scenarios == 0 ? 0 : (double) total / scenarios)
+            .put("by_request", byRequest);
+  }
+
+  /**
+   * How long scenarios waited at each stage: from the creation of their benchmark to the first k6 job, from
+   * the start of their preparation to the creation of their job, and from the completion of their job to the
+   * publication of their result. The start of the preparation is read from the timeline in the result.
+   */
+  private JsonObject latencies(Map<String, Instant> created) {
+    var firstJob = new ArrayList<Duration>();
+    var preparation = new ArrayList<Duration>();
+    var completion = new ArrayList<Duration>();
+    for (var entry : created.entrySet()) {
+      var namespace = entry.getKey();
+      var queue = cluster.queue(namespace, BENCHMARK).orElseThrow();
+      Instant first = null;
+      for (var item : queue.getItems()) {
+        var scenario = item.getScenario();
+        var jobCreated = cluster.jobCreated(namespace, scenario);
+        var segment = segmentFile(queue, scenario);
+        var result = files.getFileAsString(segment).map(JsonObject::new).orElse(null);
+        if (jobCreated == null || result == null) {
+          continue;
+        }
+        first = first == null || jobCreated.isBefore(first) ? jobCreated : first;
+        var events = result.getJsonObject("timeline", new JsonObject()).getJsonObject("events", new JsonObject());
+        between(events.getString(PREPARATION_STARTED), jobCreated).ifPresent(preparation::add);
+        var jobCompleted = cluster.jobCompleted(namespace, scenario);
+        if (jobCompleted != null && files.writtenAt(segment) != null) {
+          completion.add(Duration.between(jobCompleted, files.writtenAt(segment)));
+        }
+      }
+      if (first != null) {
+        firstJob.add(Duration.between(entry.getValue(), first));
+      }
+    }
+    return new JsonObject()
+            .put("benchmark_to_first_job", LoadReport.summary(firstJob))
+            .put("preparation", LoadReport.summary(preparation))
+            .put("completion_to_result", LoadReport.summary(completion));
+  }
+
+  /**
+   * The file the result of the scenario is written to, next to the results file of the queue, as named
+   * by the result sink.
+   */
+  private static String segmentFile(ExecutionQueue queue, String scenario) {
+    var parent = Path.of(queue.getSpec().getResultFile()).getParent();
+    var segment = scenario + ".ndjson";
+    return parent == null ? segment : parent.resolve(segment).toString();
+  }
+
+  private static Optional<Duration> between(String from, Instant to) {
+    return from == null ? Optional.empty() : Optional.of(Duration.between(Instant.parse(from), to));
+  }
+
+  private static double seconds(Duration duration) {
+    return Math.max(1, duration.toMillis()) / 1000.0;
+  }
+}
@@ -0,0 +1,455 @@
+package io.resiliencebench;
+
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.api.model.batch.v1.JobStatusBuilder;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.resiliencebench.execution.io.FileProvider;
+import io.resiliencebench.execution.steps.k6.K6JobFactory;
+import io.resiliencebench.resources.benchmark.Benchmark;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.service.ResilientService;
+import io.resiliencebench.resources.workload.Workload;
+import io.vertx.core.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.resiliencebench.support.Annotations.DESTINATION_RULE;
+import static io.resiliencebench.support.Annotations.SCENARIO;
+import static io.resiliencebench.support.Annotations.VIRTUAL_SERVICE;
+
+/**
+ * The part of a cluster the operator relies on, simulated on a mock API server: the services of a benchmark
+ * with their deployments, ready pods and Istio objects, and a job controller running every k6 job for a
+ * fixed time and leaving its summary where the operator reads it. Its requests carry their own user agent,
+ * so they can be told apart from the requests of the operator.
+ */
+class SimulatedCluster implements AutoCloseable {
+
+  private final static Logger logger = LoggerFactory.getLogger(SimulatedCluster.class);
+
+  static final String USER_AGENT = "simulated-cluster";
+  static final String WORKLOAD = "load";
+  static final String SOURCE = "gateway";
+  static final String DESTINATION = "storage";
+
+  private static final List<Class<? extends CustomResource<?, ?>>> CUSTOM_RESOURCES =
+          List.of(Benchmark.class, ExecutionQueue.class, Scenario.class, ResilientService.class, Workload.class);
+
+  private final KubernetesMockServer server;
+  private final KubernetesClient client;
+  private final FileProvider fileProvider;
+  private final long jobMillis;
+  private final ScheduledExecutorService jobRunner;
+  private SharedIndexInformer<Job> jobInformer;
+
+  /**
+   * When the simulated job controller saw each job created and when it completed it, by namespace and scenario.
+   */
+  private final Map<String, Instant> jobsCreated = new ConcurrentHashMap<>();
+  private final Map<String, Instant> jobsCompleted = new ConcurrentHashMap<>();
+  private final AtomicInteger completedJobs = new AtomicInteger();
+
+  SimulatedCluster(KubernetesMockServer server, Config operatorConfig, FileProvider fileProvider, long jobMillis) {
+    this.server = server;
+    this.client = new KubernetesClientBuilder()
+            .withConfig(new ConfigBuilder(operatorConfig).withUserAgent(USER_AGENT).build())
+            .build();
+    this.fileProvider = fileProvider;
+    this.jobMillis = jobMillis;
+    var count = new AtomicInteger();
+    this.jobRunner = Executors.newScheduledThreadPool(4, runnable -> {
+      var thread = new Thread(runnable, "simulated-job-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Installs the custom resource definitions generated by the build, unless installed already, so the mock
+   * server serves their status as a subresource as a cluster would.
+   */
+  void installCustomResourceDefinitions() {
+    var definitions = client.apiextensions().v1().customResourceDefinitions();
+    for (var type : CUSTOM_RESOURCES) {
+      var name = CustomResource.getCRDName(type);
+      if (definitions.withName(name).get() != null) {
+        continue;
+      }
+      var file = "/META-INF/fabric8/" + name + "-v1.yml";
+      try (var definition = SimulatedCluster.class.getResourceAsStream(file)) {
+        if (definition == null) {
+          throw new IllegalStateException("Custom resource definition not found: " + file);
+        }
+        definitions.load(definition).create();
+      } catch (IOException e) {
+        throw new IllegalStateException("Error reading " + file, e);
+      }
+    }
+  }
+
+  /**
+   * Runs every k6 job created by the operator: once the job duration is over, its pod is recorded as
+   * scheduled and started, its summary is written to the output path of the job and the job completes.
+   */
+  void startJobController() {
+    jobInformer = client.batch().v1().jobs()
+            .inAnyNamespace()
+            .withLabel(K6JobFactory.APP_LABEL, K6JobFactory.APP_NAME)
+            .inform(new ResourceEventHandler<>() {
+              @Override
+              public void onAdd(Job job) {
+                if (job.getStatus() == null || job.getStatus().getStartTime() == null) {
+                  var started = Instant.now();
+                  jobsCreated.put(key(job), started);
+                  jobRunner.schedule(() -> complete(job, started), jobMillis, TimeUnit.MILLISECONDS);
+                }
+              }
+
+              @Override
+              public void onUpdate(Job oldJob, Job newJob) {
+              }
+
+              @Override
+              public void onDelete(Job job, boolean deletedFinalStateUnknown) {
+              }
+            });
+  }
+
+  private void complete(Job job, Instant started) {
+    try {
+      outputPath(job).ifPresent(path -> fileProvider.writeToFile(path, k6Summary().encode()));
+      createJobPod(job, started);
+      var completed = Instant.now();
+      job.setStatus(new JobStatusBuilder()
+              .withStartTime(started.toString())
+              .withCompletionTime(completed.toString())
+              .withSucceeded(1)
+              .addNewCondition().withType("Complete").withStatus("True").withLastTransitionTime(completed.toString()).endCondition()
+              .build());
+      writeStatus(job);
+      jobsCompleted.put(key(job), completed);
+      completedJobs.incrementAndGet();
+    } catch (RuntimeException e) {
+      logger.error("Error completing job {}", job.getMetadata().getName(), e);
+    }
+  }
+
+  private void createJobPod(Job job, Instant started) {
+    var pod = new PodBuilder()
+            .withNewMetadata()
+            .withName(job.getMetadata().getName() + "-pod")
+            .withNamespace(job.getMetadata().getNamespace())
+            .addToLabels("job-name", job.getMetadata().getName())
+            .endMetadata()
+            .withNewSpec()
+            .withContainers(job.getSpec().getTemplate().getSpec().getContainers())
+            .endSpec()
+            .withNewStatus()
+            .withPhase("Succeeded")
+            .addNewCondition().withType("PodScheduled").withStatus("True").withLastTransitionTime(started.toString()).endCondition()
+            .addNewContainerStatus()
+            .withName(K6JobFactory.CONTAINER_NAME)
+            .withNewState().withNewTerminated().withExitCode(0).withStartedAt(started.toString()).endTerminated().endState()
+            .endContainerStatus()
+            .endStatus()
+            .build();
+    createWithStatus(pod);
+  }
+
+  private static Optional<String> outputPath(Job job) {
+    return job.getSpec().getTemplate().getSpec().getContainers().stream()
+            .filter(container -> K6JobFactory.CONTAINER_NAME.equals(container.getName()))
+            .flatMap(container -> container.getEnv().stream())
+            .filter(env -> "OUTPUT_PATH".equals(env.getName()))
+            .map(EnvVar::getValue)
+            .findFirst();
+  }
+
+  private static JsonObject k6Summary() {
+    return new JsonObject().put("metrics", new JsonObject()
+            .put("http_req_duration", new JsonObject()
+                    .put("avg", 12.5).put("min", 1.2).put("med", 10.1).put("max", 250.3).put("p(90)", 40.2).put("p(95)", 80.7))
+            .put("http_reqs", new JsonObject().put("count", 1000).put("rate", 99.8))
+            .put("http_req_failed", new JsonObject().put("passes", 12).put("fails", 988).put("value", 0.012)));
+  }
+
+  /**
+   * Creates the namespace of a benchmark with its workload and the two services of its connector, each with
+   * a deployment whose pod is ready and the virtual service and destination rule the Istio steps patch.
+   */
+  void seed(String namespace) {
+    create(namespace, Workload.class, """
+            apiVersion: resiliencebench.io/v1beta1
+            kind: Workload
+            metadata:
+              name: %s
+            spec:
+              users: [10]
+              k6ContainerImage: grafana/k6
+              script:
+                configMap:
+                  name: k6-script
+                  file: k6.js
+            """.formatted(WORKLOAD));
+    for (var service : List.of(SOURCE, DESTINATION)) {
+      create(namespace, ResilientService.class, """
+              apiVersion: resiliencebench.io/v1beta1
+              kind: ResilientService
+              metadata:
+                name: %1$s
+                annotations:
+                  %2$s: %1$s
+                  %3$s: %1$s
+              spec:
+                selector:
+                  matchLabels:
+                    app: %1$s
+              """.formatted(service, VIRTUAL_SERVICE, DESTINATION_RULE));
+      create(namespace, Deployment.class, """
+              apiVersion: apps/v1
+              kind: Deployment
+              metadata:
+                name: %1$s
+                labels:
+                  app: %1$s
+              spec:
+                selector:
+                  matchLabels:
+                    app: %1$s
+                template:
+                  metadata:
+                    labels:
+                      app: %1$s
+                  spec:
+                    containers:
+                      - name: app
+                        image: %1$s
+              """.formatted(service));
+      var pod = Serialization.unmarshal("""
+              apiVersion: v1
+              kind: Pod
+              metadata:
+                name: %1$s-0
+                namespace: %2$s
+                labels:
+                  app: %1$s
+              spec:
+                containers:
+                  - name: app
+                    image: %1$s
+              status:
+                phase: Running
+                conditions:
+                  - type: Ready
+                    status: "True"
+              """.formatted(service, namespace), Pod.class);
+      createWithStatus(pod);
+      create(namespace, VirtualService.class, """
+              apiVersion: networking.istio.io/v1beta1
+              kind: VirtualService
+              metadata:
+                name: %1$s
+              spec:
+                hosts: [%1$s]
+                http:
+                  - route:
+                      - destination:
+                          host: %1$s
+              """.formatted(service));
+      create(namespace, DestinationRule.class, """
+              apiVersion: networking.istio.io/v1beta1
+              kind: DestinationRule
+              metadata:
+                name: %1$s
+              spec:
+                host: %1$s
+              """.formatted(service));
+    }
+  }
+
+  /**
+   * Creates a benchmark of one template whose connector retries with every combination of the given
+   * attempts and per-try timeouts, one scenario each.
+   */
+  void createBenchmark(String namespace, String name, int attempts, int perTryTimeouts, Integer scenarioWindow) {
+    create(namespace, Benchmark.class, """
+            apiVersion: resiliencebench.io/v1beta1
+            kind: Benchmark
+            metadata:
+              name: %s
+            spec:
+              workload: %s
+              autoCreateQueue: true
+              parallelism: 1
+              ordering: declared
+            %s
+              scenarios:
+                - name: retry
+                  connectors:
+                    - name: %s-%s
+                      source:
+                        name: %s
+                      destination:
+                        name: %s
+                      pattern:
+                        istio:
+                          retry:
+                            - name: attempts
+                              value: %s
+                            - name: perTryTimeout
+                              value: %s
+            """.formatted(name, WORKLOAD,
+            scenarioWindow == null ? "" : "  scenarioWindow: " + scenarioWindow,
+            SOURCE, DESTINATION, SOURCE, DESTINATION,
+            range(1, attempts), range(100, perTryTimeouts)));
+  }
+
+  private static String range(int first, int count) {
+    return IntStream.range(first, first + count).mapToObj(String::valueOf).collect(Collectors.joining(", ", "[", "]"));
+  }
+
+  Optional<ExecutionQueue> queue(String namespace, String name) {
+    return Optional.ofNullable(client.resources(ExecutionQueue.class).inNamespace(namespace).withName(name).get());
+  }
+
+  int countScenarios(String namespace) {
+    return client.resources(Scenario.class).inNamespace(namespace).list().getItems().size();
+  }
+
+  /**
+   * Deletes the benchmark with its queue, scenarios and jobs, which also stops the operator from starting
+   * its next scenarios.
+   */
+  void delete(String namespace, String name) {
+    client.resources(Benchmark.class).inNamespace(namespace).withName(name).delete();
+    client.resources(ExecutionQueue.class).inNamespace(namespace).withName(name).delete();
+    client.resources(Scenario.class).inNamespace(namespace).delete();
+    client.batch().v1().jobs().inNamespace(namespace).withLabel(K6JobFactory.APP_LABEL, K6JobFactory.APP_NAME).delete();
+  }
+
+  int completedJobs() {
+    return completedJobs.get();
+  }
+
+  /**
+   * When the simulated job controller saw the job of the scenario created, or null if it did not.
+   */
+  Instant jobCreated(String namespace, String scenario) {
+    return jobsCreated.get(namespace + "/" + scenario);
+  }
+
+  /**
+   * When the simulated job controller completed the job of the scenario, or null if it did not.
+   */
+  Instant jobCompleted(String namespace, String scenario) {
+    return jobsCompleted.get(namespace + "/" + scenario);
+  }
+
+  /**
+   * Drains the requests received by the mock server and counts those made by the operator, by method and
+   * resource. Watches are counted apart from the lists they start with.
+   */
+  Map<String, Integer> takeOperatorRequests() throws InterruptedException {
+    var counts = new TreeMap<String, Integer>();
+    for (var request = server.takeRequest(10, TimeUnit.MILLISECONDS); request != null; request = server.takeRequest(10, TimeUnit.MILLISECONDS)) {
+      if (!USER_AGENT.equals(request.getHeader("User-Agent"))) {
+        counts.merge(describe(request.getMethod(), request.getPath()), 1, Integer::sum);
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Describes a request by its method and the resource it addresses, e.g. "PATCH queues/status" for a
+   * patch on the status of a queue of any namespace.
+   */
+  static String describe(String method, String path) {
+    var query = path.indexOf('?');
+    var watch = query >= 0 && path.substring(query).contains("watch=true");
+    var segments = (query >= 0 ? path.substring(0, query) : path).split("/");
+    // /api/<version>/... or /apis/<group>/<version>/...
+    var position = segments.length > 1 && "apis".equals(segments[1]) ? 4 : 3;
+    if (segments.length > position + 2 && "namespaces".equals(segments[position])) {
+      position += 2;
+    }
+    var resource = new StringBuilder(segments.length > position ? segments[position] : path);
+    if (segments.length > position + 2) {
+      resource.append('/').append(segments[position + 2]);
+    }
+    return method + " " + resource + (watch ? " (watch)" : "");
+  }
+
+  private <T extends HasMetadata> void create(String namespace, Class<T> type, String yaml) {
+    var resource = Serialization.unmarshal(yaml, type);
+    client.resources(type).inNamespace(namespace).resource(resource).create();
+  }
+
+  /**
+   * Creates the resource and writes its status, which the server ignores on creation when it serves the
+   * status of the kind as a subresource.
+   */
+  private void createWithStatus(Pod pod) {
+    client.pods().inNamespace(pod.getMetadata().getNamespace()).resource(pod).create();
+    writeStatus(pod);
+  }
+
+  /**
+   * Writes the status of the resource through its status subresource, or with the whole resource when the
+   * server does not serve the status of the kind as a subresource.
+   */
+  private void writeStatus(HasMetadata resource) {
+    resource.getMetadata().setResourceVersion(null);
+    try {
+      client.resource(resource).updateStatus();
+    } catch (KubernetesClientException e) {
+      if (e.getCode() != 404) {
+        throw e;
+      }
+      client.resource(resource).update();
+    }
+  }
+
+  private static String key(Job job) {
+    return job.getMetadata().getNamespace() + "/" + job.getMetadata().getAnnotations().get(SCENARIO);
+  }
+
+  @Override
+  public void close() {
+    if (jobInformer != null) {
+      jobInformer.close();
+    }
+    jobRunner.shutdownNow();
+    client.close();
+  }
+}
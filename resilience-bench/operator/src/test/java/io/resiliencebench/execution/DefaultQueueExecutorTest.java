@@ -0,0 +1,237 @@
+package io.resiliencebench.execution;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.micrometer.tracing.Tracer;
+import io.resiliencebench.execution.io.ResultPublisher;
+import io.resiliencebench.execution.shard.NamespaceShardManager;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import io.resiliencebench.resources.scenario.Connector;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.scenario.ScenarioSpec;
+import io.resiliencebench.resources.scenario.Service;
+import io.resiliencebench.support.CustomResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DefaultQueueExecutorTest {
+
+  @Mock
+  private CustomResourceRepository<Scenario> scenarioRepository;
+
+  @Mock
+  private CustomResourceRepository<ExecutionQueue> executionRepository;
+
+  @Mock
+  private ScenarioExecutor scenarioExecutor;
+
+  @Mock
+  private NamespaceShardManager shardManager;
+
+  @Mock
+  private ScenarioWindow scenarioWindow;
+
+  @Mock
+  private ResultPublisher resultPublisher;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  private static ObjectMeta meta(String name) {
+    return new ObjectMetaBuilder().withName(name).withNamespace("test").build();
+  }
+
+  private void givenScenario(String name, String source, String destination) {
+    var connector = new Connector.Builder()
+            .name(name)
+            .source(new Service(source))
+            .destination(new Service(destination))
+            .build();
+    var scenario = new Scenario(new ScenarioSpec(name, null, List.of(connector)));
+    scenario.setMetadata(meta(name));
+    when(scenarioRepository.find("test", name)).thenReturn(Optional.of(scenario));
+  }
+
+  private ExecutionQueue givenQueue(int parallelism, ExecutionQueueItem... items) {
+    return givenQueue(parallelism, null, items);
+  }
+
+  private ExecutionQueue givenQueue(int parallelism, List<String> namespaces, ExecutionQueueItem... items) {
+    var queue = new ExecutionQueue(new ExecutionQueueSpec("results.json", List.of(items), "test", parallelism, namespaces), meta("benchmark"));
+    when(executionRepository.find(any(ObjectMeta.class))).thenReturn(Optional.of(queue));
+    return queue;
+  }
+
+  @Test
+  void should_run_one_item_at_a_time_by_default() {
+    givenScenario("s1", "a", "b");
+    givenScenario("s2", "c", "d");
+    var queue = givenQueue(1, new ExecutionQueueItem("s1", "s1.json"), new ExecutionQueueItem("s2", "s2.json"));
+
+    new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 4).execute(queue);
+
+    verify(scenarioExecutor, times(1)).execute(any(), any(), any());
+  }
+
+  @Test
+  void should_fill_free_slots_with_independent_scenarios() {
+    givenScenario("s1", "a", "b");
+    givenScenario("s2", "a", "c");
+    givenScenario("s3", "d", "e");
+    givenScenario("s4", "f", "g");
+    var queue = givenQueue(3,
+            new ExecutionQueueItem("s1", "s1.json"),
+            new ExecutionQueueItem("s2", "s2.json"),
+            new ExecutionQueueItem("s3", "s3.json"),
+            new ExecutionQueueItem("s4", "s4.json"));
+
+    new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 4).execute(queue);
+
+    var captor = ArgumentCaptor.forClass(Scenario.class);
+    verify(scenarioExecutor, times(3)).execute(captor.capture(), any(), any());
+    var started = captor.getAllValues().stream().map(s -> s.getMetadata().getName()).toList();
+    assertEquals(List.of("s1", "s3", "s4"), started);
+  }
+
+  @Test
+  void should_not_run_scenarios_sharing_services_with_running_items() {
+    givenScenario("s1", "a", "b");
+    givenScenario("s2", "b", "c");
+    givenScenario("s3", "d", "e");
+    var running = new ExecutionQueueItem("s1", "s1.json");
+    running.markAsRunning();
+    var queue = givenQueue(2, running, new ExecutionQueueItem("s2", "s2.json"), new ExecutionQueueItem("s3", "s3.json"));
+
+    new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 4).execute(queue);
+
+    var captor = ArgumentCaptor.forClass(Scenario.class);
+    verify(scenarioExecutor, times(1)).execute(captor.capture(), any(), any());
+    assertEquals("s3", captor.getValue().getMetadata().getName());
+  }
+
+  @Test
+  void should_respect_the_operator_wide_limit_until_a_slot_is_released() {
+    givenScenario("s1", "a", "b");
+    givenScenario("s2", "c", "d");
+    var queue = givenQueue(2, new ExecutionQueueItem("s1", "s1.json"), new ExecutionQueueItem("s2", "s2.json"));
+    var executor = new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 1);
+
+    executor.execute(queue);
+
+    var onCompletion = ArgumentCaptor.forClass(Runnable.class);
+    verify(scenarioExecutor, times(1)).execute(any(), any(), onCompletion.capture());
+
+    queue.getItem("s1").markAsCompleted();
+    onCompletion.getValue().run();
+
+    verify(scenarioExecutor, times(1)).execute(argThat(s -> s.getMetadata().getName().equals("s2")), eq(queue), any());
+  }
+
+  @Test
+  void should_dispatch_queues_waiting_for_a_slot_when_another_queue_releases_one() {
+    givenScenario("s1", "a", "b");
+    givenScenario("s2", "c", "d");
+    var first = new ExecutionQueue(new ExecutionQueueSpec("first.json", List.of(new ExecutionQueueItem("s1", "s1.json")), "first"), meta("first"));
+    var second = new ExecutionQueue(new ExecutionQueueSpec("second.json", List.of(new ExecutionQueueItem("s2", "s2.json")), "second"), meta("second"));
+    when(executionRepository.find(any(ObjectMeta.class))).thenAnswer(invocation -> {
+      ObjectMeta meta = invocation.getArgument(0);
+      return Optional.of(meta.getName().equals("first") ? first : second);
+    });
+    var executor = new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 1);
+
+    executor.execute(first);
+    executor.execute(second);
+
+    var onCompletion = ArgumentCaptor.forClass(Runnable.class);
+    verify(scenarioExecutor, times(1)).execute(any(), eq(first), onCompletion.capture());
+    verify(scenarioExecutor, never()).execute(any(), eq(second), any());
+
+    first.getItem("s1").markAsCompleted();
+    onCompletion.getValue().run();
+
+    verify(scenarioExecutor, times(1)).execute(argThat(s -> s.getMetadata().getName().equals("s2")), eq(second), any());
+  }
+
+  @Test
+  void should_not_start_an_item_again_while_it_is_being_prepared() {
+    givenScenario("s1", "a", "b");
+    givenScenario("s2", "a", "c");
+    var queue = givenQueue(2, new ExecutionQueueItem("s1", "s1.json"), new ExecutionQueueItem("s2", "s2.json"));
+    var executor = new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 4);
+
+    executor.execute(queue);
+    executor.execute(queue);
+
+    verify(scenarioExecutor, times(1)).execute(any(), any(), any());
+  }
+
+  @Test
+  void should_keep_services_busy_until_the_post_execution_steps_finish() {
+    givenScenario("s1", "a", "b");
+    givenScenario("s2", "a", "c");
+    var queue = givenQueue(2, new ExecutionQueueItem("s1", "s1.json"), new ExecutionQueueItem("s2", "s2.json"));
+    var executor = new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 4);
+
+    executor.execute(queue);
+    var onCompletion = ArgumentCaptor.forClass(Runnable.class);
+    verify(scenarioExecutor, times(1)).execute(any(), any(), onCompletion.capture());
+
+    // completed by the post-execution steps while the environment of s1 is still being restored
+    queue.getItem("s1").markAsRunning();
+    queue.getItem("s1").markAsCompleted();
+    executor.execute(queue);
+    verify(scenarioExecutor, times(1)).execute(any(), any(), any());
+
+    onCompletion.getValue().run();
+    verify(scenarioExecutor, times(1)).execute(argThat(s -> s.getMetadata().getName().equals("s2")), eq(queue), any());
+  }
+
+  @Test
+  void should_run_scenarios_sharing_services_in_different_shards() {
+    givenScenario("s1", "a", "b");
+    givenScenario("s2", "a", "b");
+    givenScenario("s3", "a", "c");
+    var queue = givenQueue(2, List.of("shard-1", "shard-2"),
+            new ExecutionQueueItem("s1", "s1.json"),
+            new ExecutionQueueItem("s2", "s2.json"),
+            new ExecutionQueueItem("s3", "s3.json"));
+
+    new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 4).execute(queue);
+
+    var captor = ArgumentCaptor.forClass(Scenario.class);
+    verify(scenarioExecutor, times(2)).execute(captor.capture(), any(), any());
+    var started = captor.getAllValues().stream()
+            .map(s -> s.getMetadata().getNamespace() + "/" + s.getMetadata().getName())
+            .toList();
+    assertEquals(List.of("shard-1/s1", "shard-2/s2"), started);
+  }
+
+  @Test
+  void should_tear_down_shards_when_all_items_finished() {
+    var item = new ExecutionQueueItem("s1", "s1.json");
+    item.markAsRunning();
+    item.markAsCompleted();
+    var queue = givenQueue(1, List.of("shard-1"), item);
+
+    new DefaultQueueExecutor(scenarioRepository, executionRepository, scenarioExecutor, shardManager, scenarioWindow, resultPublisher, Tracer.NOOP, 4).execute(queue);
+
+    verify(resultPublisher).compact(queue);
+    verify(shardManager).teardown(queue);
+    verify(scenarioExecutor, never()).execute(any(), any(), any());
+  }
+}
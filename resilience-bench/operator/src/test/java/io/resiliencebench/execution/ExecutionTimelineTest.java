@@ -0,0 +1,147 @@
+package io.resiliencebench.execution;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import io.resiliencebench.support.CustomResourceRepository;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.resiliencebench.execution.ExecutionTimeline.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExecutionTimelineTest {
+
+  @Mock
+  private CustomResourceRepository<ExecutionQueue> executionRepository;
+
+  private ExecutionTimeline timeline;
+  private ExecutionQueue queue;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    timeline = new ExecutionTimeline(executionRepository);
+    var items = List.of(new ExecutionQueueItem("s1", "s1.json"), new ExecutionQueueItem("s2", "s2.json"));
+    queue = new ExecutionQueue(new ExecutionQueueSpec("results.json", items, "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("test").build());
+  }
+
+  private List<JsonArray> patches(int times) {
+    var patch = ArgumentCaptor.forClass(String.class);
+    verify(executionRepository, times(times)).patchStatus(eq(queue), eq(PatchType.JSON), patch.capture());
+    return patch.getAllValues().stream().map(JsonArray::new).toList();
+  }
+
+  @Test
+  void should_embed_events_and_step_durations_in_the_result() {
+    var created = Instant.parse("2024-05-01T10:00:00Z");
+    timeline.start(queue, "s2");
+    timeline.record(queue, "s2", JOB_CREATED, created);
+    timeline.recordStep(queue, "s2", "EnvironmentStep", Duration.ofMillis(1500));
+
+    var json = timeline.toJson(queue, "s2");
+
+    assertNotNull(json.getJsonObject("events").getString(PREPARATION_STARTED));
+    assertEquals("2024-05-01T10:00:00Z", json.getJsonObject("events").getString(JOB_CREATED));
+    assertEquals(1500L, json.getJsonObject("step_durations_ms").getLong("EnvironmentStep"));
+    verify(executionRepository, never()).patchStatus(any(), any(), anyString());
+  }
+
+  @Test
+  void should_write_the_timeline_into_the_item_status_and_later_events_until_the_item_finishes() {
+    timeline.start(queue, "s2");
+    timeline.recordStep(queue, "s2", "EnvironmentStep", Duration.ofMillis(20));
+    timeline.flush(queue, "s2");
+    timeline.record(queue, "s2", JOB_COMPLETED);
+    timeline.finishing(queue, "s2");
+    timeline.record(queue, "s2", POST_STEPS_COMPLETED);
+
+    var patches = patches(2);
+    var first = patches.get(0);
+    assertEquals("/status/items/1/timeline", first.getJsonObject(0).getString("path"));
+    assertTrue(first.getJsonObject(0).getJsonObject("value").containsKey(PREPARATION_STARTED));
+    assertEquals("/status/items/1/stepDurations", first.getJsonObject(1).getString("path"));
+    assertEquals(20L, first.getJsonObject(1).getJsonObject("value").getLong("EnvironmentStep"));
+    assertTrue(patches.get(1).getJsonObject(0).getJsonObject("value").containsKey(JOB_COMPLETED));
+    assertTrue(timeline.toJson(queue, "s2").getJsonObject("events").containsKey(POST_STEPS_COMPLETED));
+  }
+
+  @Test
+  void should_end_once_the_post_steps_ran_and_the_result_is_published() {
+    var publication = new CompletableFuture<Void>();
+    var finalTimeline = new AtomicReference<JsonObject>();
+    timeline.start(queue, "s1");
+    timeline.flush(queue, "s1");
+    timeline.finishing(queue, "s1");
+    timeline.publishing(queue, "s1", publication, finalTimeline::set);
+    timeline.postStepsCompleted(queue, "s1");
+
+    assertNull(finalTimeline.get());
+    assertTrue(timeline.toJson(queue, "s1").getJsonObject("events").containsKey(POST_STEPS_COMPLETED));
+
+    publication.complete(null);
+
+    var events = finalTimeline.get().getJsonObject("events");
+    assertTrue(events.containsKey(POST_STEPS_COMPLETED));
+    assertTrue(events.containsKey(RESULTS_PUBLISHED));
+    var written = patches(2).get(1).getJsonObject(0);
+    assertEquals("/status/items/0/timeline", written.getString("path"));
+    assertTrue(written.getJsonObject("value").containsKey(RESULTS_PUBLISHED));
+
+    timeline.record(queue, "s1", JOB_CREATED);
+    assertTrue(timeline.toJson(queue, "s1").getJsonObject("events").isEmpty());
+  }
+
+  @Test
+  void should_end_without_the_publication_event_when_the_result_is_not_published() {
+    var finalTimeline = new AtomicReference<JsonObject>();
+    timeline.start(queue, "s1");
+    timeline.publishing(queue, "s1", CompletableFuture.failedFuture(new IOException("unavailable")), finalTimeline::set);
+    timeline.postStepsCompleted(queue, "s1");
+
+    assertFalse(finalTimeline.get().getJsonObject("events").containsKey(RESULTS_PUBLISHED));
+    assertTrue(timeline.toJson(queue, "s1").getJsonObject("events").isEmpty());
+  }
+
+  @Test
+  void should_end_once_the_post_steps_ran_when_nothing_is_published() {
+    timeline.start(queue, "s1");
+    timeline.postStepsCompleted(queue, "s1");
+
+    assertTrue(patches(1).get(0).getJsonObject(0).getJsonObject("value").containsKey(POST_STEPS_COMPLETED));
+    assertTrue(timeline.toJson(queue, "s1").getJsonObject("events").isEmpty());
+  }
+
+  @Test
+  void should_not_end_the_timeline_of_a_newer_run() {
+    var publication = new CompletableFuture<Void>();
+    timeline.start(queue, "s1");
+    timeline.publishing(queue, "s1", publication, ignored -> fail("Ended the timeline of the previous run"));
+    timeline.postStepsCompleted(queue, "s1");
+    timeline.start(queue, "s1");
+
+    publication.complete(null);
+
+    assertFalse(timeline.toJson(queue, "s1").getJsonObject("events").containsKey(RESULTS_PUBLISHED));
+    assertTrue(timeline.toJson(queue, "s1").getJsonObject("events").containsKey(PREPARATION_STARTED));
+  }
+}
@@ -0,0 +1,140 @@
+package io.resiliencebench.execution;
+
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.api.model.batch.v1.JobBuilder;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Indexer;
+import io.resiliencebench.execution.steps.k6.K6JobFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static io.resiliencebench.support.Annotations.CREATED_BY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JobCompletionNotifierTest {
+
+  @Mock
+  private SharedIndexInformer<Job> informer;
+
+  @Mock
+  private Indexer<Job> store;
+
+  @Mock
+  private ExecutorService executor;
+
+  private JobCompletionNotifier notifier;
+  private ResourceEventHandler<Job> eventHandler;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(informer.getStore()).thenReturn(store);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(executor).execute(any());
+
+    notifier = new JobCompletionNotifier(informer, executor);
+
+    var handler = ArgumentCaptor.forClass(ResourceEventHandler.class);
+    verify(informer).addEventHandler(handler.capture());
+    eventHandler = handler.getValue();
+  }
+
+  private static JobBuilder job(String uid) {
+    return new JobBuilder()
+            .withNewMetadata()
+            .withNamespace("test")
+            .withName("k6-s1")
+            .withUid(uid)
+            .addToAnnotations(CREATED_BY, K6JobFactory.CREATOR)
+            .endMetadata();
+  }
+
+  private static Job running(String uid) {
+    return job(uid).withNewStatus().withActive(1).endStatus().build();
+  }
+
+  private static Job completed(String uid) {
+    return job(uid).withNewStatus().withCompletionTime("2024-01-01T00:00:00Z").endStatus().build();
+  }
+
+  private static Job failed(String uid) {
+    return job(uid).withNewStatus().addNewCondition().withType("Failed").withStatus("True").endCondition().endStatus().build();
+  }
+
+  @Test
+  void should_notify_once_when_the_job_completes() {
+    var finished = new ArrayList<Job>();
+    notifier.onCompletion(running("uid-1"), finished::add);
+
+    eventHandler.onUpdate(running("uid-1"), running("uid-1"));
+    assertTrue(finished.isEmpty());
+
+    eventHandler.onUpdate(running("uid-1"), completed("uid-1"));
+    eventHandler.onUpdate(completed("uid-1"), completed("uid-1"));
+
+    assertEquals(1, finished.size());
+  }
+
+  @Test
+  void should_treat_failed_jobs_as_finished() {
+    var finished = new ArrayList<Job>();
+    notifier.onCompletion(running("uid-1"), finished::add);
+
+    eventHandler.onUpdate(running("uid-1"), failed("uid-1"));
+
+    assertEquals(1, finished.size());
+  }
+
+  @Test
+  void should_notify_jobs_finished_before_the_callback_was_registered() {
+    when(store.getByKey("test/k6-s1")).thenReturn(completed("uid-1"));
+    var finished = new ArrayList<Job>();
+
+    notifier.onCompletion(running("uid-1"), finished::add);
+
+    assertEquals(1, finished.size());
+  }
+
+  @Test
+  void should_ignore_previous_jobs_with_the_same_name() {
+    var finished = new ArrayList<Job>();
+    notifier.onCompletion(running("uid-2"), finished::add);
+
+    eventHandler.onUpdate(running("uid-1"), completed("uid-1"));
+
+    assertEquals(List.of(), finished);
+  }
+
+  @Test
+  void should_notify_jobs_deleted_before_finishing_as_failed() {
+    var finished = new ArrayList<Job>();
+    notifier.onCompletion(running("uid-1"), finished::add);
+
+    eventHandler.onDelete(running("uid-1"), false);
+    eventHandler.onUpdate(running("uid-1"), completed("uid-1"));
+
+    assertEquals(1, finished.size());
+    assertNull(finished.get(0).getStatus().getCompletionTime());
+  }
+
+  @Test
+  void should_ignore_jobs_not_created_by_the_operator() {
+    var job = completed("uid-1");
+    job.getMetadata().getAnnotations().clear();
+
+    assertFalse(JobCompletionNotifier.isFinished(job));
+  }
+}
@@ -0,0 +1,71 @@
+package io.resiliencebench.execution;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import io.resiliencebench.execution.steps.ExecutorStep;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import io.resiliencebench.resources.scenario.Scenario;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static io.resiliencebench.execution.ScenarioTracer.*;
+import static io.resiliencebench.support.CustomResourceRepository.EXECUTION_ID_LABEL;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioTracerTest {
+
+  private final SimpleTracer tracer = new SimpleTracer();
+  private final ScenarioTracer scenarioTracer = new ScenarioTracer(tracer);
+
+  private static class EnvironmentStep extends ExecutorStep {
+    EnvironmentStep() {
+      super(null);
+    }
+
+    @Override
+    protected boolean isApplicable(Scenario scenario) {
+      return true;
+    }
+
+    @Override
+    protected void internalExecute(Scenario scenario, ExecutionQueue queue) {
+    }
+  }
+
+  private static ExecutionQueue queue() {
+    return new ExecutionQueue(new ExecutionQueueSpec("results.json", List.of(new ExecutionQueueItem("s1", "s1.json")), "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("test")
+                    .withLabels(Map.of(EXECUTION_ID_LABEL, "exec-1")).build());
+  }
+
+  private SimpleSpan span(String name) {
+    return tracer.getSpans().stream().filter(span -> name.equals(span.getName())).findFirst().orElseThrow();
+  }
+
+  @Test
+  void should_trace_the_steps_of_a_scenario_in_its_trace() {
+    var queue = queue();
+    var step = new EnvironmentStep();
+    scenarioTracer.start(queue, "s1");
+
+    var listener = scenarioTracer.stepListener(queue, "s1");
+    listener.onStart(step);
+    listener.onComplete(step, Duration.ofMillis(10), new IllegalStateException("rollout failed"));
+    scenarioTracer.end(queue, "s1", null);
+
+    var scenario = span("scenario");
+    var stepSpan = span("step EnvironmentStep");
+    assertEquals(scenario.context().traceId(), stepSpan.context().traceId());
+    assertEquals(scenario.context().spanId(), stepSpan.context().parentId());
+    assertEquals("exec-1", stepSpan.getTags().get(EXECUTION_ID_TAG));
+    assertEquals("s1", stepSpan.getTags().get(SCENARIO_TAG));
+    assertEquals("benchmark", scenario.getTags().get(QUEUE_TAG));
+    assertInstanceOf(IllegalStateException.class, stepSpan.getError());
+  }
+}
@@ -0,0 +1,125 @@
+package io.resiliencebench.execution.io;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static io.resiliencebench.execution.io.ColumnarResultWriter.ColumnType.*;
+import static io.resiliencebench.support.CustomResourceRepository.EXECUTION_ID_LABEL;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarResultWriterTest {
+
+  @TempDir
+  private Path directory;
+
+  private ExecutionQueue queue(String... scenarios) {
+    var items = List.of(scenarios).stream()
+            .map(s -> new ExecutionQueueItem(s, directory.resolve(s + ".json").toString()))
+            .toList();
+    return new ExecutionQueue(new ExecutionQueueSpec(directory.resolve("results.json").toString(), items, "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("test")
+                    .withLabels(Map.of(EXECUTION_ID_LABEL, "exec-1")).build());
+  }
+
+  private static JsonObject result(String scenario, Object latency, int retries) {
+    return new JsonObject()
+            .put("scenario", scenario)
+            .put("metrics", new JsonObject().put("latency", latency))
+            .put("connectors", new JsonArray().add(new JsonObject()
+                    .put("name", "api-storage")
+                    .put("retry_attempts", retries)))
+            .put("fault_services", new JsonArray().add("storage"));
+  }
+
+  @Test
+  void should_flatten_nested_objects_and_named_arrays() {
+    var row = ColumnarResultWriter.flatten(result("s1", 10, 3));
+
+    assertEquals(Map.of(
+            "scenario", "s1",
+            "metrics_latency", 10,
+            "connectors_api-storage_retry_attempts", 3,
+            "fault_services", "[\"storage\"]"), row);
+  }
+
+  @Test
+  void should_widen_column_types_across_rows() {
+    var columns = new LinkedHashMap<String, ColumnarResultWriter.ColumnType>();
+    ColumnarResultWriter.addColumns(columns, Map.of("latency", 10, "name", "a", "ok", true));
+    ColumnarResultWriter.addColumns(columns, Map.of("latency", 10.5, "name", 1, "ok", true));
+
+    assertEquals(Map.of("latency", DOUBLE, "name", STRING, "ok", BOOLEAN), columns);
+  }
+
+  @Test
+  void should_write_one_row_per_scenario_named_after_the_execution_id() throws IOException {
+    var fileProvider = new LocalFileProvider();
+    var resultSink = new ResultSink(() -> fileProvider);
+    var queue = queue("s1", "s2", "s3");
+    resultSink.append(queue, "s1", result("s1", 10, 3));
+    resultSink.append(queue, "s3", result("s3", 12.5, 5));
+
+    new ColumnarResultWriter(() -> fileProvider, resultSink, true).write(queue);
+
+    try (var allocator = new RootAllocator();
+         var channel = FileChannel.open(directory.resolve("exec-1.arrow"), READ);
+         var reader = new ArrowFileReader(channel, allocator)) {
+      assertTrue(reader.loadNextBatch());
+      var root = reader.getVectorSchemaRoot();
+      assertEquals(2, root.getRowCount());
+      assertEquals("s3", ((VarCharVector) root.getVector("scenario")).getObject(1).toString());
+      assertEquals(12.5, ((Float8Vector) root.getVector("metrics_latency")).get(1));
+      assertEquals(3, ((BigIntVector) root.getVector("connectors_api-storage_retry_attempts")).get(0));
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  void should_write_results_in_batches_with_the_columns_of_every_result() throws IOException {
+    var fileProvider = new LocalFileProvider();
+    var resultSink = new ResultSink(() -> fileProvider);
+    var scenarios = IntStream.range(0, 1500).mapToObj(i -> "s" + i).toArray(String[]::new);
+    var queue = queue(scenarios);
+    for (int i = 0; i < scenarios.length; i++) {
+      resultSink.append(queue, scenarios[i], result(scenarios[i], i, 1));
+    }
+    resultSink.append(queue, "s1499", result("s1499", 1499, 1).put("late", true));
+
+    new ColumnarResultWriter(() -> fileProvider, resultSink, true).write(queue);
+
+    try (var allocator = new RootAllocator();
+         var channel = FileChannel.open(directory.resolve("exec-1.arrow"), READ);
+         var reader = new ArrowFileReader(channel, allocator)) {
+      assertEquals(2, reader.getRecordBlocks().size());
+      assertTrue(reader.loadNextBatch());
+      assertEquals(1024, reader.getVectorSchemaRoot().getRowCount());
+      assertTrue(reader.getVectorSchemaRoot().getVector("late").isNull(0));
+      assertTrue(reader.loadNextBatch());
+      var root = reader.getVectorSchemaRoot();
+      assertEquals(476, root.getRowCount());
+      assertEquals(1499, ((BigIntVector) root.getVector("metrics_latency")).get(475));
+      assertEquals(1, ((BitVector) root.getVector("late")).get(475));
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package io.resiliencebench.execution.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeduplicatingFileProviderTest {
+
+  @TempDir
+  private Path directory;
+
+  private final LocalFileProvider storage = new LocalFileProvider();
+
+  private DeduplicatingFileProvider fileProvider() {
+    return new DeduplicatingFileProvider(storage, directory.resolve("blobs").toString());
+  }
+
+  private long countBlobs() throws IOException {
+    try (var files = Files.walk(directory.resolve("blobs"))) {
+      return files.filter(Files::isRegularFile).count();
+    }
+  }
+
+  @Test
+  void should_store_identical_content_once() throws IOException {
+    var fileProvider = fileProvider();
+    var first = directory.resolve("run-1/summary.json").toString();
+    var second = directory.resolve("run-2/summary.json").toString();
+
+    fileProvider.writeToFile(first, "{\"http_reqs\":1000}", "application/json");
+    fileProvider.writeToFile(second, "{\"http_reqs\":1000}", "application/json");
+
+    assertEquals(1, countBlobs());
+    assertTrue(storage.exists(DeduplicatingFileProvider.manifestFile(first)));
+    assertTrue(storage.exists(DeduplicatingFileProvider.manifestFile(second)));
+    assertEquals("{\"http_reqs\":1000}", fileProvider.getFileAsString(second).orElseThrow());
+  }
+
+  @Test
+  void should_compress_the_blobs() throws IOException {
+    var fileProvider = fileProvider();
+    var content = "{\"metric\":1}".repeat(1000);
+    var file = directory.resolve("summary.json").toString();
+
+    try (var outputStream = fileProvider.openOutputStream(file, "application/json")) {
+      outputStream.write(content.getBytes(UTF_8));
+    }
+
+    try (var files = Files.walk(directory.resolve("blobs"))) {
+      var blob = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+      assertTrue(Files.size(blob) < content.length() / 10);
+      try (var inputStream = new GZIPInputStream(Files.newInputStream(blob))) {
+        assertEquals(content, new String(inputStream.readAllBytes(), UTF_8));
+      }
+    }
+    try (var inputStream = fileProvider.openInputStream(file).orElseThrow()) {
+      assertEquals(content, new String(inputStream.readAllBytes(), UTF_8));
+    }
+  }
+
+  @Test
+  void should_read_files_written_without_manifest() {
+    var file = directory.resolve("k6/summary.json").toString();
+    storage.writeToFile(file, "{\"http_reqs\":10}");
+
+    var fileProvider = fileProvider();
+
+    assertTrue(fileProvider.exists(file));
+    assertEquals("{\"http_reqs\":10}", fileProvider.getFileAsString(file).orElseThrow());
+  }
+
+  @Test
+  void should_copy_files_through_the_blob_store() throws IOException {
+    var fileProvider = fileProvider();
+    var source = directory.resolve("results.arrow");
+    Files.write(source, new byte[] { 1, 2, 3 });
+    var file = directory.resolve("copy/results.arrow").toString();
+
+    fileProvider.copyFrom(source, file, "application/vnd.apache.arrow.file");
+
+    try (var inputStream = fileProvider.openInputStream(file).orElseThrow()) {
+      assertArrayEquals(new byte[] { 1, 2, 3 }, inputStream.readAllBytes());
+    }
+    assertFalse(storage.exists(file));
+  }
+}
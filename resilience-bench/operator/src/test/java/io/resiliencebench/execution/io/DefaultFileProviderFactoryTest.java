@@ -70,4 +70,13 @@ class DefaultFileProviderFactoryTest {
     var result = factory.create();
     assertEquals(localFileProvider, result);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testCreateWithDeduplicatedStorage() {
+    when(env.getProperty("STORAGE_TYPE")).thenReturn("CLOUD");
+    when(env.getProperty("STORAGE_DEDUP_ENABLED", Boolean.class)).thenReturn(true);
+    when(env.getProperty("STORAGE_DEDUP_BLOB_DIR", "/results/.blobs")).thenReturn("/results/.blobs");
+    var result = factory.create();
+    assertInstanceOf(DeduplicatingFileProvider.class, result);
+  }
+}
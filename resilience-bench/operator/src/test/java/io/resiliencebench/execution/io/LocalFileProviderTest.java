@@ -0,0 +1,54 @@
+package io.resiliencebench.execution.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFileProviderTest {
+
+  @TempDir
+  private Path directory;
+
+  private final LocalFileProvider fileProvider = new LocalFileProvider();
+
+  @Test
+  void should_read_and_write_utf8_content() {
+    var file = directory.resolve("results/ação.json").toString();
+
+    fileProvider.writeToFile(file, "{\"name\":\"ação\"}", "application/json");
+
+    assertEquals("{\"name\":\"ação\"}", fileProvider.getFileAsString(file).orElseThrow());
+  }
+
+  @Test
+  void should_stream_content() throws IOException {
+    var file = directory.resolve("stream/results.json").toString();
+
+    try (var outputStream = fileProvider.openOutputStream(file, "application/json")) {
+      outputStream.write("{\"results\":[]}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    try (var inputStream = fileProvider.openInputStream(file).orElseThrow()) {
+      assertEquals("{\"results\":[]}", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    assertTrue(fileProvider.openInputStream(directory.resolve("missing.json").toString()).isEmpty());
+  }
+
+  @Test
+  void should_copy_local_files() throws IOException {
+    var source = directory.resolve("summary.json");
+    var content = "x".repeat(1024 * 1024);
+    Files.writeString(source, content);
+    var target = directory.resolve("copy/summary.json").toString();
+
+    fileProvider.copyFrom(source, target, "application/json");
+
+    assertEquals(content, fileProvider.getFileAsString(target).orElseThrow());
+  }
+}
@@ -0,0 +1,201 @@
+package io.resiliencebench.execution.io;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.micrometer.tracing.Tracer;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultPublisherTest {
+
+  private static class InMemoryFileProvider implements FileProvider {
+    private final Map<String, String> files = new ConcurrentHashMap<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger writes = new AtomicInteger();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @Override
+    public void writeToFile(String resultFile, String content) {
+      files.put(resultFile, content);
+    }
+
+    @Override
+    public void writeToFile(String resultFile, String content, String contentType) {
+      files.put(resultFile, content);
+    }
+
+    @Override
+    public Optional<String> getFileAsString(String resultFile) {
+      return Optional.ofNullable(files.get(resultFile));
+    }
+
+    @Override
+    public Optional<InputStream> openInputStream(String file) {
+      return getFileAsString(file).map(content -> new ByteArrayInputStream(content.getBytes(UTF_8)));
+    }
+
+    @Override
+    public OutputStream openOutputStream(String file, String contentType) throws IOException {
+      try {
+        gate.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      writes.incrementAndGet();
+      if (failures.getAndDecrement() > 0) {
+        throw new IOException("Storage unavailable");
+      }
+      return new ByteArrayOutputStream() {
+        @Override
+        public void close() {
+          files.put(file, toString(UTF_8));
+        }
+      };
+    }
+  }
+
+  @TempDir
+  private Path spoolDirectory;
+
+  private final InMemoryFileProvider fileProvider = new InMemoryFileProvider();
+  private final List<ResultPublisher> publishers = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    publishers.forEach(ResultPublisher::close);
+  }
+
+  private ResultPublisher publisher(int maxAttempts) {
+    var resultSink = new ResultSink(() -> fileProvider);
+    var publisher = new ResultPublisher(() -> fileProvider, resultSink,
+            new ColumnarResultWriter(() -> fileProvider, resultSink, false), Tracer.NOOP,
+            spoolDirectory.toString(), 2, 16, maxAttempts, 1);
+    publishers.add(publisher);
+    return publisher;
+  }
+
+  private static ExecutionQueue queue(String... scenarios) {
+    var items = List.of(scenarios).stream().map(s -> new ExecutionQueueItem(s, "2024/" + s + ".json")).toList();
+    return new ExecutionQueue(new ExecutionQueueSpec("2024/results.json", items, "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("test").build());
+  }
+
+  private static void eventually(BooleanSupplier condition) throws InterruptedException {
+    var deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("Condition not met in time");
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  private static boolean isEmpty(Path directory) {
+    try (var files = Files.list(directory)) {
+      return files.findAny().isEmpty();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Test
+  void should_publish_the_result_with_its_metadata_in_the_background() throws InterruptedException {
+    fileProvider.files.put("2024/s1.json", "{\"latency\":10}");
+
+    publisher(3).publish(queue("s1"), "s1", "2024/s1.json", new JsonObject().put("scenario", "s1"));
+
+    eventually(() -> fileProvider.files.containsKey("2024/s1.ndjson"));
+    var result = new JsonObject(fileProvider.files.get("2024/s1.ndjson").trim());
+    assertEquals(10, result.getInteger("latency"));
+    assertEquals("s1", result.getString("scenario"));
+    eventually(() -> isEmpty(spoolDirectory));
+  }
+
+  @Test
+  void should_retry_failed_publications() throws InterruptedException {
+    fileProvider.files.put("2024/s1.json", "{\"latency\":10}");
+    fileProvider.failures.set(2);
+
+    publisher(3).publish(queue("s1"), "s1", "2024/s1.json", new JsonObject());
+
+    eventually(() -> fileProvider.files.containsKey("2024/s1.ndjson"));
+    assertEquals(3, fileProvider.writes.get());
+  }
+
+  @Test
+  void should_publish_spooled_results_after_a_restart() throws InterruptedException {
+    fileProvider.files.put("2024/s1.json", "{\"latency\":10}");
+    fileProvider.failures.set(1);
+    var publisher = publisher(1);
+    publisher.publish(queue("s1"), "s1", "2024/s1.json", new JsonObject());
+    eventually(() -> fileProvider.writes.get() == 1);
+    publisher.close();
+    assertFalse(isEmpty(spoolDirectory));
+
+    publisher(1);
+
+    eventually(() -> fileProvider.files.containsKey("2024/s1.ndjson"));
+    eventually(() -> isEmpty(spoolDirectory));
+  }
+
+  @Test
+  void should_compact_once_the_pending_results_are_published() throws InterruptedException {
+    fileProvider.files.put("2024/s1.json", "{\"latency\":10}");
+    fileProvider.gate = new CountDownLatch(1);
+    var queue = queue("s1");
+    var publisher = publisher(3);
+
+    publisher.publish(queue, "s1", "2024/s1.json", new JsonObject().put("scenario", "s1"));
+    publisher.compact(queue);
+    Thread.sleep(50);
+    assertFalse(fileProvider.files.containsKey("2024/results.json"));
+    fileProvider.gate.countDown();
+
+    eventually(() -> fileProvider.files.containsKey("2024/results.json"));
+    var results = new JsonObject(fileProvider.files.get("2024/results.json")).getJsonArray("results");
+    assertEquals(1, results.size());
+    assertEquals("s1", results.getJsonObject(0).getString("scenario"));
+  }
+
+  @Test
+  void should_hold_the_compaction_back_for_results_published_again_once_published() throws InterruptedException {
+    fileProvider.files.put("2024/s1.json", "{\"latency\":10}");
+    fileProvider.gate = new CountDownLatch(1);
+    var queue = queue("s1");
+    var publisher = publisher(3);
+
+    publisher.publish(queue, "s1", "2024/s1.json", new JsonObject().put("final", false))
+            .thenRun(() -> publisher.publish(queue, "s1", "2024/s1.json", new JsonObject().put("final", true)));
+    publisher.compact(queue);
+    fileProvider.gate.countDown();
+
+    eventually(() -> fileProvider.files.containsKey("2024/results.json"));
+    var results = new JsonObject(fileProvider.files.get("2024/results.json")).getJsonArray("results");
+    assertEquals(1, results.size());
+    assertTrue(results.getJsonObject(0).getBoolean("final"));
+  }
+}
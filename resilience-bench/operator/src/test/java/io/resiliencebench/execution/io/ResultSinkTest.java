@@ -0,0 +1,97 @@
+package io.resiliencebench.execution.io;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultSinkTest {
+
+  private static class InMemoryFileProvider implements FileProvider {
+    private final Map<String, String> files = new HashMap<>();
+
+    @Override
+    public void writeToFile(String resultFile, String content) {
+      files.put(resultFile, content);
+    }
+
+    @Override
+    public void writeToFile(String resultFile, String content, String contentType) {
+      files.put(resultFile, content);
+    }
+
+    @Override
+    public Optional<String> getFileAsString(String resultFile) {
+      return Optional.ofNullable(files.get(resultFile));
+    }
+
+    @Override
+    public Optional<InputStream> openInputStream(String file) {
+      return getFileAsString(file).map(content -> new ByteArrayInputStream(content.getBytes(UTF_8)));
+    }
+
+    @Override
+    public OutputStream openOutputStream(String file, String contentType) {
+      return new ByteArrayOutputStream() {
+        @Override
+        public void close() {
+          files.put(file, toString(UTF_8));
+        }
+      };
+    }
+  }
+
+  private final InMemoryFileProvider fileProvider = new InMemoryFileProvider();
+  private final ResultSink resultSink = new ResultSink(() -> fileProvider);
+
+  private static ExecutionQueue queue(String... scenarios) {
+    var items = List.of(scenarios).stream().map(s -> new ExecutionQueueItem(s, "2024/" + s + ".json")).toList();
+    return new ExecutionQueue(new ExecutionQueueSpec("2024/results.json", items, "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("test").build());
+  }
+
+  @Test
+  void should_write_one_segment_per_scenario() throws IOException {
+    var queue = queue("s1", "s2");
+
+    resultSink.append(queue, "s2", new JsonObject().put("scenario", "s2"));
+
+    assertEquals(Map.of("2024/s2.ndjson", "{\"scenario\":\"s2\"}\n"), fileProvider.files);
+  }
+
+  @Test
+  void should_compact_the_segments_in_queue_order() throws IOException {
+    var queue = queue("s1", "s2", "s3");
+    resultSink.append(queue, "s3", new JsonObject().put("scenario", "s3"));
+    resultSink.append(queue, "s1", new JsonObject().put("scenario", "s1"));
+
+    resultSink.compact(queue);
+
+    var results = new JsonObject(fileProvider.files.get("2024/results.json")).getJsonArray("results");
+    assertEquals(2, results.size());
+    assertEquals("s1", results.getJsonObject(0).getString("scenario"));
+    assertEquals("s3", results.getJsonObject(1).getString("scenario"));
+  }
+
+  @Test
+  void should_write_empty_results_without_segments() {
+    resultSink.compact(queue("s1"));
+
+    assertEquals("{\"results\":[]}", fileProvider.files.get("2024/results.json"));
+  }
+}
@@ -0,0 +1,218 @@
+package io.resiliencebench.execution.io;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3FileProviderTest {
+
+  private static final int MB = 1024 * 1024;
+
+  @TempDir
+  private Path directory;
+
+  private FakeS3 s3;
+  private S3FileProvider fileProvider;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    s3 = new FakeS3();
+    var s3Client = AmazonS3ClientBuilder.standard()
+            .withEndpointConfiguration(new EndpointConfiguration("http://localhost:" + s3.port(), "us-east-1"))
+            .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("test", "test")))
+            .withPathStyleAccessEnabled(true)
+            .withChunkedEncodingDisabled(true)
+            .build();
+    fileProvider = new S3FileProvider("bucket", s3Client, Tracer.NOOP, 1, 3);
+  }
+
+  @AfterEach
+  void tearDown() {
+    fileProvider.close();
+    s3.stop();
+  }
+
+  private static byte[] randomBytes(int size) {
+    var bytes = new byte[size];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+
+  @Test
+  void should_upload_small_files_in_a_single_request() {
+    fileProvider.writeToFile("results.json", "{\"results\":[]}", "application/json");
+
+    assertEquals("{\"results\":[]}", fileProvider.getFileAsString("results.json").orElseThrow());
+    assertEquals(0, s3.partsUploaded.get());
+  }
+
+  @Test
+  void should_stream_large_content_in_parallel_parts() throws IOException {
+    var content = randomBytes(3 * MB + 100);
+
+    try (var outputStream = fileProvider.openOutputStream("timeseries.bin", "application/octet-stream")) {
+      for (int offset = 0; offset < content.length; offset += 64 * 1024) {
+        outputStream.write(content, offset, Math.min(64 * 1024, content.length - offset));
+      }
+    }
+
+    assertArrayEquals(content, s3.objects.get("timeseries.bin"));
+    assertEquals(4, s3.partsUploaded.get());
+    try (var inputStream = fileProvider.openInputStream("timeseries.bin").orElseThrow()) {
+      assertArrayEquals(content, inputStream.readAllBytes());
+    }
+  }
+
+  @Test
+  void should_copy_large_files_with_the_transfer_manager() throws IOException {
+    var content = randomBytes(5 * MB / 2);
+    var source = directory.resolve("timeseries.bin");
+    Files.write(source, content);
+
+    fileProvider.copyFrom(source, "copy/timeseries.bin", "application/octet-stream");
+
+    assertArrayEquals(content, s3.objects.get("copy/timeseries.bin"));
+    assertEquals(3, s3.partsUploaded.get());
+  }
+
+  /**
+   * The subset of the S3 API used by the provider: single puts, gets and multipart uploads, with
+   * path-style addressing.
+   */
+  private static class FakeS3 {
+    private final HttpServer server;
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final AtomicInteger partsUploaded = new AtomicInteger();
+    private final AtomicInteger uploadIds = new AtomicInteger();
+
+    FakeS3() throws IOException {
+      server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+      server.setExecutor(Executors.newFixedThreadPool(8));
+      server.createContext("/bucket/", this::handle);
+      server.start();
+    }
+
+    int port() {
+      return server.getAddress().getPort();
+    }
+
+    void stop() {
+      server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+      try {
+        var key = exchange.getRequestURI().getPath().substring("/bucket/".length());
+        var query = query(exchange.getRequestURI().getRawQuery());
+        var body = exchange.getRequestBody().readAllBytes();
+        switch (exchange.getRequestMethod()) {
+          case "PUT" -> {
+            if (query.containsKey("uploadId")) {
+              uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), body);
+              partsUploaded.incrementAndGet();
+            } else {
+              objects.put(key, body);
+            }
+            exchange.getResponseHeaders().add("ETag", "\"" + md5(body) + "\"");
+            exchange.sendResponseHeaders(200, -1);
+          }
+          case "POST" -> {
+            if (query.containsKey("uploads")) {
+              var uploadId = "upload-" + uploadIds.incrementAndGet();
+              uploads.put(uploadId, new TreeMap<>());
+              xml(exchange, "<InitiateMultipartUploadResult><Bucket>bucket</Bucket><Key>" + key
+                      + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+            } else {
+              var parts = uploads.remove(query.get("uploadId"));
+              var content = new ByteArrayOutputStream();
+              parts.values().forEach(content::writeBytes);
+              objects.put(key, content.toByteArray());
+              xml(exchange, "<CompleteMultipartUploadResult><Location>http://localhost/bucket/" + key
+                      + "</Location><Bucket>bucket</Bucket><Key>" + key + "</Key><ETag>\"" + md5(content.toByteArray())
+                      + "-" + parts.size() + "\"</ETag></CompleteMultipartUploadResult>");
+            }
+          }
+          case "DELETE" -> {
+            uploads.remove(query.get("uploadId"));
+            exchange.sendResponseHeaders(204, -1);
+          }
+          case "GET" -> {
+            var content = objects.get(key);
+            if (content == null) {
+              xml(exchange, 404, "<Error><Code>NoSuchKey</Code><Message>Not found</Message></Error>");
+              return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"" + md5(content) + "\"");
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, content.length);
+            exchange.getResponseBody().write(content);
+          }
+          default -> exchange.sendResponseHeaders(405, -1);
+        }
+      } finally {
+        exchange.close();
+      }
+    }
+
+    private static void xml(HttpExchange exchange, String body) throws IOException {
+      xml(exchange, 200, body);
+    }
+
+    private static void xml(HttpExchange exchange, int status, String body) throws IOException {
+      var bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/xml");
+      exchange.sendResponseHeaders(status, bytes.length);
+      exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+      var query = new HashMap<String, String>();
+      if (rawQuery == null) {
+        return query;
+      }
+      for (var parameter : rawQuery.split("&")) {
+        var pair = parameter.split("=", 2);
+        query.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "");
+      }
+      return query;
+    }
+
+    private static String md5(byte[] content) {
+      try {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package io.resiliencebench.execution.io;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class S3MultipartOutputStreamTest {
+
+  @Mock
+  private AmazonS3 s3Client;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    var initiated = new InitiateMultipartUploadResult();
+    initiated.setUploadId("upload-1");
+    when(s3Client.initiateMultipartUpload(any())).thenReturn(initiated);
+    when(s3Client.uploadPart(any())).thenAnswer(invocation -> {
+      UploadPartRequest request = invocation.getArgument(0);
+      var result = new UploadPartResult();
+      result.setPartNumber(request.getPartNumber());
+      result.setETag("etag-" + request.getPartNumber());
+      return result;
+    });
+  }
+
+  @Test
+  void should_put_small_content_in_a_single_request() throws IOException {
+    try (var outputStream = new S3MultipartOutputStream(s3Client, "bucket", "results.json", "application/json", 8, Runnable::run, 2)) {
+      outputStream.write("small".getBytes());
+    }
+
+    var request = ArgumentCaptor.forClass(PutObjectRequest.class);
+    verify(s3Client).putObject(request.capture());
+    assertEquals(5, request.getValue().getMetadata().getContentLength());
+    verify(s3Client, never()).initiateMultipartUpload(any());
+  }
+
+  @Test
+  void should_grow_the_buffer_as_content_is_written() throws IOException {
+    var content = new byte[20_000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    try (var outputStream = new S3MultipartOutputStream(s3Client, "bucket", "results.json", "application/json", 1024 * 1024, Runnable::run, 2)) {
+      outputStream.write(content, 0, 100);
+      outputStream.write(content, 100, content.length - 100);
+    }
+
+    var request = ArgumentCaptor.forClass(PutObjectRequest.class);
+    verify(s3Client).putObject(request.capture());
+    assertEquals(content.length, request.getValue().getMetadata().getContentLength());
+    assertArrayEquals(content, request.getValue().getInputStream().readAllBytes());
+  }
+
+  @Test
+  void should_upload_large_content_in_parts() throws IOException {
+    try (var outputStream = new S3MultipartOutputStream(s3Client, "bucket", "results.json", "application/json", 8, Runnable::run, 2)) {
+      outputStream.write("0123456789".getBytes());
+      outputStream.write("0123456789".getBytes());
+    }
+
+    var parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+    verify(s3Client, times(3)).uploadPart(parts.capture());
+    assertEquals(List.of(8L, 8L, 4L), parts.getAllValues().stream().map(UploadPartRequest::getPartSize).toList());
+    var completed = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+    verify(s3Client).completeMultipartUpload(completed.capture());
+    assertEquals("upload-1", completed.getValue().getUploadId());
+    assertEquals(3, completed.getValue().getPartETags().size());
+    verify(s3Client, never()).putObject(any(PutObjectRequest.class));
+  }
+
+  @Test
+  void should_abort_the_upload_when_a_part_fails() {
+    when(s3Client.uploadPart(any())).thenThrow(new RuntimeException("boom"));
+
+    assertThrows(IOException.class, () -> {
+      try (var outputStream = new S3MultipartOutputStream(s3Client, "bucket", "results.json", "application/json", 8, Runnable::run, 2)) {
+        outputStream.write("0123456789".getBytes());
+      }
+    });
+
+    verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    verify(s3Client, never()).completeMultipartUpload(any());
+  }
+}
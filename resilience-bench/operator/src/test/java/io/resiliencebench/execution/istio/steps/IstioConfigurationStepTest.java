@@ -0,0 +1,173 @@
+package io.resiliencebench.execution.istio.steps;
+
+import io.fabric8.istio.api.networking.v1beta1.DestinationRule;
+import io.fabric8.istio.api.networking.v1beta1.DestinationRuleBuilder;
+import io.fabric8.istio.api.networking.v1beta1.HTTPRetry;
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.istio.api.networking.v1beta1.VirtualServiceBuilder;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.resiliencebench.execution.steps.istio.IstioConfigurationStep;
+import io.resiliencebench.resources.scenario.Connector;
+import io.resiliencebench.resources.scenario.IstioPattern;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.scenario.ScenarioSpec;
+import io.resiliencebench.resources.scenario.Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IstioConfigurationStepTest {
+
+  private IstioConfigurationStep step;
+
+  @BeforeEach
+  void setUp() {
+    step = spy(new IstioConfigurationStep(null, null, null));
+    doReturn(null).when(step).findVirtualService(anyString(), anyString());
+    doReturn(null).when(step).findDestinationRule(anyString(), anyString());
+  }
+
+  private static VirtualService virtualService(String name) {
+    var retry = new HTTPRetry();
+    retry.setAttempts(3);
+    retry.setPerTryTimeout("10ms");
+    return new VirtualServiceBuilder()
+            .withNewMetadata().withNamespace("test").withName(name).withResourceVersion("7").endMetadata()
+            .withNewSpec()
+            .addNewHttp()
+            .withRetries(retry)
+            .withTimeout("5s")
+            .endHttp()
+            .endSpec()
+            .build();
+  }
+
+  private static DestinationRule destinationRule(String name) {
+    return new DestinationRuleBuilder()
+            .withNewMetadata().withNamespace("test").withName(name).endMetadata()
+            .withNewSpec().withHost(name).endSpec()
+            .build();
+  }
+
+  private static DestinationRule destinationRuleWithCircuitBreaker(String name) {
+    return new DestinationRuleBuilder()
+            .withNewMetadata().withNamespace("test").withName(name).endMetadata()
+            .withNewSpec()
+            .withHost(name)
+            .withNewTrafficPolicy()
+            .withNewConnectionPool().withNewHttp().withHttp1MaxPendingRequests(1).endHttp().endConnectionPool()
+            .withNewOutlierDetection().withConsecutive5xxErrors(2).endOutlierDetection()
+            .endTrafficPolicy()
+            .endSpec()
+            .build();
+  }
+
+  private static Connector connector(String destination, IstioPattern istio) {
+    return new Connector.Builder()
+            .name("api-" + destination)
+            .source(new Service("api"))
+            .destination(new Service(destination))
+            .istio(istio)
+            .build();
+  }
+
+  private static Scenario scenario(Connector... connectors) {
+    var scenario = new Scenario(new ScenarioSpec("s1", null, List.of(connectors)));
+    scenario.setMetadata(new ObjectMetaBuilder().withNamespace("test").withName("s1").build());
+    return scenario;
+  }
+
+  @Test
+  void should_fetch_and_write_each_object_once() {
+    doReturn(virtualService("vs-payment")).when(step).findVirtualService("test", "payment");
+    doReturn(destinationRule("dr-payment")).when(step).findDestinationRule("test", "payment");
+    var istio = new IstioPattern(
+            Map.of("attempts", 5, "perTryTimeout", 100),
+            Map.of("timeout", 300),
+            Map.of("http1MaxPendingRequests", 1, "consecutive5xxErrors", 2, "interval", "1s", "baseEjectionTime", "3m", "maxEjectionPercent", 100));
+
+    var patch = step.plan(scenario(connector("payment", istio)));
+
+    verify(step, times(1)).findVirtualService("test", "payment");
+    verify(step, times(1)).findDestinationRule("test", "payment");
+
+    assertEquals(1, patch.getVirtualServices().size());
+    var route = patch.getVirtualServices().get(0).getSpec().getHttp().get(0);
+    assertEquals(5, route.getRetries().getAttempts());
+    assertEquals("100ms", route.getRetries().getPerTryTimeout());
+    assertEquals("300ms", route.getTimeout());
+
+    assertEquals(1, patch.getDestinationRules().size());
+    var trafficPolicy = patch.getDestinationRules().get(0).getSpec().getTrafficPolicy();
+    assertEquals(1, trafficPolicy.getConnectionPool().getHttp().getHttp1MaxPendingRequests());
+    assertEquals(2, trafficPolicy.getOutlierDetection().getConsecutive5xxErrors());
+    assertEquals("3m", trafficPolicy.getOutlierDetection().getBaseEjectionTime());
+  }
+
+  @Test
+  void should_merge_connectors_sharing_a_virtual_service() {
+    doReturn(virtualService("vs-shared")).when(step).findVirtualService(eq("test"), anyString());
+
+    var patch = step.plan(scenario(
+            connector("payment", new IstioPattern(Map.of("attempts", 2, "perTryTimeout", 50), null, null)),
+            connector("catalog", new IstioPattern(null, Map.of("timeout", 200), null))));
+
+    assertEquals(1, patch.getVirtualServices().size());
+    var route = patch.getVirtualServices().get(0).getSpec().getHttp().get(0);
+    assertEquals(2, route.getRetries().getAttempts());
+    assertEquals("200ms", route.getTimeout());
+    assertTrue(patch.getDestinationRules().isEmpty());
+  }
+
+  @Test
+  void should_clear_policies_left_by_the_previous_scenario() {
+    doReturn(virtualService("vs-payment")).when(step).findVirtualService("test", "payment");
+
+    var patch = step.plan(scenario(connector("payment", new IstioPattern(null, Map.of("timeout", 300), null))));
+
+    var route = patch.getVirtualServices().get(0).getSpec().getHttp().get(0);
+    assertNull(route.getRetries());
+    assertEquals("300ms", route.getTimeout());
+  }
+
+  @Test
+  void should_remove_stale_policies_from_destinations_without_istio_patterns() {
+    doReturn(virtualService("vs-payment")).when(step).findVirtualService("test", "payment");
+    doReturn(destinationRuleWithCircuitBreaker("dr-payment")).when(step).findDestinationRule("test", "payment");
+    doReturn(virtualService("vs-catalog")).when(step).findVirtualService("test", "catalog");
+    doReturn(destinationRuleWithCircuitBreaker("dr-catalog")).when(step).findDestinationRule("test", "catalog");
+
+    var patch = step.plan(scenario(
+            connector("payment", null),
+            connector("catalog", new IstioPattern(null, Map.of("timeout", 300), null))));
+
+    assertEquals(2, patch.getVirtualServices().size());
+    var payment = patch.getVirtualServices().get(0).getSpec().getHttp().get(0);
+    assertNull(payment.getRetries());
+    assertNull(payment.getTimeout());
+    var catalog = patch.getVirtualServices().get(1).getSpec().getHttp().get(0);
+    assertNull(catalog.getRetries());
+    assertEquals("300ms", catalog.getTimeout());
+
+    assertEquals(2, patch.getDestinationRules().size());
+    for (var destinationRule : patch.getDestinationRules()) {
+      assertNull(destinationRule.getSpec().getTrafficPolicy().getConnectionPool());
+      assertNull(destinationRule.getSpec().getTrafficPolicy().getOutlierDetection());
+    }
+  }
+
+  @Test
+  void should_skip_destinations_without_istio_objects() {
+    var patch = step.plan(scenario(connector("payment", null)));
+
+    assertTrue(patch.getVirtualServices().isEmpty());
+    assertTrue(patch.getDestinationRules().isEmpty());
+    verify(step).findVirtualService("test", "payment");
+  }
+}
@@ -0,0 +1,246 @@
+package io.resiliencebench.execution.shard;
+
+import io.fabric8.istio.api.networking.v1beta1.VirtualService;
+import io.fabric8.istio.client.DefaultIstioClient;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.EnableKubernetesMockClient;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.resiliencebench.resources.benchmark.Benchmark;
+import io.resiliencebench.resources.benchmark.BenchmarkStatus;
+import io.resiliencebench.resources.service.ResilientService;
+import io.resiliencebench.resources.workload.Workload;
+import io.resiliencebench.support.CustomResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static io.resiliencebench.execution.shard.NamespaceShardManager.SHARD_LABEL;
+import static io.resiliencebench.support.Annotations.SHARD_OF;
+import static io.resiliencebench.support.Annotations.VIRTUAL_SERVICE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@EnableKubernetesMockClient(crud = true)
+class NamespaceShardManagerTest {
+
+  private static final String NAMESPACE = "default";
+
+  KubernetesClient client;
+
+  @SuppressWarnings("unchecked")
+  private final CustomResourceRepository<ResilientService> serviceRepository = mock(CustomResourceRepository.class);
+
+  @BeforeEach
+  void setUp() {
+    client.namespaces().resource(new NamespaceBuilder().withNewMetadata().withName(NAMESPACE).endMetadata().build()).create();
+    create(Deployment.class, """
+            apiVersion: apps/v1
+            kind: Deployment
+            metadata:
+              name: payment
+            spec:
+              selector:
+                matchLabels:
+                  app: payment
+              template:
+                metadata:
+                  labels:
+                    app: payment
+                spec:
+                  containers:
+                    - name: app
+                      image: payment
+                      env:
+                        - name: CATALOG_URL
+                          value: http://catalog.default.svc.cluster.local:8080
+            """);
+    create(Service.class, """
+            apiVersion: v1
+            kind: Service
+            metadata:
+              name: payment
+            spec:
+              selector:
+                app: payment
+              ports:
+                - port: 8080
+            """);
+    create(VirtualService.class, """
+            apiVersion: networking.istio.io/v1beta1
+            kind: VirtualService
+            metadata:
+              name: payment
+            spec:
+              hosts: [payment]
+              http:
+                - route:
+                    - destination:
+                        host: payment.default.svc.cluster.local
+            """);
+    var resilientService = Serialization.unmarshal("""
+            apiVersion: resiliencebench.io/v1beta1
+            kind: ResilientService
+            metadata:
+              name: payment
+              namespace: default
+              annotations:
+                %s: payment
+            spec:
+              selector:
+                matchLabels:
+                  app: payment
+            """.formatted(VIRTUAL_SERVICE), ResilientService.class);
+    when(serviceRepository.list(NAMESPACE)).thenReturn(List.of(resilientService));
+  }
+
+  private <T extends HasMetadata> void create(Class<T> type, String yaml) {
+    client.resources(type).inNamespace(NAMESPACE).resource(Serialization.unmarshal(yaml, type)).create();
+  }
+
+  private NamespaceShardManager shardManager(String storageType) {
+    return new NamespaceShardManager(client, new DefaultIstioClient(client), serviceRepository,
+            new MockEnvironment().withProperty("STORAGE_TYPE", storageType));
+  }
+
+  private static Benchmark benchmark(int shards) {
+    return Serialization.unmarshal("""
+            apiVersion: resiliencebench.io/v1beta1
+            kind: Benchmark
+            metadata:
+              name: bench
+              namespace: default
+            spec:
+              workload: workload
+              shards: %d
+            """.formatted(shards), Benchmark.class);
+  }
+
+  private static Workload workload() {
+    return Serialization.unmarshal("""
+            apiVersion: resiliencebench.io/v1beta1
+            kind: Workload
+            metadata:
+              name: workload
+              namespace: default
+            spec:
+              users: [10]
+            """, Workload.class);
+  }
+
+  @Test
+  void should_name_shards_after_namespace_and_benchmark() {
+    assertEquals("default-onlineboutique-shard-2", NamespaceShardManager.shardName("default", "onlineboutique", 2));
+  }
+
+  @Test
+  void should_truncate_shard_names_to_the_namespace_limit() {
+    var name = NamespaceShardManager.shardName("a-very-long-namespace-name-used-in-tests", "a-very-long-benchmark-name", 12);
+    assertTrue(name.length() <= 63);
+    assertTrue(name.endsWith("-shard-12"));
+    assertFalse(name.contains("--"));
+  }
+
+  @Test
+  void should_copy_the_services_under_test_into_labelled_shard_namespaces() {
+    var shards = shardManager("CLOUD").provision(benchmark(2), workload());
+
+    assertEquals(List.of("default-bench-shard-1", "default-bench-shard-2"), shards);
+    for (var shard : shards) {
+      var namespace = client.namespaces().withName(shard).get();
+      assertEquals("true", namespace.getMetadata().getLabels().get(SHARD_LABEL));
+      assertEquals("default.bench", namespace.getMetadata().getAnnotations().get(SHARD_OF));
+
+      assertNotNull(client.services().inNamespace(shard).withName("payment").get());
+      assertNotNull(client.resources(VirtualService.class).inNamespace(shard).withName("payment").get());
+      assertNotNull(client.resources(ResilientService.class).inNamespace(shard).withName("payment").get());
+      assertNotNull(client.resources(Workload.class).inNamespace(shard).withName("workload").get());
+    }
+  }
+
+  @Test
+  void should_point_only_the_istio_hosts_to_the_shard_namespace() {
+    shardManager("CLOUD").provision(benchmark(1), workload());
+
+    var shard = "default-bench-shard-1";
+    var virtualService = client.resources(VirtualService.class).inNamespace(shard).withName("payment").get();
+    assertEquals("payment." + shard + ".svc.cluster.local",
+            virtualService.getSpec().getHttp().get(0).getRoute().get(0).getDestination().getHost());
+    assertEquals(List.of("payment"), virtualService.getSpec().getHosts());
+
+    var deployment = client.apps().deployments().inNamespace(shard).withName("payment").get();
+    var env = deployment.getSpec().getTemplate().getSpec().getContainers().get(0).getEnv().get(0);
+    assertEquals("http://catalog.default.svc.cluster.local:8080", env.getValue());
+  }
+
+  @Test
+  void should_qualify_hosts_of_the_source_namespace_by_the_shard_namespace() {
+    assertEquals("payment.shard.svc.cluster.local", NamespaceShardManager.shardHost("payment.default.svc.cluster.local", "default", "shard"));
+    assertEquals("payment.shard", NamespaceShardManager.shardHost("payment.default", "default", "shard"));
+    assertEquals("payment", NamespaceShardManager.shardHost("payment", "default", "shard"));
+    assertEquals("payment.other.svc.cluster.local", NamespaceShardManager.shardHost("payment.other.svc.cluster.local", "default", "shard"));
+    assertEquals("default.default.example.com", NamespaceShardManager.shardHost("default.default.example.com", "default", "shard"));
+  }
+
+  @Test
+  void should_reject_more_than_one_shard_with_local_storage() {
+    var shardManager = shardManager("local");
+
+    assertTrue(shardManager.supports(benchmark(1)));
+    assertFalse(shardManager.supports(benchmark(2)));
+    assertThrows(IllegalStateException.class, () -> shardManager.provision(benchmark(2), workload()));
+    assertNull(client.namespaces().withName("default-bench-shard-1").get());
+  }
+
+  @Test
+  void should_delete_the_shards_of_the_benchmark_without_waiting_for_them() {
+    var shardManager = shardManager("CLOUD");
+    shardManager.provision(benchmark(2), workload());
+
+    assertFalse(shardManager.teardown(benchmark(2)));
+
+    assertNull(client.namespaces().withName("default-bench-shard-1").get());
+    assertNull(client.namespaces().withName("default-bench-shard-2").get());
+    assertTrue(shardManager.teardown(benchmark(2)));
+  }
+
+  @Test
+  void should_delete_the_shards_recorded_in_the_status_once_no_longer_asked_for() {
+    var shardManager = shardManager("CLOUD");
+    shardManager.provision(benchmark(2), workload());
+    var benchmark = benchmark(0);
+    benchmark.setStatus(new BenchmarkStatus(1));
+    benchmark.getStatus().setShards(List.of("default-bench-shard-1", "default-bench-shard-2"));
+
+    shardManager.teardown(benchmark);
+
+    assertNull(client.namespaces().withName("default-bench-shard-1").get());
+    assertNull(client.namespaces().withName("default-bench-shard-2").get());
+  }
+
+  @Test
+  void should_leave_namespaces_of_other_owners_untouched() {
+    client.namespaces().resource(new NamespaceBuilder()
+            .withNewMetadata()
+            .withName("default-bench-shard-1")
+            .addToLabels(SHARD_LABEL, "true")
+            .addToAnnotations(SHARD_OF, "default.other")
+            .endMetadata()
+            .build()).create();
+
+    assertTrue(shardManager("CLOUD").teardown(benchmark(1)));
+
+    assertNotNull(client.namespaces().withName("default-bench-shard-1").get());
+  }
+}
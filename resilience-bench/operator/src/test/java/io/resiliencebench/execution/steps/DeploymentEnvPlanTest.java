@@ -0,0 +1,82 @@
+package io.resiliencebench.execution.steps;
+
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeploymentEnvPlanTest {
+
+  private static Deployment deployment(String name) {
+    return new DeploymentBuilder()
+            .withNewMetadata().withNamespace("test").withName(name).endMetadata()
+            .withNewSpec().withNewTemplate().withNewSpec()
+            .addNewContainer().withName("app").addNewEnv().withName("TIMEOUT").withValue("1000").endEnv().endContainer()
+            .addNewContainer().withName("envoy").endContainer()
+            .endSpec().endTemplate().endSpec()
+            .build();
+  }
+
+  @Test
+  void should_merge_changes_on_the_same_deployment() {
+    var plan = new DeploymentEnvPlan();
+
+    plan.set(deployment("payment"), "app", "TIMEOUT", "200");
+    plan.set(deployment("payment"), "app", "RETRIES", "3");
+    plan.set(deployment("payment"), "envoy", "FAULT_PERCENTAGE", "10");
+
+    assertEquals(1, plan.getDeployments().size());
+    var envs = plan.getContainerEnvs(deployment("payment"));
+    assertEquals(Set.of("app", "envoy"), envs.keySet());
+    assertEquals(List.of(new EnvVar("TIMEOUT", "200", null), new EnvVar("RETRIES", "3", null)), envs.get("app"));
+    assertEquals(List.of(new EnvVar("FAULT_PERCENTAGE", "10", null)), envs.get("envoy"));
+  }
+
+  @Test
+  void should_keep_one_entry_per_deployment() {
+    var plan = new DeploymentEnvPlan();
+
+    plan.set(deployment("payment"), "app", "TIMEOUT", "200");
+    plan.set(deployment("catalog"), "app", "TIMEOUT", "300");
+    plan.replace(deployment("payment"), "app", List.of(new EnvVar("TIMEOUT", "1000", null)));
+
+    assertEquals(List.of("payment", "catalog"),
+            plan.getDeployments().stream().map(d -> d.getMetadata().getName()).toList());
+    assertEquals(List.of(new EnvVar("TIMEOUT", "1000", null)), plan.getContainerEnvs(deployment("payment")).get("app"));
+  }
+
+  @Test
+  void should_only_list_changed_deployments_and_containers() {
+    var plan = new DeploymentEnvPlan();
+
+    plan.track(deployment("payment"));
+    plan.set(deployment("catalog"), "envoy", "FAULT_PERCENTAGE", "10");
+
+    assertEquals(1, plan.getDeployments().size());
+    assertEquals(Set.of("envoy"), plan.getContainerEnvs(deployment("catalog")).keySet());
+  }
+
+  @Test
+  void should_fail_for_unknown_containers() {
+    var plan = new DeploymentEnvPlan();
+
+    assertThrows(RuntimeException.class, () -> plan.set(deployment("payment"), "sidecar", "TIMEOUT", "200"));
+  }
+
+  @Test
+  void should_detect_deployments_already_running_the_planned_environment() {
+    var plan = new DeploymentEnvPlan();
+    plan.set(deployment("payment"), "app", "TIMEOUT", "1000");
+
+    assertTrue(DeploymentEnvPlan.isUpToDate(deployment("payment"), plan.getContainerEnvs(deployment("payment"))));
+
+    plan.set(deployment("payment"), "envoy", "FAULT_PERCENTAGE", "10");
+
+    assertFalse(DeploymentEnvPlan.isUpToDate(deployment("payment"), plan.getContainerEnvs(deployment("payment"))));
+  }
+}
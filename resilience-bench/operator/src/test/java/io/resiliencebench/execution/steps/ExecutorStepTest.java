@@ -0,0 +1,108 @@
+package io.resiliencebench.execution.steps;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.support.Retries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.resiliencebench.execution.steps.ExecutorStep.STEP_DURATION_METRIC;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorStepTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private static class RecordedStep extends ExecutorStep {
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    private final boolean fails;
+
+    RecordedStep(boolean fails) {
+      super(null);
+      this.fails = fails;
+    }
+
+    @Override
+    protected boolean isApplicable(Scenario scenario) {
+      return true;
+    }
+
+    @Override
+    protected void internalExecute(Scenario scenario, ExecutionQueue queue) {
+      if (fails) {
+        throw new IllegalStateException("step failed");
+      }
+    }
+
+    @Override
+    protected CompletionStage<Void> internalExecuteAsync(Scenario scenario, ExecutionQueue queue, Executor executor) {
+      return result;
+    }
+  }
+
+  private static Scenario scenario() {
+    var scenario = new Scenario();
+    scenario.setMetadata(new ObjectMetaBuilder().withName("s1").build());
+    return scenario;
+  }
+
+  @BeforeEach
+  void setUp() {
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    Metrics.removeRegistry(registry);
+  }
+
+  private long count(String outcome) {
+    var timer = registry.find(STEP_DURATION_METRIC).tags("step", "RecordedStep", "outcome", outcome).timer();
+    return timer == null ? 0 : timer.count();
+  }
+
+  @Test
+  void should_time_steps_by_outcome() {
+    new RecordedStep(false).execute(scenario(), null);
+    assertThrows(IllegalStateException.class, () -> new RecordedStep(true).execute(scenario(), null));
+
+    assertEquals(1, count("success"));
+    assertEquals(1, count("failure"));
+  }
+
+  @Test
+  void should_time_async_steps_once_they_complete() {
+    var step = new RecordedStep(false);
+
+    step.executeAsync(scenario(), null, Runnable::run);
+    assertEquals(0, count("success"));
+    step.result.complete(null);
+
+    assertEquals(1, count("success"));
+  }
+
+  @Test
+  void should_count_retried_attempts() {
+    var attempts = new AtomicInteger();
+    var retry = Retries.of("flaky", RetryConfig.custom().maxAttempts(3).waitDuration(Duration.ofMillis(1)).build());
+
+    retry.executeRunnable(() -> {
+      if (attempts.incrementAndGet() < 3) {
+        throw new IllegalStateException("conflict");
+      }
+    });
+
+    assertEquals(2, registry.get("resiliencebench.retries").tags("name", "flaky", "outcome", "retried").counter().count());
+  }
+}
@@ -0,0 +1,143 @@
+package io.resiliencebench.execution.steps;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.scenario.Scenario;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.resiliencebench.execution.steps.StepResource.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StepGraphTest {
+
+  private static final Executor DIRECT = Runnable::run;
+
+  private static class FakeStep extends ExecutorStep {
+    private final Set<StepResource> reads;
+    private final Set<StepResource> writes;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    FakeStep(Set<StepResource> reads, Set<StepResource> writes) {
+      super(null);
+      this.reads = reads;
+      this.writes = writes;
+    }
+
+    @Override
+    protected boolean isApplicable(Scenario scenario) {
+      return true;
+    }
+
+    @Override
+    public Set<StepResource> reads() {
+      return reads;
+    }
+
+    @Override
+    public Set<StepResource> writes() {
+      return writes;
+    }
+
+    @Override
+    protected void internalExecute(Scenario scenario, ExecutionQueue queue) {
+    }
+
+    @Override
+    protected CompletionStage<Void> internalExecuteAsync(Scenario scenario, ExecutionQueue queue, Executor executor) {
+      started.set(true);
+      return result;
+    }
+  }
+
+  private static Scenario scenario() {
+    var scenario = new Scenario();
+    scenario.setMetadata(new ObjectMetaBuilder().withName("s1").build());
+    return scenario;
+  }
+
+  @Test
+  void should_depend_only_on_conflicting_steps() {
+    var queue = new FakeStep(Set.of(), Set.of(QUEUE));
+    var retry = new FakeStep(Set.of(), Set.of(VIRTUAL_SERVICE));
+    var circuitBreaker = new FakeStep(Set.of(), Set.of(DESTINATION_RULE));
+    var timeout = new FakeStep(Set.of(), Set.of(VIRTUAL_SERVICE));
+    var environment = new FakeStep(Set.of(), Set.of(DEPLOYMENT_ENV));
+    var readiness = new FakeStep(Set.of(DEPLOYMENT_ENV), Set.of());
+
+    var graph = new StepGraph(List.of(queue, retry, circuitBreaker, timeout, environment, readiness));
+
+    assertEquals(Set.of(), graph.getDependencies(1));
+    assertEquals(Set.of(), graph.getDependencies(2));
+    assertEquals(Set.of(1), graph.getDependencies(3));
+    assertEquals(Set.of(), graph.getDependencies(4));
+    assertEquals(Set.of(4), graph.getDependencies(5));
+  }
+
+  @Test
+  void should_start_independent_steps_together_and_wait_for_dependencies() {
+    var retry = new FakeStep(Set.of(), Set.of(VIRTUAL_SERVICE));
+    var circuitBreaker = new FakeStep(Set.of(), Set.of(DESTINATION_RULE));
+    var timeout = new FakeStep(Set.of(), Set.of(VIRTUAL_SERVICE));
+
+    var result = new StepGraph(List.of(retry, circuitBreaker, timeout)).run(scenario(), null, DIRECT).toCompletableFuture();
+
+    assertTrue(retry.started.get());
+    assertTrue(circuitBreaker.started.get());
+    assertFalse(timeout.started.get());
+
+    retry.result.complete(null);
+    assertTrue(timeout.started.get());
+
+    circuitBreaker.result.complete(null);
+    timeout.result.complete(null);
+    assertTrue(result.isDone());
+    assertFalse(result.isCompletedExceptionally());
+  }
+
+  @Test
+  void should_not_run_steps_depending_on_a_failed_step() {
+    var environment = new FakeStep(Set.of(), Set.of(DEPLOYMENT_ENV));
+    var readiness = new FakeStep(Set.of(DEPLOYMENT_ENV), Set.of());
+
+    var result = new StepGraph(List.of(environment, readiness)).run(scenario(), null, DIRECT).toCompletableFuture();
+    environment.result.completeExceptionally(new IllegalStateException("rollout failed"));
+
+    assertFalse(readiness.started.get());
+    assertTrue(result.isCompletedExceptionally());
+  }
+
+  @Test
+  void should_notify_the_listener_as_each_step_starts_and_completes() {
+    var environment = new FakeStep(Set.of(), Set.of(DEPLOYMENT_ENV));
+    var readiness = new FakeStep(Set.of(DEPLOYMENT_ENV), Set.of());
+    var events = new ArrayList<String>();
+
+    new StepGraph(List.of(environment, readiness)).run(scenario(), null, DIRECT, new StepListener() {
+      @Override
+      public void onStart(ExecutorStep step) {
+        events.add("start " + (step == environment ? "environment" : "readiness"));
+      }
+
+      @Override
+      public void onComplete(ExecutorStep step, Duration duration, Throwable error) {
+        assertFalse(duration.isNegative());
+        events.add((error == null ? "complete " : "fail ") + (step == environment ? "environment" : "readiness"));
+      }
+    });
+    assertEquals(List.of("start environment"), events);
+    environment.result.complete(null);
+    readiness.result.completeExceptionally(new IllegalStateException("not ready"));
+
+    assertEquals(List.of("start environment", "complete environment", "start readiness", "fail readiness"), events);
+  }
+}
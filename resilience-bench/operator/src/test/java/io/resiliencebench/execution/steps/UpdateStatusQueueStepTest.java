@@ -0,0 +1,151 @@
+package io.resiliencebench.execution.steps;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.resiliencebench.execution.BenchmarkStatusUpdater;
+import io.resiliencebench.resources.Phase;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueItemStatus;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import io.resiliencebench.resources.queue.ExecutionQueueStatus;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.support.CustomResourceRepository;
+import io.vertx.core.json.JsonArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UpdateStatusQueueStepTest {
+
+  @Mock
+  private KubernetesClient kubernetesClient;
+
+  @Mock
+  private CustomResourceRepository<ExecutionQueue> executionRepository;
+
+  @Mock
+  private BenchmarkStatusUpdater statusUpdater;
+
+  private UpdateStatusQueueStep step;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    step = new UpdateStatusQueueStep(kubernetesClient, executionRepository, statusUpdater);
+  }
+
+  private ExecutionQueue givenQueue(ExecutionQueueStatus status) {
+    var items = List.of(new ExecutionQueueItem("s1", "s1.json"), new ExecutionQueueItem("s2", "s2.json"));
+    var queue = new ExecutionQueue(new ExecutionQueueSpec("results.json", items, "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("test").build());
+    queue.setStatus(status);
+    when(executionRepository.get("test", "benchmark")).thenReturn(queue);
+    return queue;
+  }
+
+  private static Scenario scenario(String name) {
+    var scenario = new Scenario();
+    scenario.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace("shard-1").build());
+    return scenario;
+  }
+
+  private JsonArray capturePatch() {
+    var patch = ArgumentCaptor.forClass(String.class);
+    verify(executionRepository).patchStatus(any(), eq(PatchType.JSON), patch.capture());
+    return new JsonArray(patch.getValue());
+  }
+
+  @Test
+  void should_patch_only_the_started_item() {
+    var queue = givenQueue(new ExecutionQueueStatus());
+
+    step.internalExecute(scenario("s2"), queue);
+
+    var patch = capturePatch();
+    assertEquals(1, patch.size());
+    var operation = patch.getJsonObject(0);
+    assertEquals("add", operation.getString("op"));
+    assertEquals("/status/items/1", operation.getString("path"));
+    assertEquals(Phase.RUNNING, operation.getJsonObject("value").getString("phase"));
+    assertEquals("shard-1", operation.getJsonObject("value").getString("namespace"));
+    assertEquals(1, operation.getJsonObject("value").getInteger("attempts"));
+    verify(executionRepository, never()).patchStatus(any(), eq(PatchType.JSON_MERGE), anyString());
+    verify(statusUpdater).markScenarioAsStarted("test", "benchmark", "s2");
+  }
+
+  @Test
+  void should_keep_a_compact_record_of_a_completed_item_without_locking_the_queue() {
+    var running = new ExecutionQueueItemStatus();
+    running.markAsRunning("shard-1");
+    var status = new ExecutionQueueStatus();
+    status.getItems().put("0", running);
+    var queue = givenQueue(status);
+    queue.getMetadata().setResourceVersion("42");
+
+    step.finishing(false).execute(scenario("s1"), queue);
+
+    var patch = capturePatch();
+    assertEquals(2, patch.size());
+    assertEquals("test", patch.getJsonObject(0).getString("op"));
+    assertEquals("/status/items/0/phase", patch.getJsonObject(0).getString("path"));
+    assertEquals(Phase.RUNNING, patch.getJsonObject(0).getString("value"));
+    var record = patch.getJsonObject(1).getJsonObject("value");
+    assertEquals("add", patch.getJsonObject(1).getString("op"));
+    assertEquals(Phase.COMPLETED, record.getString("phase"));
+    assertEquals(1, record.getInteger("attempts"));
+    assertNotNull(record.getString("startTime"));
+    assertNotNull(record.getString("completionTime"));
+    assertFalse(record.containsKey("timeline"));
+    assertFalse(patch.encode().contains("resourceVersion"));
+    verify(executionRepository, never()).patchStatus(any(), eq(PatchType.JSON_MERGE), anyString());
+    verify(statusUpdater).markScenarioAsCompleted("test", "benchmark", "s1");
+  }
+
+  @Test
+  void should_fail_an_item_whose_preparation_failed_before_it_was_running() {
+    var queue = givenQueue(new ExecutionQueueStatus());
+
+    step.finishing(true).execute(scenario("s2"), queue);
+
+    var patch = capturePatch();
+    assertEquals(1, patch.size());
+    assertEquals("/status/items/1", patch.getJsonObject(0).getString("path"));
+    assertEquals(Phase.FAILED, patch.getJsonObject(0).getJsonObject("value").getString("phase"));
+    assertEquals("shard-1", patch.getJsonObject(0).getJsonObject("value").getString("namespace"));
+  }
+
+  @Test
+  void should_not_start_an_item_again_once_it_finished() {
+    var failed = new ExecutionQueueItemStatus();
+    failed.markAsFailed("shard-1");
+    var status = new ExecutionQueueStatus();
+    status.getItems().put("0", failed);
+    var queue = givenQueue(status);
+
+    step.internalExecute(scenario("s1"), queue);
+
+    verify(executionRepository, never()).patchStatus(any(), any(), anyString());
+  }
+
+  @Test
+  void should_create_the_status_of_queues_without_one() {
+    var queue = givenQueue(null);
+
+    step.internalExecute(scenario("s1"), queue);
+
+    verify(executionRepository).patchStatus(any(), eq(PatchType.JSON_MERGE), eq("{\"status\":{\"items\":{}}}"));
+    assertEquals("/status/items/0", capturePatch().getJsonObject(0).getString("path"));
+  }
+}
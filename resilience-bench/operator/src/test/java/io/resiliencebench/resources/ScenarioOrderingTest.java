@@ -0,0 +1,110 @@
+package io.resiliencebench.resources;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.resiliencebench.resources.scenario.Connector;
+import io.resiliencebench.resources.scenario.IstioPattern;
+import io.resiliencebench.resources.scenario.Scenario;
+import io.resiliencebench.resources.scenario.ScenarioFault;
+import io.resiliencebench.resources.scenario.ScenarioSpec;
+import io.resiliencebench.resources.scenario.Service;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioOrderingTest {
+
+  private static Scenario scenario(String name, int attempts, String timeout, int faultPercentage) {
+    var connector = new Connector.Builder()
+            .name("api-payment")
+            .source(new Service("api", Map.of("TIMEOUT", timeout)))
+            .destination(new Service("payment"))
+            .istio(new IstioPattern(Map.of("attempts", attempts, "perTryTimeout", 100), null, null))
+            .build();
+    var fault = new ScenarioFault("envoy", faultPercentage, List.of("payment"));
+    var scenario = new Scenario(new ScenarioSpec(name, null, List.of(connector), fault));
+    scenario.setMetadata(new ObjectMetaBuilder().withName(name).build());
+    return scenario;
+  }
+
+  private static List<String> names(List<Scenario> scenarios) {
+    return scenarios.stream().map(s -> s.getMetadata().getName()).toList();
+  }
+
+  @Test
+  public void should_keep_the_declared_order_by_default() {
+    var scenarios = List.of(scenario("s1", 1, "100", 10), scenario("s2", 2, "200", 10), scenario("s3", 1, "100", 10));
+
+    assertEquals(scenarios, ScenarioOrdering.order(null, scenarios));
+    assertEquals(scenarios, ScenarioOrdering.order(ScenarioOrdering.DECLARED, scenarios));
+  }
+
+  @Test
+  public void should_group_scenarios_with_the_same_configuration() {
+    var scenarios = List.of(
+            scenario("s1", 1, "100", 10),
+            scenario("s2", 2, "200", 10),
+            scenario("s3", 1, "100", 20),
+            scenario("s4", 2, "200", 20));
+
+    var ordered = ScenarioOrdering.order(ScenarioOrdering.MINIMAL_CHANGES, scenarios);
+
+    assertEquals(List.of("s1", "s3", "s4", "s2"), names(ordered));
+  }
+
+  @Test
+  public void should_count_the_objects_configured_differently() {
+    var base = ScenarioOrdering.configuration(scenario("s1", 1, "100", 10));
+
+    assertEquals(0, ScenarioOrdering.distance(base, ScenarioOrdering.configuration(scenario("s2", 1, "100", 10))));
+    assertEquals(1, ScenarioOrdering.distance(base, ScenarioOrdering.configuration(scenario("s2", 2, "100", 10))));
+    assertEquals(3, ScenarioOrdering.distance(base, ScenarioOrdering.configuration(scenario("s2", 2, "200", 20))));
+  }
+
+  @Test
+  public void should_keep_every_scenario() {
+    var scenarios = List.of(
+            scenario("s1", 1, "100", 10),
+            scenario("s2", 2, "100", 10),
+            scenario("s3", 3, "100", 10),
+            scenario("s4", 1, "100", 10),
+            scenario("s5", 2, "100", 10));
+
+    var ordered = ScenarioOrdering.minimizeChanges(scenarios);
+
+    assertEquals(List.of("s1", "s4", "s2", "s5", "s3"), names(ordered));
+  }
+
+  @Test
+  public void should_change_one_digit_between_consecutive_positions_of_a_template() {
+    var radices = new int[] { 2, 3, 2 };
+
+    var positions = ScenarioOrdering.reflectedGrayCode(List.<int[]>of(radices)).toArray();
+
+    assertEquals(12, positions.length);
+    assertEquals(12, LongStream.of(positions).distinct().count());
+    for (int i = 1; i < positions.length; i++) {
+      var changed = 0;
+      var previous = positions[i - 1];
+      var current = positions[i];
+      for (int digit = radices.length - 1; digit >= 0; digit--) {
+        var difference = Math.abs(previous % radices[digit] - current % radices[digit]);
+        assertTrue(difference <= 1);
+        changed += (int) difference;
+        previous /= radices[digit];
+        current /= radices[digit];
+      }
+      assertEquals(1, changed);
+    }
+  }
+
+  @Test
+  public void should_order_templates_one_after_the_other() {
+    var positions = ScenarioOrdering.reflectedGrayCode(List.of(new int[] { 2, 2 }, new int[] { 1, 3, 1 })).toArray();
+
+    assertArrayEquals(new long[] { 0, 1, 3, 2, 4, 5, 6 }, positions);
+  }
+}
@@ -0,0 +1,98 @@
+package io.resiliencebench.resources;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.resiliencebench.resources.benchmark.Benchmark;
+import io.resiliencebench.resources.benchmark.BenchmarkSpec;
+import io.resiliencebench.resources.benchmark.ScenarioTemplate;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static io.resiliencebench.resources.ScenarioFactoryTest.createConnector;
+import static io.resiliencebench.resources.ScenarioFactoryTest.createWorkload;
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioSpaceTest {
+
+  private static Benchmark benchmark(ScenarioTemplate... templates) {
+    var benchmark = new Benchmark();
+    benchmark.setSpec(new BenchmarkSpec("workload", of(templates)));
+    return benchmark;
+  }
+
+  @Test
+  public void should_build_each_scenario_from_its_position() {
+    var benchmark = benchmark(
+            new ScenarioTemplate("scenario-1", of(createConnector("connector-1"), createConnector("connector-2"))),
+            new ScenarioTemplate("scenario-2", of(createConnector("connector-1"))));
+    var space = new ScenarioSpace(benchmark, createWorkload(of(10, 20)));
+
+    var scenarios = space.stream().toList();
+
+    assertEquals(40, space.size());
+    assertEquals(40, scenarios.size());
+    assertEquals(40, new HashSet<>(scenarios.stream().map(s -> s.getMetadata().getName()).toList()).size());
+    for (int i = 0; i < scenarios.size(); i++) {
+      assertEquals(scenarios.get(i).getMetadata().getName(), space.get(i).getMetadata().getName());
+    }
+    assertEquals("scenario-1-10vu-00001", scenarios.get(0).getMetadata().getName());
+    assertEquals("scenario-2-20vu-00004", scenarios.get(39).getMetadata().getName());
+  }
+
+  @Test
+  public void should_change_the_last_connector_fastest() {
+    var benchmark = benchmark(
+            new ScenarioTemplate("scenario-1", of(createConnector("connector-1"), createConnector("connector-2"))));
+    var space = new ScenarioSpace(benchmark, createWorkload(of(10)));
+
+    var first = space.get(0).getSpec().getConnectors();
+    var second = space.get(1).getSpec().getConnectors();
+
+    assertEquals(first.get(0).getIstio().getRetry(), second.get(0).getIstio().getRetry());
+    assertNotEquals(first.get(1).getIstio().getRetry(), second.get(1).getIstio().getRetry());
+  }
+
+  @Test
+  public void should_not_generate_scenarios_until_requested() {
+    var connectors = IntStream.range(0, 12).mapToObj(i -> createConnector("connector-" + i)).toList();
+    var benchmark = benchmark(new ScenarioTemplate("scenario-1", connectors));
+    var space = new ScenarioSpace(benchmark, createWorkload(of(10, 20, 30, 40)));
+
+    assertEquals(4L * (1L << 24), space.size());
+    assertNotNull(space.get(space.size() - 1));
+    assertEquals(3, space.stream().limit(3).count());
+  }
+
+  @Test
+  public void should_locate_the_scenarios_of_a_queue_created_by_hand() {
+    var space = new ScenarioSpace(benchmark(new ScenarioTemplate("scenario-1", of(createConnector("connector-1")))),
+            createWorkload(of(10, 20)));
+    var items = of(
+            new ExecutionQueueItem("scenario-1-20vu-00001", "s1.json"),
+            new ExecutionQueueItem("unknown", "unknown.json"),
+            new ExecutionQueueItem("scenario-1-10vu-00001", "s2.json"));
+    var queue = new ExecutionQueue(new ExecutionQueueSpec("results.json", items, "benchmark"), new ObjectMeta());
+
+    assertTrue(ExecutionQueueFactory.locate(queue, space));
+
+    assertEquals("scenario-1-20vu-00001", space.get(items.get(0).getIndex()).getMetadata().getName());
+    assertNull(items.get(1).getIndex());
+    assertEquals(0L, items.get(2).getIndex());
+    assertFalse(ExecutionQueueFactory.locate(new ExecutionQueue(new ExecutionQueueSpec("results.json", of(items.get(0)), "benchmark"), new ObjectMeta()), space));
+  }
+
+  @Test
+  public void should_reject_positions_outside_the_space() {
+    var space = new ScenarioSpace(benchmark(new ScenarioTemplate("scenario-1", of(createConnector("connector-1")))),
+            createWorkload(List.of(10)));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> space.get(-1));
+    assertThrows(IndexOutOfBoundsException.class, () -> space.get(space.size()));
+  }
+}
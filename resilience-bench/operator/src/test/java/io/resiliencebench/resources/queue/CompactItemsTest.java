@@ -0,0 +1,57 @@
+package io.resiliencebench.resources.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactItemsTest {
+
+  private static CompactItems items(LongStream order) {
+    var templates = List.of(
+            new ScenarioDimensions("retry", List.of(10, 20), 2, List.of(25, 50)),
+            new ScenarioDimensions("timeout", List.of(10), 3, List.of()));
+    return new CompactItems(templates, order.iterator(), "2024/%s.json");
+  }
+
+  @Test
+  void should_encode_positions_as_ranges() {
+    assertEquals("0-10", CompactItems.encodeRanges(LongStream.rangeClosed(0, 10).iterator()));
+    assertEquals("0,2-4,1,5", CompactItems.encodeRanges(LongStream.of(0, 2, 3, 4, 1, 5).iterator()));
+    assertEquals(List.of(0L, 2L, 3L, 4L, 1L, 5L), CompactItems.decodeRanges("0,2-4,1,5"));
+  }
+
+  @Test
+  void should_derive_the_items_from_the_dimensions() {
+    var items = items(LongStream.range(0, 11)).expand();
+
+    assertEquals(11, items.size());
+    assertEquals("retry-10vu-25f-00001", items.get(0).getScenario());
+    assertEquals("retry-10vu-50f-00001", items.get(1).getScenario());
+    assertEquals("retry-10vu-25f-00002", items.get(2).getScenario());
+    assertEquals("retry-20vu-50f-00002", items.get(7).getScenario());
+    assertEquals("timeout-10vu-00003", items.get(10).getScenario());
+    assertEquals("2024/timeout-10vu-00003.json", items.get(10).getResultFile());
+    assertEquals(10L, items.get(10).getIndex());
+    assertTrue(items.stream().allMatch(ExecutionQueueItem::isPending));
+  }
+
+  @Test
+  void should_serialize_the_items_without_listing_them() throws Exception {
+    var spec = new ExecutionQueueSpec("2024/results.json", items(LongStream.of(10, 0, 1)), "benchmark", 1, null);
+    spec.getItems().get(0).markAsCompleted();
+
+    var mapper = new ObjectMapper();
+    var json = mapper.writeValueAsString(spec);
+    var read = mapper.readValue(json, ExecutionQueueSpec.class);
+
+    assertFalse(json.contains("\"items\""));
+    var items = read.getItems();
+    assertEquals(List.of("timeout-10vu-00003", "retry-10vu-25f-00001", "retry-10vu-50f-00001"),
+            items.stream().map(ExecutionQueueItem::getScenario).toList());
+    assertTrue(items.stream().allMatch(ExecutionQueueItem::isPending));
+  }
+}
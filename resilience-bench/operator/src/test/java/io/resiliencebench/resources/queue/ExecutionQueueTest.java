@@ -0,0 +1,67 @@
+package io.resiliencebench.resources.queue;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.resiliencebench.resources.Phase;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionQueueTest {
+
+  @Test
+  void should_take_the_phase_of_items_from_the_status() {
+    var items = List.of(new ExecutionQueueItem("s1", "s1.json"), new ExecutionQueueItem("s2", "s2.json"), new ExecutionQueueItem("s3", "s3.json"));
+    var queue = new ExecutionQueue(new ExecutionQueueSpec("results.json", items, "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("test").build());
+    var completed = new ExecutionQueueItemStatus();
+    completed.markAsRunning("shard-1");
+    completed.markAsCompleted();
+    var running = new ExecutionQueueItemStatus();
+    running.markAsRunning("shard-2");
+    var status = new ExecutionQueueStatus();
+    status.getItems().put("0", completed);
+    status.getItems().put("1", running);
+    queue.setStatus(status);
+
+    assertTrue(queue.getItem("s1").isFinished());
+    assertTrue(queue.getItem("s2").isRunning());
+    assertEquals("shard-2", queue.getItem("s2").getNamespace());
+    assertEquals(List.of(queue.getItem("s3")), queue.getPendingItems());
+    assertEquals(1, queue.indexOf("s2"));
+    assertEquals(-1, queue.indexOf("s4"));
+  }
+
+  @Test
+  void should_keep_lookups_up_to_date_as_items_change_phase() {
+    var items = List.of(new ExecutionQueueItem("s1", "s1.json"), new ExecutionQueueItem("s2", "s2.json"), new ExecutionQueueItem("s3", "s3.json"));
+    var queue = new ExecutionQueue(new ExecutionQueueSpec("results.json", items, "benchmark"),
+            new ObjectMetaBuilder().withName("benchmark").withNamespace("test").build());
+
+    assertEquals(3, queue.countItems(Phase.PENDING));
+    assertEquals("s1", queue.getNextPendingItem().orElseThrow().getScenario());
+
+    queue.getItem("s1").markAsRunning();
+    queue.getItem("s2").markAsRunning();
+    queue.getItem("s1").markAsCompleted();
+
+    assertEquals(List.of(queue.getItem("s2")), queue.getRunningItems());
+    assertEquals("s3", queue.getNextPendingItem().orElseThrow().getScenario());
+    assertEquals(1, queue.countItems(Phase.COMPLETED));
+    assertTrue(queue.isRunning());
+
+    queue.getItem("s2").setStatus(Phase.PENDING);
+    queue.getItem("s3").markAsCompleted();
+
+    assertEquals("s2", queue.getNextPendingItem().orElseThrow().getScenario());
+    assertFalse(queue.isRunning());
+    assertFalse(queue.isDone());
+
+    queue.getItem("s2").markAsFailed();
+
+    assertTrue(queue.isDone());
+    assertFalse(queue.hasPendingItems());
+    assertTrue(queue.getNextPendingItem().isEmpty());
+  }
+}
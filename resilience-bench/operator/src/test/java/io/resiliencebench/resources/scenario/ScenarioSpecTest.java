@@ -4,6 +4,7 @@ import io.resiliencebench.resources.fault.DelayFault;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -27,4 +28,15 @@ class ScenarioSpecTest {
     var result = scenarioSpec.toConnectorsInJson();
     assertEquals(1, result.size(), "JsonArray should have one element when there is one connector.");
   }
-}
\ No newline at end of file
+
+  @Test
+  void testGetResilientServices() {
+    var connector = new Connector.Builder()
+            .source(new Service("frontend"))
+            .destination(new Service("cart"))
+            .name("frontend-cart").build();
+    var fault = new ScenarioFault("envoy", 25, List.of("cart", "payment"));
+    var scenarioSpec = new ScenarioSpec("Test Scenario", null, List.of(connector), fault);
+    assertEquals(Set.of("frontend", "cart", "payment"), scenarioSpec.getResilientServices());
+  }
+}
@@ -0,0 +1,144 @@
+package io.resiliencebench.support;
+
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Indexer;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+import io.resiliencebench.resources.queue.ExecutionQueue;
+import io.resiliencebench.resources.queue.ExecutionQueueItem;
+import io.resiliencebench.resources.queue.ExecutionQueueSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachingCustomResourceRepositoryTest {
+
+  @Mock
+  private MixedOperation<ExecutionQueue, KubernetesResourceList<ExecutionQueue>, Resource<ExecutionQueue>> operation;
+  @Mock
+  private FilterWatchListMultiDeletable<ExecutionQueue, KubernetesResourceList<ExecutionQueue>> anyNamespace;
+  @Mock
+  private NonNamespaceOperation<ExecutionQueue, KubernetesResourceList<ExecutionQueue>, Resource<ExecutionQueue>> inNamespace;
+  @Mock
+  private Resource<ExecutionQueue> resource;
+  @Mock
+  private SharedIndexInformer<ExecutionQueue> informer;
+  @Mock
+  private Indexer<ExecutionQueue> indexer;
+
+  private CachingCustomResourceRepository<ExecutionQueue> repository;
+  private ResourceEventHandler<ExecutionQueue> eventHandler;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(operation.inAnyNamespace()).thenReturn(anyNamespace);
+    when(anyNamespace.runnableInformer(0)).thenReturn(informer);
+    when(operation.inNamespace(anyString())).thenReturn(inNamespace);
+    when(inNamespace.resource(any())).thenReturn(resource);
+    when(inNamespace.withName(anyString())).thenReturn(resource);
+    when(informer.getIndexer()).thenReturn(indexer);
+    when(informer.hasSynced()).thenReturn(true);
+
+    repository = new CachingCustomResourceRepository<>(operation, new KubernetesSerialization());
+
+    var handler = ArgumentCaptor.forClass(ResourceEventHandler.class);
+    verify(informer).addEventHandler(handler.capture());
+    eventHandler = handler.getValue();
+  }
+
+  private static ExecutionQueue queue(String resourceVersion, int parallelism) {
+    var meta = new ObjectMetaBuilder()
+            .withNamespace("test")
+            .withName("benchmark")
+            .withUid("uid")
+            .withResourceVersion(resourceVersion)
+            .build();
+    var items = List.of(new ExecutionQueueItem("s1", "s1.json"));
+    return new ExecutionQueue(new ExecutionQueueSpec("results.json", items, "benchmark", parallelism), meta);
+  }
+
+  @Test
+  void should_serve_reads_from_the_informer_cache() {
+    when(indexer.getByKey("test/benchmark")).thenReturn(queue("1", 1));
+
+    var found = repository.find("test", "benchmark");
+
+    assertTrue(found.isPresent());
+    assertEquals("1", found.get().getMetadata().getResourceVersion());
+    verify(resource, never()).get();
+  }
+
+  @Test
+  void should_return_copies_of_cached_resources() {
+    var cached = queue("1", 1);
+    when(indexer.getByKey("test/benchmark")).thenReturn(cached);
+
+    repository.get("test", "benchmark").getItem("s1").markAsRunning();
+
+    assertTrue(cached.getItem("s1").isPending());
+  }
+
+  @Test
+  void should_return_own_writes_until_the_informer_receives_them() {
+    when(indexer.getByKey("test/benchmark")).thenReturn(queue("1", 1));
+    when(indexer.byIndex("namespace", "test")).thenReturn(List.of(queue("1", 1)));
+    when(resource.update()).thenReturn(queue("2", 3));
+
+    repository.update(queue("1", 3));
+
+    assertEquals("2", repository.get("test", "benchmark").getMetadata().getResourceVersion());
+    assertEquals(3, repository.list("test").get(0).getParallelism());
+
+    eventHandler.onUpdate(queue("1", 1), queue("2", 3));
+    when(indexer.getByKey("test/benchmark")).thenReturn(queue("2", 3));
+
+    assertEquals(3, repository.get("test", "benchmark").getParallelism());
+  }
+
+  @Test
+  void should_list_by_owner_from_the_owner_index() {
+    var owned = queue("1", 1);
+    owned.getMetadata().setAnnotations(Map.of(Annotations.OWNED_BY, "benchmark"));
+    when(indexer.byIndex(CachingCustomResourceRepository.OWNER_INDEX, "test/benchmark")).thenReturn(List.of(owned));
+
+    var found = repository.listByOwner("test", "benchmark");
+
+    assertEquals(List.of("benchmark"), found.stream().map(q -> q.getMetadata().getName()).toList());
+    verify(inNamespace, never()).list();
+  }
+
+  @Test
+  void should_fall_back_to_the_api_server_until_synced() {
+    when(informer.hasSynced()).thenReturn(false);
+    when(resource.get()).thenReturn(queue("5", 1));
+
+    assertEquals("5", repository.get("test", "benchmark").getMetadata().getResourceVersion());
+    verify(indexer, never()).getByKey(any());
+  }
+
+  @Test
+  void should_compare_resource_versions() {
+    assertTrue(CachingCustomResourceRepository.isAtLeast("12", "9"));
+    assertFalse(CachingCustomResourceRepository.isAtLeast("9", "12"));
+    assertTrue(CachingCustomResourceRepository.isAtLeast("abc", "abc"));
+    assertFalse(CachingCustomResourceRepository.isAtLeast(null, "1"));
+  }
+}